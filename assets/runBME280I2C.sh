@@ -36,6 +36,6 @@
 
 
 
-java --module-path . --module  com.pi4j.devices/com.pi4j.devices.bme280.BME280DeviceI2C  "$@"
+java --module-path . --module  com.pi4j.devices/com.pi4j.devices.bme280.BME280I2cExample  "$@"
 
 
@@ -36,5 +36,5 @@
 #
 #
 
-java --module-path . --module  com.pi4j.devices/com.pi4j.devices.bme280.BME280DeviceSPI  "$@"
+java --module-path . --module  com.pi4j.devices/com.pi4j.devices.bme280.BME280SpiExample  "$@"
 
@@ -37,6 +37,7 @@
 package com.pi4j.devices.ads1256;
 
 import com.pi4j.context.Context;
+import com.pi4j.devices.base_util.sample.SampleSink;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalOutput;
@@ -49,10 +50,18 @@ import com.pi4j.util.Console;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 public class ADS1256 {
 
 
-    enum MuxValue {
+    public enum MuxValue {
         AIN0,
         AIN1,
         AIN2,
@@ -64,7 +73,7 @@ public class ADS1256 {
         AINCOM
     }
 
-    enum ADS1256_GAIN
+    public enum ADS1256_GAIN
     {
         ADS1256_GAIN_1,   			   //= 0,	/* GAIN   1 */
                 ADS1256_GAIN_2,		   //	= 1,	/*GAIN   2 */
@@ -75,7 +84,7 @@ public class ADS1256 {
                 ADS1256_GAIN_64,		//	= 6,	/*GAIN    64 */
     }
 
-    enum ADS1256_DRATE {
+    public enum ADS1256_DRATE {
         ADS1256_30000SPS,
         ADS1256_15000SPS,
         ADS1256_7500SPS,
@@ -116,6 +125,54 @@ public class ADS1256 {
             0x03
     };
 
+    /**
+     * Output data rate in samples per second, indexed by ADS1256_DRATE ordinal
+     */
+    static final double[] ADS1256_DRATE_SPS =
+    {
+            30000, 15000, 7500, 3750, 2000, 1000, 500, 100, 60, 50, 30, 25, 15, 10, 5, 2.5
+    };
+
+    /**
+     * Name lookups for the string API, built once
+     */
+    private static final Map<String, MuxValue> MUX_BY_NAME = byName(MuxValue.values());
+    private static final Map<String, ADS1256_GAIN> GAIN_BY_NAME = byName(ADS1256_GAIN.values());
+    private static final Map<String, ADS1256_DRATE> DRATE_BY_NAME = byName(Arrays.copyOf(ADS1256_DRATE.values(),
+            ADS1256_DRATE.ADS1256_DRATE_MAX.ordinal()));
+
+    private static <E extends Enum<E>> Map<String, E> byName(E[] values) {
+        Map<String, E> map = new HashMap<>();
+        for (E e : values) {
+            map.put(e.name(), e);
+        }
+        return (Collections.unmodifiableMap(map));
+    }
+
+    /**
+     * @param name  AIN0 .. AIN7, AINCOM
+     * @return  input, null if name is unknown
+     */
+    static MuxValue muxByName(String name) {
+        return (MUX_BY_NAME.get(name));
+    }
+
+    /**
+     * SPI SCLK rate used for the chip
+     */
+    static final int SPI_BAUD = 976563;
+
+    /**
+     * Aggregate samples per second achievable when the input multiplexer changes every
+     * conversion (datasheet table "Multiplexer cycling throughput"), indexed by
+     * ADS1256_DRATE ordinal.  Each switch restarts the digital filter, so at the high
+     * data rates the settling time dominates.
+     */
+    static final double[] ADS1256_SCAN_SPS =
+    {
+            4374, 3817, 3043, 2165, 1438, 837, 456, 98, 59, 50, 30, 25, 15, 10, 5, 2.5
+    };
+
     /**
      *   See ADS1256App.java help text to explain these parms
      * @param pi4j
@@ -134,7 +191,31 @@ public class ADS1256 {
      * @throws InterruptedException
      */
     public ADS1256(Context pi4j, SpiBus spiBus, SpiChipSelect chipSelect, boolean  reset,  int drdyPin, int csPin, int rstPin, boolean crtRstGpio, int pdwnPin,boolean crtPdwnGpio,  Console console, String traceLevel, double vref) throws InterruptedException {
+        this(pi4j, spiBus, chipSelect, reset, drdyPin, csPin, rstPin, crtRstGpio, pdwnPin, crtPdwnGpio, console, traceLevel, vref, 0);
+    }
+
+    /**
+     *   See ADS1256App.java help text to explain these parms
+     * @param pi4j
+     * @param spiBus
+     * @param chipSelect
+     * @param reset
+     * @param drdyPin
+     * @param csPin
+     * @param rstPin
+     * @param crtRstGpio
+     * @param pdwnPin
+     * @param crtPdwnGpio
+     * @param console
+     * @param traceLevel
+     * @param vref
+     * @param drdyDebounceMicros  DRDY input debounce, must be well below the conversion
+     *                            period.  0 for none, DRDY is a driven logic output.
+     * @throws InterruptedException
+     */
+    public ADS1256(Context pi4j, SpiBus spiBus, SpiChipSelect chipSelect, boolean  reset,  int drdyPin, int csPin, int rstPin, boolean crtRstGpio, int pdwnPin,boolean crtPdwnGpio,  Console console, String traceLevel, double vref, long drdyDebounceMicros) throws InterruptedException {
         super();
+        this.drdyDebounceMicros = drdyDebounceMicros;
         this.console = console;
         this.pi4j = pi4j;
         this.chipSelect = chipSelect;
@@ -165,26 +246,35 @@ public class ADS1256 {
      * @throws InterruptedException
      */
     private void init() throws InterruptedException {
+        String spiId = "SPI" + this.spiBus + " " + this.chipSelect;
         var spiConfig = Spi.newConfigBuilder(pi4j)
-                .id("SPI" + this.spiBus + " " + this.chipSelect)
+                .id(spiId)
                 .name("A/D converter")
                 .bus(this.spiBus)
                 .chipSelect(this.chipSelect)
                 .flags(0b0000000000000011100001L)  // Ux CE not used, MM mode 1
-                .baud(976563) //Spi.DEFAULT_BAUD)
+                .baud(SPI_BAUD) //Spi.DEFAULT_BAUD)
                 .mode(SpiMode.MODE_1)
                 .provider("linuxfsspi")
                 .build();
-        this.spi = this.pi4j.create(spiConfig);
+        // chips selected by their own CS Gpio can share the bus device
+        if (this.pi4j.registry().exists(spiId)) {
+            this.spi = this.pi4j.registry().get(spiId, Spi.class);
+        } else {
+            this.spi = this.pi4j.create(spiConfig);
+        }
 
     // required all configs
         var inputConfig1 = DigitalInput.newConfigBuilder(pi4j)
-                .id("DRDY_pin")
+                .id("DRDY_pin" + this.drdyPinNum)
                 .name("DRDY")
                 .address(this.drdyPinNum)
+                .debounce(this.drdyDebounceMicros)  // Pi4J default of 10 mS would hide DRDY above 100SPS
                 .provider("gpiod-digital-input"); //               .pull(PullResistance.PULL_UP)
         try {
             this.drdyGpio = pi4j.create(inputConfig1);
+            this.drdyMonitor = new ADS1256DrdyMonitor(this.drdyGpio);
+            this.drdyGpio.addListener(this.drdyMonitor);
         } catch (Exception e) {
             e.printStackTrace();
             console.println("create DigIn DRDY failed");
@@ -192,7 +282,7 @@ public class ADS1256 {
         }
         // required all configs
         var outputConfig2 = DigitalOutput.newConfigBuilder(pi4j)
-                .id("CS_pin")
+                .id("CS_pin" + this.csPinNum)
                 .name("CS")
                 .address(this.csPinNum)
                 .shutdown(DigitalState.HIGH)
@@ -208,7 +298,7 @@ public class ADS1256 {
         // not always required, see README
         if(this.crtRstGpio) {
             var outputConfig3 = DigitalOutput.newConfigBuilder(pi4j)
-                    .id("RST_pin")
+                    .id("RST_pin" + this.rstPinNum)
                     .name("RESET")
                     .address(this.rstPinNum)
                     .shutdown(DigitalState.HIGH)
@@ -228,7 +318,7 @@ public class ADS1256 {
         // not always required, see README
         if(this.crtPdwnGpio) {
         var outputConfig4 = DigitalOutput.newConfigBuilder(pi4j)
-                .id("PDWN_pin")
+                .id("PDWN_pin" + this.pdwnPinNum)
                 .name("PDWN")
                 .address(this.pdwnPinNum)
                 .shutdown(DigitalState.HIGH)
@@ -261,13 +351,16 @@ public class ADS1256 {
      * @return chip ID
      * @throws InterruptedException
      */
-    public int validateChipID() throws InterruptedException {
+    public synchronized int validateChipID() throws InterruptedException {
         // print program title/header
         int id = 0;
         this.logger.trace(">>> Enter displayProgramID");
         console.title("<-- The Pi4J Project -->", "SPI test program using ADS1256 AtoD Chip");
-        this.waitForDrdyLow();
-        id = this.readRegData(ADS1256_Declares.REG_STATUS) >> 4;
+        if (this.shadowValid == false) {
+            this.waitForDrdyLow();
+            this.loadRegisters();
+        }
+        id = (this.regShadow[ADS1256_Declares.REG_STATUS] & 0xf0) >> 4;
         if (id != ADS1256_Declares.CHIP_ID){
             console.println("Incorrect chip ID : " + id);
             System.exit(301);
@@ -277,6 +370,28 @@ public class ADS1256 {
     }
 
 
+    /**
+     *   Set chip Gain and speed
+     * @param gain    ADS1256_GAIN_1 .. ADS1256_GAIN_64
+     * @param drate   ADS1256_30000SPS .. ADS1256_2d5SPS
+     * @throws InterruptedException
+     */
+    public synchronized void configADC(String gain, String drate) throws InterruptedException {
+        this.checkNotStreaming();
+        this.ADS1256_ConfigADC(gain, drate);
+    }
+
+    /**
+     *   Set chip Gain and speed
+     * @param gain    PGA gain
+     * @param drate   data rate, not ADS1256_DRATE_MAX
+     * @throws InterruptedException
+     */
+    public synchronized void configADC(ADS1256_GAIN gain, ADS1256_DRATE drate) throws InterruptedException {
+        this.checkNotStreaming();
+        this.ADS1256_ConfigADC(gain, drate);
+    }
+
     /**
      *   Set chip Gain and speed
      * @param gain
@@ -284,30 +399,101 @@ public class ADS1256 {
      * @throws InterruptedException
      */
     private void ADS1256_ConfigADC(String gain, String  drate) throws InterruptedException {
+        ADS1256_GAIN g = GAIN_BY_NAME.get(gain);
+        ADS1256_DRATE d = DRATE_BY_NAME.get(drate);
+        if (g == null || d == null) {
+            throw new IllegalArgumentException("invalid gain/drate " + gain + "/" + drate);
+        }
+        this.ADS1256_ConfigADC(g, d);
+    }
+
+    /**
+     *   Set chip Gain and speed
+     * @param gain
+     * @param drate
+     * @throws InterruptedException
+     */
+    private void ADS1256_ConfigADC(ADS1256_GAIN gain, ADS1256_DRATE drate) throws InterruptedException {
+        if (drate == ADS1256_DRATE.ADS1256_DRATE_MAX) {
+            throw new IllegalArgumentException("invalid drate " + drate);
+        }
+        this.drate = drate;
+        this.drateSps = ADS1256_DRATE_SPS[drate.ordinal()];
         this.waitForDrdyLow();
-        byte status = this.readRegData(ADS1256_Declares.REG_STATUS);
-        int buf[] = {0,0,0,0};
+        if (this.shadowValid == false) {
+            this.loadRegisters();
+        }
+        byte status = this.regShadow[ADS1256_Declares.REG_STATUS];
+        byte buf[] = {(byte) (ADS1256_Declares.WREG | 0), 0x03, 0, 0, 0, 0};   // writing 4 bytes data
         // preserve DRDY bit state and set ACAL bit
-        buf[0] = (status & ADS1256_Declares.STATUS_DRDY_MASK)|ADS1256_Declares.STATUS_ACAL;                               //STATUS_REG
-        buf[1] =  (byte) (0b00000000 | (((0 & 0xf) << 4)) | 8);         // MUX_REG   initial: AIN0/AINCOM
-        buf[2] = (0<<5) | (0<<3) | (this.mapGainString(gain)<<0);       // ADCON_REG CLK/SENSOR off
-        buf[3] = this.mapDrateString(drate);                            // DRATE_REG
+        buf[2] = (byte) ((status & ADS1256_Declares.STATUS_DRDY_MASK)|ADS1256_Declares.STATUS_ACAL);  //STATUS_REG
+        buf[3] =  (byte) (0b00000000 | (((0 & 0xf) << 4)) | 8);         // MUX_REG   initial: AIN0/AINCOM
+        buf[4] = (byte) ((0<<5) | (0<<3) | (gain.ordinal()<<0));       // ADCON_REG CLK/SENSOR off
+        buf[5] = (byte) ADS1256_DRATE_E[drate.ordinal()];              // DRATE_REG
+        this.timing = new ADS1256Timing(ADS1256Timing.DEFAULT_CLOCK_HZ, SPI_BAUD, this.drateSps);
+        this.logger.trace(this.timing.toString());
+        // ID and DRDY bits of STATUS are read only, compare the rest
+        if (((status ^ buf[2]) & STATUS_WRITABLE) == 0
+                && this.regShadow[ADS1256_Declares.REG_MUX] == buf[3]
+                && this.regShadow[ADS1256_Declares.REG_ADCON] == buf[4]
+                && this.regShadow[ADS1256_Declares.REG_DRATE] == buf[5]) {
+            this.logger.trace("ADS1256_ConfigADC  registers unchanged");
+            return;
+        }
+        long seen = this.drdyMonitor.edgeCount();
         this.csGpio.low();
-        this.busyWaitMS(2);
-        this.spi.write(ADS1256_Declares.WREG | 0);
-        this.busyWaitMS(2);
-        this.spi.write(0x03);  // writing 4 bytes data
-        this.busyWaitMS(2);
-        this.spi.write(buf[0]);
-        this.busyWaitMS(2);
-        this.spi.write(buf[1]);
-        this.busyWaitMS(2);
-        this.spi.write(buf[2]);
-        this.busyWaitMS(2);
-        this.spi.write(buf[3]);
-        this.busyWaitMS(2);
+        this.spi.write(buf);
+        ADS1256Timing.pause(this.timing.t10Nanos);
         this.csGpio.high();
-        this.busyWaitMS(1);
+        this.regShadow[ADS1256_Declares.REG_STATUS] = (byte) ((status & ~STATUS_WRITABLE) | (buf[2] & STATUS_WRITABLE));
+        System.arraycopy(buf, 3, this.regShadow, ADS1256_Declares.REG_MUX, 3);
+        // ACAL, writing ADCON or DRATE starts a self calibration, DRDY falls when done
+        this.waitForDrdyEdge(seen, this.timing.calibrationTimeoutNanos);
+    }
+
+    /**
+     * Reload the register snapshot from the chip.  Only needed if something other
+     * than this instance changed the chip registers.
+     * @throws InterruptedException
+     */
+    public synchronized void refreshRegisters() throws InterruptedException {
+        this.checkNotStreaming();
+        this.waitForDrdyLow();
+        this.loadRegisters();
+    }
+
+    /**
+     * Read STATUS, MUX, ADCON, DRATE and IO with a single multi-register RREG into
+     * the register snapshot.
+     */
+    private void loadRegisters() {
+        this.logger.trace(">>> Enter loadRegisters");
+        this.regWriteBuf[0] = (byte) (ADS1256_Declares.RREG | ADS1256_Declares.REG_STATUS);
+        this.regWriteBuf[1] = (byte) (this.regShadow.length - 1);   // count - 1
+        this.csGpio.low();
+        this.spi.write(this.regWriteBuf, 0, 2);
+        ADS1256Timing.pause(this.timing.t6Nanos);
+        this.spi.read(this.regShadow, 0, this.regShadow.length);
+        ADS1256Timing.pause(this.timing.t10Nanos);
+        this.csGpio.high();
+        this.shadowValid = true;
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("<<< Exit loadRegisters  STATUS/MUX/ADCON/DRATE/IO : "
+                    + String.format("%02x %02x %02x %02x %02x", this.regShadow[0], this.regShadow[1],
+                    this.regShadow[2], this.regShadow[3], this.regShadow[4]));
+        }
+    }
+
+    /**
+     * Write reg only if data differs from the register snapshot
+     * @param reg   REG_STATUS .. REG_IO
+     * @param data  new register value
+     */
+    private void updateReg(int reg, int data) {
+        if (this.shadowValid && this.regShadow[reg] == (byte) data) {
+            return;
+        }
+        this.writeReg(reg, data);
     }
 
     /**
@@ -328,84 +514,67 @@ public class ADS1256 {
      * If the RESET Gpio was configured reset dhip via Gpio, else use commands
      * @throws InterruptedException
      */
-    public void doReset() throws InterruptedException {
+    public synchronized void doReset() throws InterruptedException {
         this.logger.trace(">>> Enter doReset");
+        this.shadowValid = false;
+        // DRDY may already be low from the last conversion, wait for the edge the reset causes
+        long seen = this.drdyMonitor.edgeCount();
         if(this.rstGpio != null) {
             this.rstGpio.high();
-            this.busyWaitMS(200);
             this.rstGpio.low();
-            this.busyWaitMS(200);
+            ADS1256Timing.pause(this.timing.t16Nanos);
             this.rstGpio.high();
         }else{
             this.writeCmd(ADS1256_Declares.RESET);
-            this.busyWaitMS(200);
         }
+        // registers return to defaults and a self calibration runs, DRDY falls when done
+        this.waitForDrdyEdge(seen, this.timing.calibrationTimeoutNanos);
+        this.loadRegisters();
         this.logger.trace("<<< Exit doReset");
     }
 
     private void writeCmd(int cmd) {
         this.logger.trace(">>> Enter writeCmd  cmd " + cmd);
         this.csGpio.low();
-        this.busyWaitMS(2);
         this.spi.write(cmd);
-        this.busyWaitMS(2);
+        ADS1256Timing.pause(this.timing.t11After(cmd));
         this.csGpio.high();
         this.logger.trace("<<< Exit writeCmd");
     }
 
 
     private void writeReg(int reg, int data) {
-        this.logger.trace(">>> Enter writeReg  reg :  " + reg  + " data " +  String.format("0X%02x: ", data&0xff));
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(">>> Enter writeReg  reg :  " + reg + " data " + String.format("0X%02x: ", data & 0xff));
+        }
+        this.regWriteBuf[0] = (byte) (ADS1256_Declares.WREG | reg);
+        this.regWriteBuf[1] = 0x00;
+        this.regWriteBuf[2] = (byte) data;
         this.csGpio.low();
-        this.busyWaitMS(2);
-        byte buf[] = {0,0,0};
-        buf[0] = (byte) (ADS1256_Declares.WREG | reg);
-        buf[1] =  0x00;
-        buf[2] = (byte) data;
-        this.spi.write(buf);
-
-        this.busyWaitMS(2);
+        this.spi.write(this.regWriteBuf, 0, 3);
+        ADS1256Timing.pause(this.timing.t11ShortNanos);
         this.csGpio.high();
+        if (reg < this.regShadow.length) {
+            this.regShadow[reg] = (byte) data;
+        }
         this.logger.trace("<<< Exit writeReg");
     }
 
     private byte readRegData(int reg) {
         this.logger.trace(">>> Enter readReg register# : "  + reg);
         byte rval = 42;
+        this.regWriteBuf[0] = (byte) (ADS1256_Declares.RREG | reg);
+        this.regWriteBuf[1] = 0x00;
         this.csGpio.low();
-        this.busyWaitMS(2);
-        byte buf[] = {0,0,0};
-        buf[0] = (byte) (ADS1256_Declares.RREG | reg);
-        buf[1] =  0x00;
-        this.spi.write(buf);
-        this.busyWaitMS(2);
+        this.spi.write(this.regWriteBuf, 0, 2);
+        ADS1256Timing.pause(this.timing.t6Nanos);
         rval = this.spi.readByte();
-        this.busyWaitMS(2);
+        ADS1256Timing.pause(this.timing.t10Nanos);
         this.csGpio.high();
-        this.busyWaitMS(200);  // let chip quiet
-        this.logger.trace("<<< Exit readReg  : " +  String.format("0X%02x: ", rval&0xff));
-        return (byte) (rval & 0xff);
-    }
-
-    private static void busyWaitNano(long nanos) {
-        long waitUntil = System.nanoTime() + (nanos);
-        while (waitUntil > System.nanoTime()) {
-            ;
-        }
-    }
-
-    private static void busyWaitMicros(long micros) {
-        long waitUntil = System.nanoTime() + (micros * 1000);
-        while (waitUntil > System.nanoTime()) {
-            ;
-        }
-    }
-
-    private static void busyWaitMS(long ms) {
-        long waitUntil = System.nanoTime() + (ms * 1000000);
-        while (waitUntil > System.nanoTime()) {
-            ;
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("<<< Exit readReg  : " + String.format("0X%02x: ", rval & 0xff));
         }
+        return (byte) (rval & 0xff);
     }
 
     /**
@@ -414,17 +583,9 @@ public class ADS1256 {
      * @return
      */
     private short mapMuxString(String name) {
-        MuxValue muxMap[] = MuxValue.values();
-        int posPin = 0xff;
-        for (MuxValue col : muxMap) {
-            // Calling ordinal() to find index
-            // of pin name
-            if (col.toString().contentEquals(name)) {
-                posPin = col.ordinal();
-                this.logger.trace(" pname : " + name + "  No : " + posPin);
-                break;
-            }
-        }
+        MuxValue col = MUX_BY_NAME.get(name);
+        int posPin = col == null ? 0xff : col.ordinal();
+        this.logger.trace(" pname : " + name + "  No : " + posPin);
         return (short) (posPin & 0xff);
     }
 
@@ -439,18 +600,55 @@ public class ADS1256 {
         this.logger.trace(">>> Enter mapMux  channel : " + pChannel + "/" + nChannel);
 
 
-        // create a data buffer and initialize a conversion request payload
-        byte muxData[] = new byte[]{(byte) ADS1256_Declares.WREG | ADS1256_Declares.REG_MUX, // 5H/register offset
-                (byte) (0b00000000), // number regs to write -1
-                (byte) (0b00000000 | (((pChannel & 0xf) << 4)) | nChannel), // channel +, channel AINCOM
-        };
-        Thread.sleep(2000);
-        byte muxValue[] = new byte[4];
-        this.writeReg( ADS1256_Declares.REG_MUX,(((pChannel & 0xf) << 4) | nChannel) );
+        this.updateReg(ADS1256_Declares.REG_MUX, (((pChannel & 0xf) << 4) | nChannel));
         this.logger.trace("<<< Exit mapMux ");
 
     }
 
+    /**
+     * Read pair, see read(short, short)
+     * @param pair  input pair
+     * @return conversion value
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public double read(ADS1256MuxPair pair) throws IOException, InterruptedException {
+        return (this.read((short) pair.getPositive().ordinal(), (short) pair.getNegative().ordinal()));
+    }
+
+    /**
+     * Convert pair, see getConversionValue(short, short)
+     * @param pair  input pair
+     * @return conversion value
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public int getConversionValue(ADS1256MuxPair pair) throws IOException, InterruptedException {
+        return (this.getConversionValue((short) pair.getPositive().ordinal(), (short) pair.getNegative().ordinal()));
+    }
+
+    /**
+     * Convert pair without waiting, see readAsync(short, short, Executor)
+     * @param pair      input pair
+     * @param executor  runs the RDATA readout
+     * @return  completes with the conversion value
+     */
+    public CompletableFuture<Integer> readAsync(ADS1256MuxPair pair, Executor executor) {
+        return (this.readAsync((short) pair.getPositive().ordinal(), (short) pair.getNegative().ordinal(), executor));
+    }
+
+    /**
+     * Stream pair, see startContinuous(short, short, int)
+     * @param pair      input pair
+     * @param capacity  ring size in samples
+     * @return ring receiving the samples
+     * @throws InterruptedException
+     * @throws IOException
+     */
+    public ADS1256SampleRing startContinuous(ADS1256MuxPair pair, int capacity) throws InterruptedException, IOException {
+        return (this.startContinuous((short) pair.getPositive().ordinal(), (short) pair.getNegative().ordinal(), capacity));
+    }
+
 
     /**
      * One-shot get the RDATA for ppName and pnName, then return the value
@@ -499,9 +697,12 @@ public class ADS1256 {
      * Read data via SPI bus from ADS1256 chip.
      *
      * @throws IOException
+     * @throws IllegalStateException  if a readAsync has not completed
      */
-    public double read(short pChannel, short nChannel) throws IOException, InterruptedException {
+    public synchronized double read(short pChannel, short nChannel) throws IOException, InterruptedException {
         this.logger.trace(">>> Enter read ");
+        this.checkNotStreaming();
+        this.checkNoAsyncPending();
         // see if chip ready for additional commands
         this.waitForDrdyLow();
         double conversion_value = this.getConversionValue(pChannel, nChannel);
@@ -513,27 +714,47 @@ public class ADS1256 {
 
 
     /**
-     * Polling for controlled number of times testing for
-     * DRDY Gpio being DigitalState.LOW, return true, else false
-     * @return
+     * Wait for DRDY Gpio DigitalState.LOW, bounded by the DRDY timeout of the
+     * timing model.
      * @throws InterruptedException
+     * @throws IllegalStateException  on time out
      */
-    private boolean waitForDrdyLow() throws InterruptedException {
-        boolean rval = false;
-        long i = 0;
-        for(i=0;i<4000000;i++){
-            if(this.drdyGpio.state()  == DigitalState.LOW) {
-                rval = true;
-                break;
-            }else{
-                this.logger.trace("Not desired State counter "  + i);
-            }
+    private void waitForDrdyLow() throws InterruptedException {
+        this.waitForDrdyLow(this.timing.drdyTimeoutNanos);
+    }
+
+    /**
+     * Wait for DRDY Gpio DigitalState.LOW.  The thread is parked until the DRDY
+     * falling edge listener releases it.
+     * @param timeoutNanos  give up after this long
+     * @throws InterruptedException
+     * @throws IllegalStateException  on time out, the chip is not converting
+     */
+    private void waitForDrdyLow(long timeoutNanos) throws InterruptedException {
+        if (this.drdyMonitor.awaitLow(timeoutNanos) == false) {
+            this.drdyTimedOut(timeoutNanos);
         }
-        if(i >= 4000000){
-            this.logger.trace("waitForDrdyLow Time Out ...\r\n");
+    }
+
+    /**
+     * Wait for a DRDY falling edge after the one counted in seen.  Use where DRDY can
+     * already be low from an earlier conversion, so its level says nothing about the
+     * command just sent.
+     * @param seen          drdyMonitor.edgeCount() taken before the command
+     * @param timeoutNanos  give up after this long
+     * @throws InterruptedException
+     * @throws IllegalStateException  on time out
+     */
+    private void waitForDrdyEdge(long seen, long timeoutNanos) throws InterruptedException {
+        if (this.drdyMonitor.awaitEdge(seen, timeoutNanos) == false) {
+            this.drdyTimedOut(timeoutNanos);
         }
-        //this.logger.trace(" waitForDrdyLow   " + rval);
-        return (rval);
+    }
+
+    private void drdyTimedOut(long timeoutNanos) {
+        String msg = "ADS1256 DRDY timeout after " + (timeoutNanos / 1000) + " us";
+        this.logger.error(msg);
+        throw new IllegalStateException(msg);
     }
 
 
@@ -548,24 +769,25 @@ public class ADS1256 {
      * @param nChannel analog input channel on ADC chip
      * @return conversion value for specified analog input channel
      * @throws IOException
+     * @throws IllegalStateException  if a readAsync has not completed
      */
-    public int getConversionValue(short pChannel, short nChannel) throws IOException, InterruptedException {
+    public synchronized int getConversionValue(short pChannel, short nChannel) throws IOException, InterruptedException {
         this.logger.trace(">>> Enter getConversionValue  channel : " + pChannel + "/" + nChannel);
-
+        this.checkNoAsyncPending();
 
         this.mapMux(pChannel, nChannel);
-        this.busyWaitMS(2);
-
         this.writeCmd(ADS1256_Declares.SYNC);
-        this.busyWaitMS(2);
         this.writeCmd(ADS1256_Declares.WAKEUP);
-        this.busyWaitMS(2);
         int value = this.doRDATA();
-        this.busyWaitMS(2);
 
-        this.logger.info("Channel  :" + pChannel + "/" + nChannel + "  value  :" + value ); //String.format(" | %06f", value)); // print
-        if (this.vref > 0) {
-            this.logger.info("A/D read input voltage : " + ((value * this.vref) / 0x7fffff + " \n"));
+        SampleSink sink = this.sampleSink;
+        if (sink != null) {
+            sink.accept(System.nanoTime(), ((pChannel & 0xf) << 4) | nChannel, value);
+        } else if (this.logger.isInfoEnabled()) {
+            this.logger.info("Channel  :" + pChannel + "/" + nChannel + "  value  :" + value); //String.format(" | %06f", value)); // print
+            if (this.vref > 0) {
+                this.logger.info("A/D read input voltage : " + ((value * this.vref) / 0x7fffff + " \n"));
+            }
         }
 
         this.logger.trace("<<< Exit getConversionValue ");
@@ -584,94 +806,448 @@ public class ADS1256 {
     int buf[] = {0,0,0};
 
     this.waitForDrdyLow();
-    this.busyWaitMS(1);
 
     this.csGpio.low();
-    this.busyWaitMS(2);
     this.spi.write(ADS1256_Declares.RDATA);
-    this.busyWaitMS(1);
-    buf[0] = this.spi.readByte();
-    buf[1] = this.spi.readByte();
-    buf[2] = this.spi.readByte();
+    ADS1256Timing.pause(this.timing.t6Nanos);
+    this.spi.read(this.rdataBuf, 0, 3);
+    ADS1256Timing.pause(this.timing.t10Nanos);
     this.csGpio.high();
-    read = (buf[0] << 16) & 0x00FF0000;
-    read |= (buf[1] << 8) & 0x0000FF00;
-    read |= buf[2] & 0x000000FF;
-    read &= 0x00ffffff;
-    //printf("%d  %d  %d \r\n",buf[0],buf[1],buf[2]);
-    if (read >= 0x800000) {
-        read -=  0x1000000; // negative value
-    }
+    buf[0] = this.rdataBuf[0];
+    buf[1] = this.rdataBuf[1];
+    buf[2] = this.rdataBuf[2];
+    read = toSigned24(buf[0], buf[1], buf[2]);
     this.logger.trace("<<< Exit doRDATA ");
     return read;
 
 }
 
 
-    private short mapDrateString(String name) {
-        ADS1256_DRATE drateMap[] = ADS1256_DRATE.values();
-        int posPin = 0xff;
-        for (ADS1256_DRATE col : drateMap) {
-            // Calling ordinal() to find index
-            // of drate.
-            if (col.toString().contentEquals(name)) {
-                posPin = col.ordinal();
-                this.logger.trace(" drate : " + name + "  No : " + ADS1256_DRATE_E[posPin]);
-                break;
+    /**
+     * Encode channel pairs for scan.  Names are given as positive/negative pairs,
+     * for example "AIN0", "AINCOM", "AIN1", "AINCOM".
+     * @param names  even number of AIN0 .. AIN7, AINCOM names
+     * @return  MUX register value per pair
+     */
+    public byte[] buildScanList(String... names) {
+        if (names.length == 0 || (names.length & 1) != 0) {
+            throw new IllegalArgumentException("scan list needs positive/negative name pairs");
+        }
+        byte[] list = new byte[names.length / 2];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = ADS1256MuxPair.of(names[2 * i], names[2 * i + 1]).getMux();
+        }
+        return (list);
+    }
+
+    /**
+     * Encode channel pairs for scan
+     * @param pairs  input pairs in scan order
+     * @return  MUX register value per pair
+     */
+    public byte[] buildScanList(ADS1256MuxPair... pairs) {
+        if (pairs.length == 0) {
+            throw new IllegalArgumentException("scan list needs at least one pair");
+        }
+        byte[] list = new byte[pairs.length];
+        for (int i = 0; i < list.length; i++) {
+            list[i] = pairs[i].getMux();
+        }
+        return (list);
+    }
+
+    /**
+     * @return  aggregate samples/sec the chip can deliver when cycling the mux at the
+     * current DRATE, the target for scan
+     */
+    public double getScanTargetSps() {
+        return (ADS1256_SCAN_SPS[this.drate.ordinal()]);
+    }
+
+    /**
+     * Convert each entry of muxList in turn using the datasheet's pipelined cycle:
+     * after DRDY goes low the MUX for the next entry is written, SYNC and WAKEUP
+     * start its conversion, and RDATA then reads the result of the entry that just
+     * completed.  Mux change and readout overlap so no conversion period is wasted.
+     *
+     * @param muxList   MUX register values, see buildScanList
+     * @param frames    passes through the list, 0 to run until the consumer returns false
+     * @param consumer  receives one timestamped frame per pass
+     * @return  achieved aggregate samples/sec
+     * @throws InterruptedException
+     */
+    public synchronized double scan(byte[] muxList, long frames, ADS1256ScanConsumer consumer) throws InterruptedException {
+        this.logger.trace(">>> Enter scan  entries : " + muxList.length + "  frames : " + frames);
+        this.checkNotStreaming();
+        int n = muxList.length;
+        int[] codes = new int[n];
+        long[] nanos = new long[n];
+        SampleSink sink = this.sampleSink;
+        // prime the pipeline with the first entry
+        this.updateReg(ADS1256_Declares.REG_MUX, muxList[0]);
+        this.writeCmd(ADS1256_Declares.SYNC);
+        this.writeCmd(ADS1256_Declares.WAKEUP);
+        long start = System.nanoTime();
+        long frame = 0;
+        boolean more = true;
+        boolean completed = false;
+        try {
+            while (more && (frames == 0 || frame < frames)) {
+                for (int k = 0; k < n; k++) {
+                    this.waitForDrdyLow();
+                    this.scanMuxBuf[2] = muxList[(k + 1) % n];
+                    this.csGpio.low();
+                    this.spi.write(this.scanMuxBuf, 0, 3);
+                    ADS1256Timing.pause(this.timing.t11ShortNanos);
+                    this.spi.write(ADS1256_Declares.SYNC);
+                    ADS1256Timing.pause(this.timing.t11LongNanos);
+                    this.spi.write(ADS1256_Declares.WAKEUP);
+                    this.spi.write(ADS1256_Declares.RDATA);
+                    ADS1256Timing.pause(this.timing.t6Nanos);
+                    this.spi.read(this.rdataBuf, 0, 3);
+                    ADS1256Timing.pause(this.timing.t10Nanos);
+                    this.csGpio.high();
+                    nanos[k] = System.nanoTime();
+                    codes[k] = toSigned24(this.rdataBuf[0], this.rdataBuf[1], this.rdataBuf[2]);
+                    if (sink != null) {
+                        sink.accept(nanos[k], muxList[k] & 0xff, codes[k]);
+                    }
+                }
+                more = consumer.accept(frame, nanos, codes, n);
+                frame++;
+            }
+            completed = true;
+        } finally {
+            if (completed) {
+                // the pipeline wrote MUX directly, last value is in scanMuxBuf
+                this.regShadow[ADS1256_Declares.REG_MUX] = this.scanMuxBuf[2];
+            } else {
+                // interrupted or failed mid cycle, the MUX write may or may not have happened
+                this.csGpio.high();
+                this.shadowValid = false;
             }
         }
-        return (short) ( ADS1256_DRATE_E[posPin] & 0xff);
+        double secs = (System.nanoTime() - start) / 1e9;
+        double rval = secs > 0 ? (frame * n) / secs : 0;
+        this.logger.trace("<<< Exit scan  samples/sec : " + rval + "  target : " + this.getScanTargetSps());
+        return (rval);
+    }
+
+    /**
+     * Convert the three RDATA bytes, MSB first, to a signed value
+     * @param b0  MSB
+     * @param b1
+     * @param b2  LSB
+     * @return  conversion value -0x800000 .. 0x7fffff
+     */
+    static int toSigned24(int b0, int b1, int b2) {
+        int read = ((b0 & 0xff) << 16) | ((b1 & 0xff) << 8) | (b2 & 0xff);
+        return ((read << 8) >> 8);  // sign extend bit 23
+    }
+
+    /**
+     * Start continuous conversion of one channel pair using the chip's RDATAC mode.
+     * <p>
+     * CS is held low for the duration.  Each DRDY falling edge wakes the acquisition
+     * thread, which clocks out the 24 bit result and adds it to the returned ring.
+     * The channel is sampled at the DRATE set by configADC.  No other chip operation
+     * is allowed until stopContinuous.
+     *
+     * @param ppName   positive input, AIN0 .. AINCOM
+     * @param pnName   negative input, AIN0 .. AINCOM
+     * @param capacity ring size in samples
+     * @return ring receiving the samples
+     * @throws InterruptedException
+     * @throws IOException
+     */
+    public ADS1256SampleRing startContinuous(String ppName, String pnName, int capacity) throws InterruptedException, IOException {
+        return (this.startContinuous(this.mapMuxString(ppName), this.mapMuxString(pnName), capacity));
+    }
+
+    /**
+     * See startContinuous(String, String, int)
+     * @param pChannel  positive input 0-8
+     * @param nChannel  negative input 0-8
+     * @param capacity  ring size in samples
+     * @return ring receiving the samples
+     * @throws InterruptedException
+     * @throws IOException
+     */
+    public synchronized ADS1256SampleRing startContinuous(short pChannel, short nChannel, int capacity) throws InterruptedException, IOException {
+        this.logger.trace(">>> Enter startContinuous  channel : " + pChannel + "/" + nChannel);
+        this.checkNotStreaming();
+        this.streamRing = new ADS1256SampleRing(capacity);
+        this.streamSink = this.sampleSink;
+        this.streamMux = ((pChannel & 0xf) << 4) | nChannel;
+        this.missedDrdy = 0;
+        this.mapMux(pChannel, nChannel);
+        this.writeCmd(ADS1256_Declares.SYNC);
+        this.writeCmd(ADS1256_Declares.WAKEUP);
+        this.waitForDrdyLow();
+
+        this.csGpio.low();
+        this.spi.write(ADS1256_Declares.RDDATC);
+        ADS1256Timing.pause(this.timing.t6Nanos);
+        // first result is available now, later ones after each DRDY falling edge
+        long seen = this.drdyMonitor.edgeCount();
+        this.readContinuousSample();
+
+        this.streaming = true;
+        this.streamThread = new Thread(() -> this.streamLoop(seen), "ads1256-rdatac");
+        this.streamThread.setDaemon(true);
+        this.streamThread.start();
+        this.logger.trace("<<< Exit startContinuous");
+        return (this.streamRing);
+    }
+
+    /**
+     * End RDATAC mode, release CS and stop the acquisition thread.
+     * @return ring holding samples not yet drained, null if not streaming
+     * @throws InterruptedException
+     */
+    public synchronized ADS1256SampleRing stopContinuous() throws InterruptedException {
+        this.logger.trace(">>> Enter stopContinuous");
+        if (this.streaming == false) {
+            return (null);
+        }
+        this.streaming = false;
+        this.streamThread.interrupt();
+        this.streamThread.join(1000);
+        this.streamThread = null;
+        // DRDY stays low while the last result is unread, wait for the next edge
+        long seen = this.drdyMonitor.edgeCount();
+        try {
+            // SDATAC must follow a DRDY falling edge so it does not collide with a data update
+            this.waitForDrdyEdge(seen, this.timing.drdyTimeoutNanos);
+        } finally {
+            // leave RDATAC and release CS even if DRDY stopped
+            this.spi.write(ADS1256_Declares.SDATAC);
+            ADS1256Timing.pause(this.timing.t10Nanos);
+            this.csGpio.high();
+        }
+        this.logger.trace("<<< Exit stopContinuous  samples : " + this.streamRing.getWritten() + "  overruns : "
+                + this.streamRing.getOverruns() + "  missed DRDY : " + this.missedDrdy);
+        return (this.streamRing);
+    }
+
+    /**
+     * @return true while RDATAC streaming is active
+     */
+    public boolean isStreaming() {
+        return (this.streaming);
     }
 
-    private short mapGainString(String name) {
-        ADS1256_GAIN drateMap[] = ADS1256_GAIN.values();
-        int posPin = 0xff;
-        for (ADS1256_GAIN col : drateMap) {
-            // Calling ordinal() to find index
-            // of Gain name.
-            if (col.toString().contentEquals(name)) {
-                posPin = col.ordinal();
-                this.logger.trace(" gain : " + name + "  No : " + posPin);
+    /**
+     * @return DRDY edges that arrived before the previous result was read, the sample
+     * they announced was overwritten by the chip
+     */
+    public long getMissedDrdy() {
+        return (this.missedDrdy);
+    }
+
+    private void streamLoop(long seen) {
+        // twice the conversion period, the DRDY edge normally releases us well before this
+        long timeoutNanos = 2 * this.timing.conversionNanos + 1000000;
+        while (this.streaming) {
+            try {
+                if (this.drdyMonitor.awaitEdge(seen, timeoutNanos) == false) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
                 break;
             }
+            long now = this.drdyMonitor.edgeCount();
+            if (now - seen > 1) {
+                this.missedDrdy += now - seen - 1;
+            }
+            seen = now;
+            this.readContinuousSample();
         }
-        return (short) (posPin & 0xff);
     }
 
-    public  DigitalState readGpio(int pin){
+    /**
+     * Start a one-shot conversion of pChannel/nChannel and return without waiting.
+     * The DRDY falling edge hands the readout to executor, which completes the
+     * returned future with the conversion value.  Several ADS1256 instances can
+     * share one small executor, no thread blocks while the chips convert.
+     * @param pChannel  positive input 0-8
+     * @param nChannel  negative input 0-8
+     * @param executor  runs the RDATA readout
+     * @return  completes with the conversion value, or exceptionally on DRDY time out
+     * @throws IllegalStateException  if a previous readAsync has not completed
+     */
+    public synchronized CompletableFuture<Integer> readAsync(short pChannel, short nChannel, Executor executor) {
+        this.checkNotStreaming();
+        this.checkNoAsyncPending();
+        CompletableFuture<Integer> rval = new CompletableFuture<>();
+        Runnable readout = () -> {
+            try {
+                rval.complete(this.readResultNow());
+            } catch (RuntimeException e) {
+                rval.completeExceptionally(e);
+            }
+        };
+        try {
+            this.mapMux(pChannel, nChannel);
+        } catch (IOException | InterruptedException e) {
+            rval.completeExceptionally(e);
+            return (rval);
+        }
+        // SYNC halts conversion, DRDY falls again once the conversion begun by WAKEUP
+        // is ready.  Registering after SYNC keeps an edge of the previous conversion
+        // from triggering the readout.
+        this.writeCmd(ADS1256_Declares.SYNC);
+        this.drdyMonitor.onNextLow(executor, readout);
+        this.writeCmd(ADS1256_Declares.WAKEUP);
+        rval.orTimeout(this.timing.drdyTimeoutNanos, TimeUnit.NANOSECONDS)
+                .whenComplete((v, e) -> this.drdyMonitor.cancel(readout));
+        return (rval);
+    }
+
+    /**
+     * RDATA without waiting for DRDY, caller knows the result is ready
+     * @return  conversion value
+     */
+    synchronized int readResultNow() {
+        this.csGpio.low();
+        this.spi.write(ADS1256_Declares.RDATA);
+        ADS1256Timing.pause(this.timing.t6Nanos);
+        this.spi.read(this.rdataBuf, 0, 3);
+        ADS1256Timing.pause(this.timing.t10Nanos);
+        this.csGpio.high();
+        return (toSigned24(this.rdataBuf[0], this.rdataBuf[1], this.rdataBuf[2]));
+    }
+
+    /**
+     * Send every conversion result to sink instead of logging it.  Applies to
+     * getConversionValue, scan and, from the next startContinuous, streaming.
+     * The channel passed to the sink is the MUX register value.
+     * @param sink  null restores the INFO log of each result
+     */
+    public void setSampleSink(SampleSink sink) {
+        this.sampleSink = sink;
+    }
+
+    /**
+     * @return  current sample sink, may be null
+     */
+    public SampleSink getSampleSink() {
+        return (this.sampleSink);
+    }
+
+    /**
+     * Set MUX for a conversion started by a coordinator, see ADS1256CaptureGroup
+     * @param mux  MUX register value
+     */
+    synchronized void selectMux(int mux) {
+        this.checkNotStreaming();
+        this.updateReg(ADS1256_Declares.REG_MUX, mux & 0xff);
+    }
+
+    /**
+     * Send a single byte command, see ADS1256CaptureGroup
+     * @param cmd  ADS1256_Declares command
+     */
+    synchronized void command(int cmd) {
+        this.writeCmd(cmd);
+    }
+
+    /**
+     * @return  timing model for the current DRATE
+     */
+    ADS1256Timing getTiming() {
+        return (this.timing);
+    }
+
+    /**
+     * @return  SPI bus the chip is on
+     */
+    SpiBus getSpiBus() {
+        return (this.spiBus);
+    }
+
+    /**
+     * @return  DRDY edge notifier for this chip
+     */
+    public ADS1256DrdyMonitor getDrdyMonitor() {
+        return (this.drdyMonitor);
+    }
+
+    private void readContinuousSample() {
+        this.spi.read(this.rdatacBuf, 0, 3);
+        long now = System.nanoTime();
+        int code = toSigned24(this.rdatacBuf[0], this.rdatacBuf[1], this.rdatacBuf[2]);
+        this.streamRing.offer(code, now);
+        if (this.streamSink != null) {
+            this.streamSink.accept(now, this.streamMux, code);
+        }
+    }
+
+    private void checkNotStreaming() {
+        if (this.streaming) {
+            throw new IllegalStateException("ADS1256 RDATAC streaming active, call stopContinuous first");
+        }
+    }
+
+    private void checkNoAsyncPending() {
+        if (this.drdyMonitor.hasPending()) {
+            throw new IllegalStateException("ADS1256 readAsync already pending");
+        }
+    }
+
+    /**
+     * Direction comes from the register snapshot, only the pin level of an
+     * input pin is read from the chip.
+     * @param pin  0-3
+     * @return  pin level, UNKNOWN if pin is not an input
+     */
+    public synchronized DigitalState readGpio(int pin){
         this.logger.trace(">>> Enter readGpio pin  "  + pin);
         DigitalState rval = DigitalState.UNKNOWN;
-        byte regVal = this.readRegData(ADS1256_Declares.REG_IO);
-        if(this.isPinInput(pin, regVal)){
+        this.ensureRegisters();
+        if(this.isPinInput(pin, this.regShadow[ADS1256_Declares.REG_IO])){
+            byte regVal = this.readRegData(ADS1256_Declares.REG_IO);
+            this.regShadow[ADS1256_Declares.REG_IO] = regVal;
             rval = this.getPinState(pin, regVal);
         }
         this.logger.trace("<<< Exit readGpio  State"  + rval);
         return (rval);
     }
 
-    public  boolean setGpioDirOut(int pin){
+    public synchronized boolean setGpioDirOut(int pin){
         this.logger.trace(">>> Enter setGpioDirOut pin  "  + pin);
         boolean rval = false;
-       // this.logger.trace("ADCON"  + this.readRegData(ADS1256_Declares.REG_ADCON));
-        byte regVal = this.readRegData(ADS1256_Declares.REG_IO);
+        this.ensureRegisters();
+        byte regVal = this.regShadow[ADS1256_Declares.REG_IO];
         regVal &=  ~(0x10<< pin) & 0xff;
-        this.writeReg(ADS1256_Declares.REG_IO, regVal);
+        this.updateReg(ADS1256_Declares.REG_IO, regVal);
         rval = true;
         this.logger.trace("<<< Exit setGpioDirOut  "  + rval);
         return (rval);
     }
 
-    public  boolean setGpioDirIn(int pin){
+    public synchronized boolean setGpioDirIn(int pin){
         this.logger.trace(">>> Enter setGpioDirIn pin  "  + pin);
         boolean rval = false;
-        byte regVal = this.readRegData(ADS1256_Declares.REG_IO);
+        this.ensureRegisters();
+        byte regVal = this.regShadow[ADS1256_Declares.REG_IO];
         regVal |= (0x10<< pin) & 0xff;
-        this.writeReg(ADS1256_Declares.REG_IO, regVal);
+        this.updateReg(ADS1256_Declares.REG_IO, regVal);
         this.logger.trace("<<< Exit setGpioDirIn  State"  + rval);
         rval = true;
         return (rval);
     }
 
+    /**
+     * Load the register snapshot if a reset discarded it
+     */
+    private void ensureRegisters() {
+        this.checkNotStreaming();
+        if (this.shadowValid == false) {
+            this.loadRegisters();
+        }
+    }
+
     private DigitalState getPinState(int pin, byte registerVal){
         DigitalState rval = DigitalState.UNKNOWN;
         this.logger.trace(">>> Enter isPinInput pin: "  +pin);
@@ -683,10 +1259,11 @@ public class ADS1256 {
         this.logger.trace(" Exit isPinInput ");
         return(rval);
     }
-    public  boolean setGpio(int pin, DigitalState newState){
+    public synchronized boolean setGpio(int pin, DigitalState newState){
         this.logger.trace(">>> Enter setGpio  pin "  + pin + "  state : "+ newState);
         boolean rval = false;
-        byte regVal = this.readRegData(ADS1256_Declares.REG_IO);
+        this.ensureRegisters();
+        byte regVal = this.regShadow[ADS1256_Declares.REG_IO];
         if(this.isPinOutput(pin, regVal)){
             rval = this.setPinState(pin, newState, regVal);
         }else {
@@ -706,7 +1283,7 @@ public class ADS1256 {
             registerVal &= ~(1<< pin);
             rval = true;
         }
-        this.writeReg(ADS1256_Declares.REG_IO, registerVal);
+        this.updateReg(ADS1256_Declares.REG_IO, registerVal);
         this.logger.trace(" Exit setPinState   " + rval);
         return(rval);
     }
@@ -758,6 +1335,28 @@ public class ADS1256 {
     private DigitalOutput pdwnGpio;
 
     private int pdwnPinNum;     //  27
+
+    private double drateSps = 10;
+    private ADS1256_DRATE drate = ADS1256_DRATE.ADS1256_10SPS;
+    private volatile ADS1256Timing timing = new ADS1256Timing(ADS1256Timing.DEFAULT_CLOCK_HZ, SPI_BAUD, 10);
+    private final byte[] regWriteBuf = new byte[3];
+    // STATUS, MUX, ADCON, DRATE, IO as last read or written
+    private final byte[] regShadow = new byte[ADS1256_Declares.REG_IO + 1];
+    private boolean shadowValid = false;
+    // STATUS bits that can be written, ID and DRDY are read only
+    private static final int STATUS_WRITABLE = 0b00001110;
+    private volatile boolean streaming = false;
+    private volatile Thread streamThread;
+    private ADS1256DrdyMonitor drdyMonitor;
+    private final long drdyDebounceMicros;
+    private ADS1256SampleRing streamRing;
+    private volatile SampleSink sampleSink;
+    private SampleSink streamSink;
+    private int streamMux;
+    private final byte[] rdatacBuf = new byte[3];
+    private final byte[] rdataBuf = new byte[3];
+    private final byte[] scanMuxBuf = {(byte) (ADS1256_Declares.WREG | ADS1256_Declares.REG_MUX), 0x00, 0x00};
+    private volatile long missedDrdy;
     private boolean crtPdwnGpio = false;
 }
 
@@ -38,15 +38,22 @@ package com.pi4j.devices.ads1256;
 
 import com.pi4j.Pi4J;
 import com.pi4j.context.Context;
+import com.pi4j.devices.base_util.sample.CicDecimator;
+import com.pi4j.devices.base_util.sample.FilterChain;
+import com.pi4j.devices.base_util.sample.FilteredSampleSink;
+import com.pi4j.devices.base_util.sample.MappedSampleSink;
+import com.pi4j.devices.base_util.sample.MedianFilter;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.gpio.digital.DigitalState;
 import com.pi4j.io.spi.SpiBus;
 import com.pi4j.io.spi.SpiChipSelect;
 import com.pi4j.util.Console;
 
+import java.nio.file.Paths;
+
 public class ADS1256App {
 
-     public static void main(String[] args) throws InterruptedException, IOException {
+     public static void main(String[] args) throws InterruptedException, IOException, java.io.IOException {
          var console = new Console();
          Context pi4j = Pi4J.newAutoContext();
 
@@ -68,6 +75,16 @@ public class ADS1256App {
          boolean readPin = false;
 
          int gpiopPin = 42;
+         String gain = "ADS1256_GAIN_1";
+         String drate = null;
+         int streamCount = 0;
+         long scanFrames = 0;
+         long debounce = 0;
+         String outFile = null;
+         int decimate = 0;
+         int cs2Pin = 42;
+         int drdy2Pin = 42;
+         long groupFrames = 0;
 
          console.title("<-- The Pi4J V2 Project Extension  -->", "MCP3008App");
          String helpString = " parms:  -vref decimal reference voltage  \n" +
@@ -75,7 +92,15 @@ public class ADS1256App {
                  "  -pp -pn  AIN0 AIN1 AIN2 AIN3 AIN4 AIN5 AIN6 AIN7 AINCOM   -x reset \n" +
                  "  -p gpio pin number -rp read \"-p\"   -sp set state \"-p\"  HIGH/LOW \n"  +
          "   -s HEX value SPI #  -t  trace values : \"trace\", \"debug\", \"info\", \"warn\", \"error\" \n " +
-                 " or \"off\"  Default \"info\"";
+                 " or \"off\"  Default \"info\" \n" +
+                 "  -gain ADS1256_GAIN_1 .. ADS1256_GAIN_64  -drate ADS1256_30000SPS .. ADS1256_2d5SPS \n" +
+                 "  -stream count   RDATAC continuous read of count samples of -pp/-pn \n" +
+                 "  -scan frames    read AIN0 .. AIN7 against AINCOM frames times \n" +
+                 "  -debounce uS    DRDY input debounce, default 0 \n" +
+                 "  -out file       write binary samples to file instead of logging them \n" +
+                 "  -decimate R     -out receives median-of-3 then 2nd order CIC decimated by R \n" +
+                 "  -cs2 chipSelectPin  -drdy2 drdyPin  second chip for -group \n" +
+                 "  -group frames   synchronized -pp/-pn capture on both chips, display skew";
 
          String traceLevel = "info";
          for (int i = 0; i < args.length; i++) {
@@ -116,6 +141,30 @@ public class ADS1256App {
                  String a = args[i + 1];
                  i++;
                  csPin = Integer.parseInt(a);
+             } else if (o.contentEquals("-cs2")) { // second chip CS
+                 String a = args[i + 1];
+                 i++;
+                 cs2Pin = Integer.parseInt(a);
+             } else if (o.contentEquals("-drdy2")) { // second chip DRDY
+                 String a = args[i + 1];
+                 i++;
+                 drdy2Pin = Integer.parseInt(a);
+             } else if (o.contentEquals("-group")) { // synchronized capture frames
+                 String a = args[i + 1];
+                 i++;
+                 groupFrames = Long.parseLong(a);
+             } else if (o.contentEquals("-decimate")) { // filter -out samples
+                 String a = args[i + 1];
+                 i++;
+                 decimate = Integer.parseInt(a);
+             } else if (o.contentEquals("-out")) { // binary sample file
+                 String a = args[i + 1];
+                 i++;
+                 outFile = a;
+             } else if (o.contentEquals("-debounce")) { // DRDY debounce microseconds
+                 String a = args[i + 1];
+                 i++;
+                 debounce = Long.parseLong(a);
              } else if (o.contentEquals("-drdy")) { // device address
                  String a = args[i + 1];
                  i++;
@@ -163,6 +212,20 @@ public class ADS1256App {
                      console.println("-pn invalid  : " + pnName);
                      System.exit(43);
                  }
+             } else if (o.contentEquals("-gain")) {
+                 gain = args[i + 1];
+                 i++;
+             } else if (o.contentEquals("-drate")) {
+                 drate = args[i + 1];
+                 i++;
+             } else if (o.contentEquals("-stream")) {
+                 String a = args[i + 1];
+                 i++;
+                 streamCount = Integer.parseInt(a);
+             } else if (o.contentEquals("-scan")) {
+                 String a = args[i + 1];
+                 i++;
+                 scanFrames = Long.parseLong(a);
              } else if (o.contentEquals("-h")) {
                  console.println(helpString);
                  System.exit(44);
@@ -181,10 +244,24 @@ public class ADS1256App {
          pi4j.providers().describe().print(System.out);
          System.out.println("----------------------------------------------------------");
 
-         ADS1256 spiCls = new ADS1256(pi4j, spiBus, chipSelect, resetChip, drdyPin, csPin, rsrtPin, crtRestart, pdwnPin, crtPdwn,  console, traceLevel, vref);
+         ADS1256 spiCls = new ADS1256(pi4j, spiBus, chipSelect, resetChip, drdyPin, csPin, rsrtPin, crtRestart, pdwnPin, crtPdwn,  console, traceLevel, vref, debounce);
 
 
          spiCls.validateChipID();
+         if (drate != null) {
+             spiCls.configADC(gain, drate);
+         }
+         MappedSampleSink sink = null;
+         if (outFile != null) {
+             sink = new MappedSampleSink(Paths.get(outFile));
+             if (decimate > 1) {
+                 int ratio = decimate;
+                 spiCls.setSampleSink(new FilteredSampleSink(sink,
+                         () -> new FilterChain(new MedianFilter(3), new CicDecimator(2, ratio, 0))));
+             } else {
+                 spiCls.setSampleSink(sink);
+             }
+         }
 
          if (readPin) {
              spiCls.setGpioDirIn(gpiopPin);
@@ -192,12 +269,74 @@ public class ADS1256App {
            } else if (setPinState) {
              spiCls.setGpioDirOut(gpiopPin);
              console.println(" pin " + gpiopPin +  "  rval  " + spiCls.setGpio(gpiopPin, newState));
+           } else if (groupFrames > 0) {
+             if (cs2Pin == 42 || drdy2Pin == 42) {
+                 console.println("-group requires -cs2 and -drdy2");
+                 System.exit(46);
+             }
+             ADS1256 second = new ADS1256(pi4j, spiBus, chipSelect, resetChip, drdy2Pin, cs2Pin, 42, false, 42, false, console, traceLevel, vref, debounce);
+             if (drate != null) {
+                 second.configADC(gain, drate);
+             }
+             ADS1256MuxPair pair = ADS1256MuxPair.of(ppName, pnName);
+             int[] lastFrame = new int[2];
+             try (ADS1256CaptureGroup group = new ADS1256CaptureGroup(spiCls, second)) {
+                 group.capture(new ADS1256MuxPair[]{pair, pair}, groupFrames, (frame, nanos, codes, count) -> {
+                     System.arraycopy(codes, 0, lastFrame, 0, count);
+                     return (true);
+                 });
+                 console.println("Captured " + pair + "  last values : " + lastFrame[0] + " " + lastFrame[1]);
+                 console.println(group.stats());
+             }
+           } else if (scanFrames > 0) {
+             byte[] scanList = spiCls.buildScanList("AIN0", "AINCOM", "AIN1", "AINCOM", "AIN2", "AINCOM", "AIN3", "AINCOM",
+                     "AIN4", "AINCOM", "AIN5", "AINCOM", "AIN6", "AINCOM", "AIN7", "AINCOM");
+             int[] lastFrame = new int[scanList.length];
+             double sps = spiCls.scan(scanList, scanFrames, (frame, nanos, codes, count) -> {
+                 System.arraycopy(codes, 0, lastFrame, 0, count);
+                 return (true);
+             });
+             console.println("Scanned " + scanFrames + " frames  samples/sec : " + sps + "  target : "
+                     + spiCls.getScanTargetSps());
+             for (int c = 0; c < lastFrame.length; c++) {
+                 console.println("  AIN" + c + "/AINCOM  value  :" + lastFrame[c]);
+             }
+           } else if (streamCount > 0) {
+             ADS1256SampleRing ring = spiCls.startContinuous(ppName, pnName, 4096);
+             int[] codes = new int[1024];
+             long[] stamps = new long[1024];
+             long first = 0;
+             long last = 0;
+             int lastCode = 0;
+             int got = 0;
+             while (got < streamCount) {
+                 int n = ring.drain(codes, stamps, 0, Math.min(codes.length, streamCount - got));
+                 if (n == 0) {
+                     Thread.sleep(1);
+                     continue;
+                 }
+                 if (got == 0) {
+                     first = stamps[0];
+                 }
+                 last = stamps[n - 1];
+                 lastCode = codes[n - 1];
+                 got += n;
+             }
+             spiCls.stopContinuous();
+             double secs = (last - first) / 1e9;
+             console.println("Streamed " + got + " samples " + ppName + "/" + pnName + "  last : " + lastCode
+                     + "  samples/sec : " + (secs > 0 ? (got - 1) / secs : 0) + "  overruns : " + ring.getOverruns()
+                     + "  missed DRDY : " + spiCls.getMissedDrdy());
            } else {
              double rtn = spiCls.getADS1256State(ppName, pnName);
              System.out.println("getMCP3008State returned : channel  :" + ppName + "/" + pnName + "  value  :" + rtn);
 
              spiCls.displayADS1256State(ppName, pnName);
          }
+         if (sink != null) {
+             sink.close();
+             console.println("Wrote " + sink.getWritten() + " samples to " + outFile);
+         }
      }
 
 }
\ No newline at end of file
@@ -0,0 +1,350 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  ADS1256CaptureGroup.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+package com.pi4j.devices.ads1256;
+
+import com.pi4j.io.spi.SpiBus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simultaneous sampling across several ADS1256 chips.
+ * <p>
+ * For each frame the MUX of every chip is set, then SYNC is sent to all chips
+ * back to back followed by WAKEUP, so the conversions start within a few SPI
+ * command times of each other.  Each chip's DRDY falling edge hands its readout
+ * to a pool thread; chips on different SPI buses are read in parallel, chips
+ * sharing a bus are read one after the other because each drives its own CS
+ * GPIO.  When every chip has delivered, the frame is passed to the consumer :
+ * index d of the nanos/codes arrays is device d, nanos is the DRDY edge time.
+ * <p>
+ * Skew statistics are kept per frame: the spread between the first and last
+ * DRDY edge, the spread of the WAKEUP commands, and each device's edge offset
+ * against device 0.  A frame where a chip misses its DRDY is dropped and counted;
+ * MAX_CONSECUTIVE_TIMEOUTS dropped frames in a row end the capture.
+ */
+public final class ADS1256CaptureGroup implements AutoCloseable {
+
+    /**
+     * Readouts run on a pool owned by the group, one thread per device
+     * @param devices  chips sampled together, at least two
+     */
+    public ADS1256CaptureGroup(ADS1256... devices) {
+        if (devices.length < 2) {
+            throw new IllegalArgumentException("capture group needs at least two devices");
+        }
+        this.devices = devices.clone();
+        int n = this.devices.length;
+        this.pool = Executors.newFixedThreadPool(n, r -> {
+            Thread t = new Thread(r, "ads1256-capture");
+            t.setDaemon(true);
+            return (t);
+        });
+        this.busLocks = new Object[n];
+        Map<SpiBus, Object> locks = new HashMap<>();
+        for (int d = 0; d < n; d++) {
+            this.busLocks[d] = locks.computeIfAbsent(this.devices[d].getSpiBus(), b -> new Object());
+        }
+        this.codes = new int[n];
+        this.nanos = new long[n];
+        this.readouts = new Runnable[n];
+        for (int d = 0; d < n; d++) {
+            int dev = d;
+            this.readouts[d] = () -> this.readout(dev);
+        }
+        this.offsetMin = new long[n];
+        this.offsetMax = new long[n];
+        this.offsetSum = new long[n];
+        this.resetStats();
+    }
+
+    /**
+     * Sample one pair per device for a number of frames.
+     * @param pairs     input pair for each device, same order as the constructor
+     * @param frames    frames to capture, 0 until the consumer returns false
+     * @param consumer  receives each merged frame, the arrays are reused
+     * @return  frames delivered
+     * @throws IllegalStateException  after MAX_CONSECUTIVE_TIMEOUTS frames in a row missed a DRDY
+     * @throws InterruptedException
+     */
+    public synchronized long capture(ADS1256MuxPair[] pairs, long frames, ADS1256ScanConsumer consumer) throws InterruptedException {
+        int n = this.devices.length;
+        if (pairs.length != n) {
+            throw new IllegalArgumentException("need one pair per device, got " + pairs.length);
+        }
+        for (int d = 0; d < n; d++) {
+            this.devices[d].selectMux(pairs[d].getMux());
+        }
+        this.captureThread = Thread.currentThread();
+        long delivered = 0;
+        try {
+            boolean more = true;
+            int missed = 0;
+            while (more && (frames == 0 || delivered < frames)) {
+                if (this.captureFrame() == false) {
+                    this.timeouts++;
+                    if (++missed >= MAX_CONSECUTIVE_TIMEOUTS) {
+                        throw new IllegalStateException("ADS1256 capture group DRDY timeout on " + missed
+                                + " consecutive frames after " + delivered + " delivered");
+                    }
+                    continue;
+                }
+                missed = 0;
+                this.recordSkew();
+                more = consumer.accept(delivered, this.nanos, this.codes, n);
+                delivered++;
+            }
+        } finally {
+            this.captureThread = null;
+        }
+        return (delivered);
+    }
+
+    /**
+     * Start one conversion on every device and wait for all readouts.  On time out,
+     * interrupt or failure the DRDY registrations are cancelled and readouts already
+     * handed to the pool are waited for, so the next frame can reuse the arrays.
+     * @return  false if a device did not deliver within its DRDY timeout
+     * @throws InterruptedException
+     */
+    private boolean captureFrame() throws InterruptedException {
+        int n = this.devices.length;
+        long timeout = 0;
+        int registered = 0;
+        boolean settled = false;
+        this.remaining.set(n);
+        this.failure = null;
+        try {
+            for (int d = 0; d < n; d++) {
+                synchronized (this.busLocks[d]) {
+                    this.devices[d].command(ADS1256_Declares.SYNC);
+                }
+                timeout = Math.max(timeout, this.devices[d].getTiming().drdyTimeoutNanos);
+            }
+            // after SYNC no edge of a previous conversion can trigger a readout
+            for (int d = 0; d < n; d++) {
+                this.devices[d].getDrdyMonitor().onNextLow(this.pool, this.readouts[d]);
+                registered++;
+            }
+            for (int d = 0; d < n; d++) {
+                synchronized (this.busLocks[d]) {
+                    this.devices[d].command(ADS1256_Declares.WAKEUP);
+                }
+                // conversions start on WAKEUP, its spread bounds the DRDY skew
+                long now = System.nanoTime();
+                if (d == 0) {
+                    this.wakeupFirst = now;
+                }
+                this.wakeupLast = now;
+            }
+            long deadline = System.nanoTime() + timeout;
+            while (this.remaining.get() > 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return (false);
+                }
+                LockSupport.parkNanos(this, left);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("capture wait");
+                }
+            }
+            settled = true;
+        } finally {
+            if (settled == false) {
+                this.abandonFrame(registered);
+            }
+        }
+        if (this.failure != null) {
+            throw this.failure;
+        }
+        return (true);
+    }
+
+    /**
+     * Cancel the DRDY readouts not yet fired and wait for those already handed to the pool
+     * @param registered  devices 0 .. registered - 1 have a readout registered
+     */
+    private void abandonFrame(int registered) {
+        int idle = this.devices.length - registered;
+        for (int d = 0; d < registered; d++) {
+            if (this.devices[d].getDrdyMonitor().cancel(this.readouts[d])) {
+                idle++;
+            }
+        }
+        // readouts already handed to the pool must finish before the arrays are reused
+        while (this.remaining.get() > idle) {
+            LockSupport.parkNanos(this, 100000);
+        }
+    }
+
+    private void readout(int d) {
+        try {
+            this.nanos[d] = this.devices[d].getDrdyMonitor().lastEdgeNanos();
+            synchronized (this.busLocks[d]) {
+                this.codes[d] = this.devices[d].readResultNow();
+            }
+        } catch (RuntimeException e) {
+            this.failure = e;
+        }
+        if (this.remaining.decrementAndGet() == 0) {
+            LockSupport.unpark(this.captureThread);
+        }
+    }
+
+    private void recordSkew() {
+        long min = this.nanos[0];
+        long max = this.nanos[0];
+        for (int d = 1; d < this.nanos.length; d++) {
+            min = Math.min(min, this.nanos[d]);
+            max = Math.max(max, this.nanos[d]);
+            long offset = this.nanos[d] - this.nanos[0];
+            this.offsetMin[d] = Math.min(this.offsetMin[d], offset);
+            this.offsetMax[d] = Math.max(this.offsetMax[d], offset);
+            this.offsetSum[d] += offset;
+        }
+        long skew = max - min;
+        this.skewMax = Math.max(this.skewMax, skew);
+        this.skewSum += skew;
+        this.wakeupSpreadMax = Math.max(this.wakeupSpreadMax, this.wakeupLast - this.wakeupFirst);
+        this.frames++;
+    }
+
+    /**
+     * Clear the skew statistics
+     */
+    public synchronized void resetStats() {
+        this.frames = 0;
+        this.timeouts = 0;
+        this.skewMax = 0;
+        this.skewSum = 0;
+        this.wakeupSpreadMax = 0;
+        for (int d = 0; d < this.devices.length; d++) {
+            this.offsetMin[d] = Long.MAX_VALUE;
+            this.offsetMax[d] = Long.MIN_VALUE;
+            this.offsetSum[d] = 0;
+        }
+    }
+
+    /**
+     * @return  frames delivered since resetStats
+     */
+    public synchronized long getFrames() {
+        return (this.frames);
+    }
+
+    /**
+     * @return  frames dropped because a device missed its DRDY timeout
+     */
+    public synchronized long getTimeouts() {
+        return (this.timeouts);
+    }
+
+    /**
+     * @return  largest first to last DRDY edge spread within a frame
+     */
+    public synchronized long getMaxSkewNanos() {
+        return (this.skewMax);
+    }
+
+    /**
+     * @return  mean first to last DRDY edge spread within a frame
+     */
+    public synchronized double getMeanSkewNanos() {
+        return (this.frames > 0 ? (double) this.skewSum / this.frames : 0);
+    }
+
+    /**
+     * @param d  device index
+     * @return  mean DRDY edge offset of device d against device 0
+     */
+    public synchronized double getMeanOffsetNanos(int d) {
+        return (this.frames > 0 ? (double) this.offsetSum[d] / this.frames : 0);
+    }
+
+    /**
+     * @return  skew statistics, one line per device
+     */
+    public synchronized String stats() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("frames : ").append(this.frames).append("  timeouts : ").append(this.timeouts)
+                .append("  skew max nS : ").append(this.skewMax)
+                .append("  skew mean nS : ").append((long) this.getMeanSkewNanos())
+                .append("  WAKEUP spread max nS : ").append(this.wakeupSpreadMax);
+        for (int d = 1; d < this.devices.length && this.frames > 0; d++) {
+            sb.append("\n  device ").append(d).append(" offset to device 0 nS  min : ").append(this.offsetMin[d])
+                    .append("  max : ").append(this.offsetMax[d])
+                    .append("  mean : ").append((long) this.getMeanOffsetNanos(d));
+        }
+        return (sb.toString());
+    }
+
+    /**
+     * Stop the readout pool
+     */
+    @Override
+    public void close() {
+        this.pool.shutdownNow();
+    }
+
+    /** capture gives up after this many frames in a row with a missed DRDY */
+    public static final int MAX_CONSECUTIVE_TIMEOUTS = 8;
+
+    private final ADS1256[] devices;
+    private final ExecutorService pool;
+    private final Object[] busLocks;
+    private final Runnable[] readouts;
+    private final int[] codes;
+    private final long[] nanos;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile Thread captureThread;
+    private volatile RuntimeException failure;
+    private long wakeupFirst;
+    private long wakeupLast;
+
+    private long frames;
+    private long timeouts;
+    private long skewMax;
+    private long skewSum;
+    private long wakeupSpreadMax;
+    private final long[] offsetMin;
+    private final long[] offsetMax;
+    private final long[] offsetSum;
+}
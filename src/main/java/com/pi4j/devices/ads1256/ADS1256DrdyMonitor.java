@@ -0,0 +1,216 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  ADS1256DrdyMonitor.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+package com.pi4j.devices.ads1256;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
+import com.pi4j.io.gpio.digital.DigitalStateChangeListener;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * DRDY falling edge notification for one ADS1256.
+ * <p>
+ * Installed as the DigitalStateChangeListener of the DRDY input.  Each falling edge
+ * bumps an edge count and releases the thread parked in awaitLow/awaitEdge, so the
+ * acquisition thread sleeps between conversions instead of polling the GPIO.  One
+ * waiting thread per monitor is supported, the owning ADS1256 serializes its users.
+ * <p>
+ * onNextLow registers a one-shot action that is handed to an Executor on the next
+ * falling edge.  With it several ADCs can be serviced by a small shared thread pool,
+ * no thread waits on any particular chip.
+ * <p>
+ * Edge filtering is done by the Pi4J provider, see the debounce value the DRDY input
+ * is created with.
+ */
+public final class ADS1256DrdyMonitor implements DigitalStateChangeListener {
+
+    /**
+     * @param drdy  DRDY input the monitor is added to as listener
+     */
+    public ADS1256DrdyMonitor(DigitalInput drdy) {
+        this.drdy = drdy;
+    }
+
+    @Override
+    public void onDigitalStateChange(DigitalStateChangeEvent event) {
+        if (event.state() != DigitalState.LOW) {
+            return;
+        }
+        this.lastEdgeNanos = System.nanoTime();
+        this.edges.incrementAndGet();
+        Thread w = this.waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        Pending p = this.oneShot.getAndSet(null);
+        if (p != null) {
+            p.executor.execute(p.action);
+        }
+    }
+
+    /**
+     * @return  falling edges seen since creation
+     */
+    public long edgeCount() {
+        return (this.edges.get());
+    }
+
+    /**
+     * @return  System.nanoTime() of the last falling edge
+     */
+    public long lastEdgeNanos() {
+        return (this.lastEdgeNanos);
+    }
+
+    /**
+     * Return once DRDY is low, at once if it already is.
+     * @param timeoutNanos  longest wait
+     * @return  true if DRDY low, false on time out
+     * @throws InterruptedException
+     */
+    public boolean awaitLow(long timeoutNanos) throws InterruptedException {
+        if (this.drdy.state() == DigitalState.LOW) {
+            return (true);
+        }
+        long seen = this.edges.get();
+        this.waiter = Thread.currentThread();
+        try {
+            // an edge between the state read and registering as waiter is caught here
+            if (this.drdy.state() == DigitalState.LOW) {
+                return (true);
+            }
+            return (this.parkUntilEdge(seen, timeoutNanos));
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    /**
+     * Wait for a falling edge after the one counted in seen.
+     * @param seen          edgeCount() value already handled
+     * @param timeoutNanos  longest wait
+     * @return  true if edgeCount() is now greater than seen, false on time out
+     * @throws InterruptedException
+     */
+    public boolean awaitEdge(long seen, long timeoutNanos) throws InterruptedException {
+        if (this.edges.get() != seen) {
+            return (true);
+        }
+        this.waiter = Thread.currentThread();
+        try {
+            return (this.parkUntilEdge(seen, timeoutNanos));
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    private boolean parkUntilEdge(long seen, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (this.edges.get() == seen) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                this.timeouts.incrementAndGet();
+                return (false);
+            }
+            LockSupport.parkNanos(this, left);
+            if (Thread.interrupted()) {
+                throw new InterruptedException("DRDY wait");
+            }
+        }
+        return (true);
+    }
+
+    /**
+     * Run action on executor at the next DRDY falling edge.  Only one action can be
+     * registered, a new one is accepted once the previous has run or was cancelled.
+     * @param executor  runs the action, keep the listener thread free
+     * @param action    typically reads the conversion result
+     * @throws IllegalStateException  if an action is already registered
+     */
+    public void onNextLow(Executor executor, Runnable action) {
+        if (this.oneShot.compareAndSet(null, new Pending(executor, action)) == false) {
+            throw new IllegalStateException("ADS1256 DRDY action already pending");
+        }
+    }
+
+    /**
+     * @return  true if an onNextLow action is registered and has not run
+     */
+    public boolean hasPending() {
+        return (this.oneShot.get() != null);
+    }
+
+    /**
+     * Drop the action registered by onNextLow if it has not run.
+     * @param action  action passed to onNextLow
+     * @return  true if it was removed
+     */
+    public boolean cancel(Runnable action) {
+        Pending p = this.oneShot.get();
+        return (p != null && p.action == action && this.oneShot.compareAndSet(p, null));
+    }
+
+    /**
+     * @return  waits that ended without an edge
+     */
+    public long getTimeouts() {
+        return (this.timeouts.get());
+    }
+
+    private static final class Pending {
+        Pending(Executor executor, Runnable action) {
+            this.executor = executor;
+            this.action = action;
+        }
+
+        final Executor executor;
+        final Runnable action;
+    }
+
+    private final DigitalInput drdy;
+    private final AtomicLong edges = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicReference<Pending> oneShot = new AtomicReference<>();
+    private volatile Thread waiter;
+    private volatile long lastEdgeNanos;
+}
@@ -0,0 +1,135 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  ADS1256MuxPair.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+package com.pi4j.devices.ads1256;
+
+/**
+ * Positive/negative input pair with its encoded MUX register value.
+ * <p>
+ * All 81 pairs are created once, of/fromMux return the shared instance.  Resolving
+ * a pair once and passing it to ADS1256 keeps name handling out of acquisition
+ * loops, the driver writes getMux() directly.
+ */
+public final class ADS1256MuxPair {
+
+    private ADS1256MuxPair(ADS1256.MuxValue positive, ADS1256.MuxValue negative) {
+        this.positive = positive;
+        this.negative = negative;
+        this.mux = (byte) ((positive.ordinal() << 4) | negative.ordinal());
+        this.name = positive + "/" + negative;
+    }
+
+    /**
+     * @param positive  positive input
+     * @param negative  negative input
+     * @return  the pair
+     */
+    public static ADS1256MuxPair of(ADS1256.MuxValue positive, ADS1256.MuxValue negative) {
+        return (PAIRS[positive.ordinal() * INPUTS + negative.ordinal()]);
+    }
+
+    /**
+     * @param positive  AIN0 .. AIN7, AINCOM
+     * @param negative  AIN0 .. AIN7, AINCOM
+     * @return  the pair
+     * @throws IllegalArgumentException  unknown input name
+     */
+    public static ADS1256MuxPair of(String positive, String negative) {
+        ADS1256.MuxValue p = ADS1256.muxByName(positive);
+        ADS1256.MuxValue n = ADS1256.muxByName(negative);
+        if (p == null || n == null) {
+            throw new IllegalArgumentException("invalid mux name " + positive + "/" + negative);
+        }
+        return (of(p, n));
+    }
+
+    /**
+     * @param mux  MUX register value, positive input in the high nibble
+     * @return  the pair
+     * @throws IllegalArgumentException  a nibble is not a valid input
+     */
+    public static ADS1256MuxPair fromMux(int mux) {
+        int p = (mux >> 4) & 0xf;
+        int n = mux & 0xf;
+        if (p >= INPUTS || n >= INPUTS) {
+            throw new IllegalArgumentException("invalid mux value " + String.format("0X%02x", mux & 0xff));
+        }
+        return (PAIRS[p * INPUTS + n]);
+    }
+
+    /**
+     * @return  positive input
+     */
+    public ADS1256.MuxValue getPositive() {
+        return (this.positive);
+    }
+
+    /**
+     * @return  negative input
+     */
+    public ADS1256.MuxValue getNegative() {
+        return (this.negative);
+    }
+
+    /**
+     * @return  MUX register value
+     */
+    public byte getMux() {
+        return (this.mux);
+    }
+
+    @Override
+    public String toString() {
+        return (this.name);
+    }
+
+    private static final int INPUTS = ADS1256.MuxValue.values().length;
+    private static final ADS1256MuxPair[] PAIRS = new ADS1256MuxPair[INPUTS * INPUTS];
+
+    static {
+        ADS1256.MuxValue[] values = ADS1256.MuxValue.values();
+        for (ADS1256.MuxValue p : values) {
+            for (ADS1256.MuxValue n : values) {
+                PAIRS[p.ordinal() * INPUTS + n.ordinal()] = new ADS1256MuxPair(p, n);
+            }
+        }
+    }
+
+    private final ADS1256.MuxValue positive;
+    private final ADS1256.MuxValue negative;
+    private final byte mux;
+    private final String name;
+}
@@ -0,0 +1,143 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  ADS1256SampleRing.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+package com.pi4j.devices.ads1256;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed size single producer / single consumer ring of conversion results.
+ * <p>
+ * Codes and their System.nanoTime() stamps are kept in preallocated primitive
+ * arrays, adding or draining samples allocates nothing.  The producer (the
+ * acquisition thread) never waits, when the ring is full the new sample is
+ * discarded and counted as an overrun.
+ */
+public final class ADS1256SampleRing {
+
+    /**
+     * @param capacity  minimum number of samples held, rounded up to a power of two
+     */
+    public ADS1256SampleRing(int capacity) {
+        if (capacity < 1 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("capacity out of range : " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size = size << 1;
+        }
+        this.codes = new int[size];
+        this.nanos = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side.
+     * @param code       signed conversion result
+     * @param timestamp  System.nanoTime() when the sample was read
+     * @return  false if the ring was full and the sample discarded
+     */
+    public boolean offer(int code, long timestamp) {
+        long t = this.tail.get();
+        if (t - this.head.get() > this.mask) {
+            this.overruns.incrementAndGet();
+            return (false);
+        }
+        int i = (int) (t & this.mask);
+        this.codes[i] = code;
+        this.nanos[i] = timestamp;
+        this.tail.lazySet(t + 1);
+        return (true);
+    }
+
+    /**
+     * Consumer side, move up to max samples out of the ring.
+     * @param dstCodes   receives conversion results
+     * @param dstNanos   receives time stamps, may be null
+     * @param offset     first index written in the destination arrays
+     * @param max        most samples to move
+     * @return  number of samples moved
+     */
+    public int drain(int[] dstCodes, long[] dstNanos, int offset, int max) {
+        long h = this.head.get();
+        int n = (int) Math.min(max, this.tail.get() - h);
+        for (int k = 0; k < n; k++) {
+            int i = (int) ((h + k) & this.mask);
+            dstCodes[offset + k] = this.codes[i];
+            if (dstNanos != null) {
+                dstNanos[offset + k] = this.nanos[i];
+            }
+        }
+        this.head.lazySet(h + n);
+        return (n);
+    }
+
+    /**
+     * @return  samples waiting to be drained
+     */
+    public int size() {
+        return ((int) (this.tail.get() - this.head.get()));
+    }
+
+    /**
+     * @return  ring size
+     */
+    public int capacity() {
+        return (this.codes.length);
+    }
+
+    /**
+     * @return  samples accepted since creation
+     */
+    public long getWritten() {
+        return (this.tail.get());
+    }
+
+    /**
+     * @return  samples discarded because the ring was full
+     */
+    public long getOverruns() {
+        return (this.overruns.get());
+    }
+
+    private final int[] codes;
+    private final long[] nanos;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+}
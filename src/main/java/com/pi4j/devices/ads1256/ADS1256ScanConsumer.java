@@ -0,0 +1,57 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  ADS1256ScanConsumer.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+package com.pi4j.devices.ads1256;
+
+/**
+ * Receives the results of ADS1256.scan, one call per pass through the scan list.
+ * <p>
+ * The arrays are owned by the scan and reused for the next frame, copy any values
+ * that must be kept.  Called on the scanning thread, keep it short or the next
+ * conversion is missed.
+ */
+public interface ADS1256ScanConsumer {
+
+    /**
+     * @param frame  frame number, 0 for the first pass
+     * @param nanos  System.nanoTime() each entry was read, scan list order
+     * @param codes  signed conversion result of each entry, scan list order
+     * @param count  number of valid entries, the scan list length
+     * @return  false to end the scan
+     */
+    boolean accept(long frame, long[] nanos, int[] codes, int count);
+}
@@ -0,0 +1,131 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  ADS1256Timing.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+package com.pi4j.devices.ads1256;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serial interface timing for the ADS1256, derived from the datasheet "Timing
+ * Characteristics" in units of the master clock period tCLKIN.
+ * <ul>
+ *     <li>t6   50 tCLKIN, command (RDATA, RDATAC, RREG) to first SCLK reading data
+ *     <li>t10   8 tCLKIN, final SCLK edge to CS high
+ *     <li>t11   4 tCLKIN after RREG, WREG, RDATA; 24 tCLKIN after RDATAC, SYNC,
+ *              final SCLK edge of a command to the first SCLK edge of the next
+ *     <li>t16   4 tCLKIN, RESET pin low pulse width
+ * </ul>
+ * With the 7.68 MHz clock these are a few microseconds, shorter than one SPI
+ * transfer at 1 MHz, so most waits are spun.  Waits longer than SPIN_LIMIT_NANOS,
+ * DRDY timeouts and calibration, park the thread.
+ */
+public final class ADS1256Timing {
+
+    /**
+     * @param clockHz   master clock, 7.68 MHz on the common modules
+     * @param spiHz     SPI SCLK rate
+     * @param drateSps  configured output data rate
+     */
+    public ADS1256Timing(double clockHz, double spiHz, double drateSps) {
+        double tclkin = 1e9 / clockHz;
+        this.clockHz = clockHz;
+        this.spiHz = spiHz;
+        this.drateSps = drateSps;
+        this.t6Nanos = (long) Math.ceil(50 * tclkin);
+        this.t10Nanos = (long) Math.ceil(8 * tclkin);
+        this.t11ShortNanos = (long) Math.ceil(4 * tclkin);
+        this.t11LongNanos = (long) Math.ceil(24 * tclkin);
+        this.t16Nanos = (long) Math.ceil(4 * tclkin);
+        this.byteNanos = (long) Math.ceil(8e9 / spiHz);
+        this.conversionNanos = (long) Math.ceil(1e9 / drateSps);
+        // a conversion, plus filter settling after SYNC/mux change (up to 4 periods), plus scheduling slack
+        this.drdyTimeoutNanos = 5 * this.conversionNanos + 10000000L;
+        // self calibration (ACAL, RESET) takes a little over 2 conversion periods at every DRATE
+        this.calibrationTimeoutNanos = 4 * this.conversionNanos + 50000000L;
+    }
+
+    /**
+     * Wait at least nanos.  Short waits spin, longer waits park and spin the remainder.
+     * @param nanos  delay
+     */
+    public static void pause(long nanos) {
+        long until = System.nanoTime() + nanos;
+        if (nanos > SPIN_LIMIT_NANOS) {
+            LockSupport.parkNanos(nanos - SPIN_LIMIT_NANOS);
+        }
+        while (until - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @param command  ADS1256 command byte
+     * @return  t11 required after that command
+     */
+    public long t11After(int command) {
+        if (command == ADS1256_Declares.SYNC || command == ADS1256_Declares.RDDATC) {
+            return (this.t11LongNanos);
+        }
+        return (this.t11ShortNanos);
+    }
+
+    @Override
+    public String toString() {
+        return ("ADS1256Timing clock " + this.clockHz + " spi " + this.spiHz + " drate " + this.drateSps + " t6 "
+                + this.t6Nanos + " t10 " + this.t10Nanos + " t11 " + this.t11ShortNanos + "/" + this.t11LongNanos
+                + " DRDY timeout " + this.drdyTimeoutNanos + " nS");
+    }
+
+    /** Master clock of the common ADS1256 modules */
+    public static final double DEFAULT_CLOCK_HZ = 7680000;
+
+    /** Waits up to this long are spun rather than parked, park granularity is tens of uS */
+    public static final long SPIN_LIMIT_NANOS = 50000;
+
+    public final double clockHz;
+    public final double spiHz;
+    public final double drateSps;
+    public final long t6Nanos;
+    public final long t10Nanos;
+    public final long t11ShortNanos;
+    public final long t11LongNanos;
+    public final long t16Nanos;
+    public final long byteNanos;
+    public final long conversionNanos;
+    public final long drdyTimeoutNanos;
+    public final long calibrationTimeoutNanos;
+}
@@ -0,0 +1,186 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  AppConfigModel.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+package com.pi4j.devices.appConfig;
+
+import com.pi4j.devices.base_util.ffdc.FfdcUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <h1>AppConfigModel</h1>  Typed, immutable view of the application configuration.
+ * <p>
+ * compile converts the chipMap, pinMap and piPinMap dictionaries produced by MapUtil
+ * into ChipDescriptor and PinDescriptor instances.  All hex and pin-name parsing is
+ * done here, once.  Pins are held in arrays indexed by pin number so run time queries
+ * do no parsing and allocate nothing.
+ * </p>
+ */
+public final class AppConfigModel {
+
+    private AppConfigModel(Map<String, ChipDescriptor> chips, Map<String, PinDescriptor[]> pins,
+                           PinDescriptor[] piPins) {
+        this.chips = chips;
+        this.pins = pins;
+        this.piPins = piPins;
+    }
+
+    /**
+     * compile  Build the model from the MapUtil dictionaries.
+     * @param chipMap   ChipNameMap contents
+     * @param pinMap    GpioToApp contents
+     * @param piPinMap  PiPinMap contents
+     * @param ffdc      logging
+     * @return  model
+     */
+    public static AppConfigModel compile(HashMap<String, HashMap<String, String>> chipMap,
+                                         HashMap<String, HashMap<String, HashMap<String, String>>> pinMap,
+                                         HashMap<String, HashMap<String, String>> piPinMap, FfdcUtil ffdc) {
+        ffdc.ffdcMethodEntry("AppConfigModel compile");
+        HashMap<String, ChipDescriptor> chips = new HashMap<String, ChipDescriptor>();
+        for (Map.Entry<String, HashMap<String, String>> e : chipMap.entrySet()) {
+            chips.put(e.getKey(), new ChipDescriptor(e.getKey(), e.getValue()));
+        }
+        HashMap<String, PinDescriptor[]> pins = new HashMap<String, PinDescriptor[]>();
+        for (Map.Entry<String, HashMap<String, HashMap<String, String>>> e : pinMap.entrySet()) {
+            pins.put(e.getKey(), pinTable(e.getKey(), e.getValue(), ffdc));
+        }
+        PinDescriptor[] piPins = pinTable("pi", piPinMap, ffdc);
+        AppConfigModel model = new AppConfigModel(Collections.unmodifiableMap(chips),
+                Collections.unmodifiableMap(pins), piPins);
+        ffdc.ffdcMethodExit("AppConfigModel compile chips %d", chips.size());
+        return (model);
+    }
+
+    private static PinDescriptor[] pinTable(String owner, Map<String, HashMap<String, String>> entries,
+                                            FfdcUtil ffdc) {
+        int max = -1;
+        for (String pinName : entries.keySet()) {
+            max = Math.max(max, parsePinName(pinName));
+        }
+        PinDescriptor[] table = new PinDescriptor[max + 1];
+        for (Map.Entry<String, HashMap<String, String>> e : entries.entrySet()) {
+            PinDescriptor pd = new PinDescriptor(owner, e.getKey(), e.getValue());
+            if (pd.pinNum < 0) {
+                ffdc.ffdcConfigWarningEntry("AppConfigModel pin name not valid " + owner + "/" + e.getKey());
+            } else {
+                table[pd.pinNum] = pd;
+            }
+        }
+        return (table);
+    }
+
+    /**
+     * parseHex  Convert a configuration value such as '0x20' or '0X1'.
+     * @param value  text, may be null
+     * @return  value, or -1 if absent or not valid
+     */
+    static int parseHex(String value) {
+        int rval = -1;
+        if (value != null && value.length() > 2 && (value.charAt(1) == 'x' || value.charAt(1) == 'X')) {
+            try {
+                rval = Integer.parseInt(value.substring(2), 16);
+            } catch (NumberFormatException e) {
+                rval = -1;
+            }
+        }
+        return (rval);
+    }
+
+    /**
+     * parsePinName  Convert 'pinN' or 'dioN' to N.
+     * @param name  text, may be null
+     * @return  pin number, or -1 if absent or not valid
+     */
+    static int parsePinName(String name) {
+        int rval = -1;
+        if (name != null && name.length() > 3) {
+            try {
+                rval = Integer.parseInt(name.substring(3));
+            } catch (NumberFormatException e) {
+                rval = -1;
+            }
+        }
+        return (rval);
+    }
+
+    /**
+     *
+     * @param chipName  chipMap key
+     * @return  descriptor, null if not configured
+     */
+    public ChipDescriptor chip(String chipName) {
+        return (this.chips.get(chipName));
+    }
+
+    /**
+     *
+     * @return  all chip descriptors keyed by name
+     */
+    public Map<String, ChipDescriptor> chips() {
+        return (this.chips);
+    }
+
+    /**
+     *
+     * @param chipName  pinMap key
+     * @param pinNum    pin number on that chip
+     * @return  descriptor, null if not configured
+     */
+    public PinDescriptor pin(String chipName, int pinNum) {
+        PinDescriptor[] table = this.pins.get(chipName);
+        if (table == null || pinNum < 0 || pinNum >= table.length) {
+            return (null);
+        }
+        return (table[pinNum]);
+    }
+
+    /**
+     *
+     * @param gpio  Pi BCM number
+     * @return  descriptor, null if not configured
+     */
+    public PinDescriptor piPin(int gpio) {
+        if (gpio < 0 || gpio >= this.piPins.length) {
+            return (null);
+        }
+        return (this.piPins[gpio]);
+    }
+
+    private final Map<String, ChipDescriptor> chips;
+    private final Map<String, PinDescriptor[]> pins;
+    private final PinDescriptor[] piPins;
+
+}
@@ -158,6 +158,7 @@ public class AppConfigTest extends AppConfigUtilities{
         } else {
             mcpObj = new Mcp23008(pi4j, parmsObj, cfgU.ffdc, dioPinData, console);
         }
+        mcpObj.cfgData = mcpcfgD;
 
         Mcp23xxxUtil mcpUtil = new Mcp23xxxUtil(pi4j, cfgU.ffdc, Integer.parseInt(initialChipBus.substring(2), 16),
                 chipAddrInt, mcpcfgD, mcpObj, console);
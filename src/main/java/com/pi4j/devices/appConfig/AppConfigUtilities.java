@@ -41,6 +41,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.LogManager;
 
 import com.pi4j.devices.base_util.gpio.BaseGpioInOut;
@@ -111,6 +113,7 @@ public class AppConfigUtilities {
             PiPinMap pMap = new PiPinMap();
             String piPins = pMap.readProperties();
             this.piPinMap = this.mapUtils.createFullMap(piPins);
+            this.model = AppConfigModel.compile(this.chipMap, this.pinMap, this.piPinMap, this.ffdc);
 
 
             this.init();
@@ -225,46 +228,164 @@ public class AppConfigUtilities {
      *
      */
     public boolean mapBus(HashMap<String, String> target) {
-            this.ffdc.ffdcMethodEntry("mapBus target : " + target);
+            this.ffdc.ffdcMethodEntry(() -> "mapBus target : " + target);
             boolean rval = false;
-            if (this.chipMap.containsKey(target.get("chipName")) == false) {
-                this.ffdc.ffdcConfigWarningEntry("chipMap missing key : " + target.get("chipName"));
+            BusRoute route = this.resolveRoute(target.get("chipName"));
+            if (route != null) {
+                rval = true;
+                if (route.mux != null) {
+                    // Tca9548 skips the switch when the channel is already selected
+                    rval = route.mux.enableBus(route.channel);
+                }
+            }
+            this.ffdc.ffdcMethodExit("mapBus ");
+            return (rval);
+        }
+
+    /**
+     * resolveRoute  Return the cached BusRoute for chipName, building it from
+     * the chipMap on first use.  The TCA9548 instance is shared by all chips
+     * behind that mux.
+     * <p>
+     * PreCond: AppConfigUtilities instance initialized.  See CTOR
+     * @param chipName  chipMap key
+     * @return  BusRoute, or null if the chip is not mapped or its mux is not supported
+     */
+    public BusRoute resolveRoute(String chipName) {
+            BusRoute route = this.routeCache.get(chipName);
+            if (route != null) {
+                return (route);
+            }
+            return (this.buildRoute(chipName));
+        }
+
+    /**
+     * buildRoute  Slow path of resolveRoute.  Synchronized with prime9548 and
+     * clearRoutes so two threads resolving chips behind the same mux share one
+     * Tca9548 and its arbiter.
+     * @param chipName  chipMap key
+     * @return  BusRoute, or null if the chip is not mapped or its mux is not supported
+     */
+    private synchronized BusRoute buildRoute(String chipName) {
+            BusRoute route = this.routeCache.get(chipName);
+            if (route != null) {
+                return (route);
+            }
+            this.ffdc.ffdcMethodEntry("resolveRoute chip : " + chipName);
+            ChipDescriptor chip = this.model.chip(chipName);
+            if (chip == null) {
+                this.ffdc.ffdcConfigWarningEntry("chipMap missing key : " + chipName);
                 this.ffdc.ffdcErrorExit("",2006);
             } else {
-                rval = true;
-                HashMap<String, String> chipDetail = this.chipMap.get(target.get("chipName"));
-
-                if (chipDetail.containsKey("behindMux")) {
-                    String muxDev = chipDetail.get("behindMux");
-                    HashMap<String, String> muxDetail = this.chipMap.get(muxDev);
-                    String muxBus = muxDetail.get("busNum");
-                    String muxAddr = muxDetail.get("address");
-                    String chipBus = chipDetail.get("busNum");
-                    int muxAddrI = Integer.parseInt(muxAddr.substring(2), 16);
-                    this.addressTemp = muxAddrI;
-                    int muxBusI = Integer.parseInt(muxBus.substring(2), 16);
-                    this.busNumTemp = muxBusI;
-                    this.ffdc.ffdcDebugEntry("muxDev : " + muxDev + " muxBus :" + muxBus + " chipBus :" + chipBus);
-                    if (muxDetail.get("pca").equals("9548")) {
-                        // enable the bus
-                        // I2cBase i2cDevice = null;
-
-                        Tca9548 tcaObj = this.prime9548(chipDetail);
+                if (chip.isBehindMux()) {
+                    ChipDescriptor mux = this.model.chip(chip.behindMux);
+                    this.ffdc.ffdcDebugEntry(() -> "mux : " + mux + " chipBus :" + chip.busNum);
+                    if (mux != null && mux.tca9548) {
+                        Tca9548 tcaObj = this.prime9548(this.chipMap.get(mux.name));
                         this.ffdc.ffdcDebugEntry("tcaObj : " + tcaObj);
-                        tcaObj.enableBus(Integer.parseInt(chipBus.substring(2), 16));
+                        int mask = tcaObj.getChannelMask(chip.busNum);
+                        if (mask == -1) {
+                            this.ffdc.ffdcConfigWarningEntry("chip " + chipName + " mux channel not valid " + chip.busNum);
+                        } else {
+                            route = new BusRoute(chipName, mux.busNum, chip.address, tcaObj, chip.busNum, mask);
+                        }
                     } else {
-                        rval = false;
-                        this.ffdc.ffdcConfigWarningEntry("BehindMux device not supported  " + muxDetail.get("pca"));
+                        this.ffdc.ffdcConfigWarningEntry("BehindMux device not supported  " + chip.behindMux);
                     }
-
                 } else { // just talk to the bus.
                     this.ffdc.ffdcDebugEntry("Not behind mux");
+                    route = new BusRoute(chipName, chip.busNum, chip.address, null, -1, 0);
+                }
+                if (route != null) {
+                    this.routeCache.put(chipName, route);
                 }
             }
-            this.ffdc.ffdcMethodExit("mapBus ");
+            this.ffdc.ffdcMethodExit("resolveRoute " + route);
+            return (route);
+        }
+
+    /**
+     * enablePinPath  Ensure the bus of the chip named by the pin entry is connected
+     * to the Pi.  Typed equivalent of enableGpioPath.
+     * * PreCond: AppConfigUtilities instance initialized.  See CTOR
+     * @param pin  pin descriptor from getPin
+     * @return  boolean to indicate success true, else false
+     */
+    public boolean enablePinPath(PinDescriptor pin) {
+            boolean rval = false;
+            BusRoute route = this.resolveRoute(pin.chipName);
+            if (route != null) {
+                rval = (route.mux == null) || route.mux.enableBus(route.channel);
+            }
             return (rval);
         }
 
+    /**
+     *
+     * @return  compiled typed configuration
+     */
+    public AppConfigModel getModel() {
+            return (this.model);
+        }
+
+    /**
+     * getChip  Typed chipMap lookup.
+     * @param chipName  chipMap key
+     * @return  descriptor, null if not configured
+     */
+    public ChipDescriptor getChip(String chipName) {
+            return (this.model.chip(chipName));
+        }
+
+    /**
+     * getPin  Typed pinMap lookup, no parsing or allocation.
+     * @param chipName  pinMap key
+     * @param pinNum    pin number on that chip
+     * @return  descriptor, null if not configured
+     */
+    public PinDescriptor getPin(String chipName, int pinNum) {
+            return (this.model.pin(chipName, pinNum));
+        }
+
+    /**
+     * withChip  Run work while holding the path to chipName.  For a chip behind a
+     * TCA9548 the mux channel is leased through its Tca9548Arbiter, so other threads
+     * cannot switch the mux until work returns.  A directly connected chip runs work
+     * without locking.
+     * <p>
+     * PreCond: AppConfigUtilities instance initialized.  See CTOR
+     * @param chipName  chipMap key
+     * @param work      I2C transactions for the chip
+     * @param <T>       work result type
+     * @return  result of work
+     * @throws Exception   thrown by work, or if the path could not be established
+     */
+    public <T> T withChip(String chipName, Callable<T> work) throws Exception {
+            BusRoute route = this.resolveRoute(chipName);
+            if (route == null) {
+                throw new IOException("withChip no route to chip : " + chipName);
+            }
+            if (route.mux == null) {
+                return (work.call());
+            }
+            return (route.mux.getArbiter().withChannel(route.channel, work));
+        }
+
+    /**
+     * clearRoutes  Drop all resolved routes and forget the selected channel of
+     * every known TCA9548, use after a mux reset or a configuration change.
+     */
+    public synchronized void clearRoutes() {
+            this.ffdc.ffdcMethodEntry("clearRoutes");
+            for (BusRoute route : this.routeCache.values()) {
+                if (route.mux != null) {
+                    route.mux.invalidateSelection();
+                }
+            }
+            this.routeCache.clear();
+            this.ffdc.ffdcMethodExit("clearRoutes");
+        }
+
     /**
      * enableGpioPath  Using the param data, get the data that describes
      * the chip. Ensure the bus associated with that chip is connected
@@ -319,13 +440,14 @@ public class AppConfigUtilities {
      * Test if there already exists a chip at that address and bus. If
      * one already exists, ensure it is a TCA9548 and return the object,
      * else create a new TCA9548 instance. If a new instance is created
-     * update the deviceMap.
+     * update the deviceMap.  Synchronized, so only one Tca9548 and arbiter
+     * exists per mux.
      * * PreCond: AppConfigUtilities instance initialized.  See CTOR
      * @param  chipDetails  Chip details for the required TCA9548
      * @return  Tca9548
      *
      */
-    public Tca9548 prime9548(HashMap<String, String> chipDetails) {
+    public synchronized Tca9548 prime9548(HashMap<String, String> chipDetails) {
             Tca9548 rObj = null;
             this.ffdc.ffdcMethodEntry("prime9548 with   " + chipDetails);
 
@@ -351,12 +473,11 @@ public class AppConfigUtilities {
             }
             if(rObj == null) {
                 this.ffdc.ffdcDebugEntry("tcaObj must be created");
+                this.busNumTemp = muxBusI;
+                this.addressTemp = muxAddrI;
                 rObj = this.buildTca9548();
-                // create entry into the devceMap entry
-                HashMap<String, Object>
-                innerMap = new HashMap<String, Object>();
-                innerMap.put(muxAddr, rObj);
-                this.deviceMap.put(muxBus, innerMap);
+                // create entry into the devceMap entry, other devices on this bus are kept
+                this.deviceMap.computeIfAbsent(muxBus, k -> new HashMap<String, Object>()).put(muxAddr, rObj);
 
             }
             this.ffdc.ffdcDebugEntry("tcaObj : " + rObj);
@@ -519,6 +640,7 @@ public class AppConfigUtilities {
         HashMap<String, HashMap<String, HashMap<String, String>>> pinMap;
         HashMap<String, HashMap<String, String>> chipMap;
         HashMap<String, HashMap<String, String>> piPinMap;
+        AppConfigModel model;
         FfdcUtil ffdc;
         String priChipName;
         String pinName;
@@ -535,6 +657,9 @@ public class AppConfigUtilities {
         //      bUS0x?          address0x??   'someInstance
         HashMap<String, HashMap<String, Object>> deviceMap;
 
+        //      chipName    resolved path, see resolveRoute
+        private final ConcurrentHashMap<String, BusRoute> routeCache = new ConcurrentHashMap<String, BusRoute>();
+
 
     }
 
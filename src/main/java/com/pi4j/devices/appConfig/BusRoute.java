@@ -0,0 +1,88 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  BusRoute.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+package com.pi4j.devices.appConfig;
+
+import com.pi4j.devices.tca9548.Tca9548;
+
+/**
+ * <h1>BusRoute</h1>  Resolved path from the Pi to one configured chip.
+ * <p>
+ * Built once per chip name by AppConfigUtilities from the chipMap, the hex strings
+ * are parsed and the TCA9548 instance looked up at that time.  A chip connected
+ * directly to the Pi has a null mux.
+ * </p>
+ */
+public final class BusRoute {
+
+    /**
+     * CTOR
+     * @param chipName     chipMap key
+     * @param busNum       Pi bus number of the chip, or of its mux
+     * @param address      chip address
+     * @param mux          TCA9548 the chip sits behind, null if direct
+     * @param channel      mux channel 0-7, -1 if direct
+     * @param channelMask  TCA9548 control register bit for channel, 0 if direct
+     */
+    BusRoute(String chipName, int busNum, int address, Tca9548 mux, int channel, int channelMask) {
+        this.chipName = chipName;
+        this.busNum = busNum;
+        this.address = address;
+        this.mux = mux;
+        this.channel = channel;
+        this.channelMask = channelMask;
+    }
+
+    /**
+     *
+     * @return  true if the chip is reached through a TCA9548
+     */
+    public boolean isBehindMux() {
+        return (this.mux != null);
+    }
+
+    @Override
+    public String toString() {
+        return ("BusRoute " + this.chipName + " bus " + String.format("0x%02X", this.busNum) + " address "
+                + String.format("0x%02X", this.address)
+                + (this.mux == null ? " direct" : " mux channel " + this.channel));
+    }
+
+    public final String chipName;
+    public final int busNum;
+    public final int address;
+    public final Tca9548 mux;
+    public final int channel;
+    public final int channelMask;
+
+}
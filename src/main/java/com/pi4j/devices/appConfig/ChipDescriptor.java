@@ -0,0 +1,92 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  ChipDescriptor.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+package com.pi4j.devices.appConfig;
+
+import java.util.Map;
+
+/**
+ * <h1>ChipDescriptor</h1>  Immutable, parsed form of one ChipNameMap entry.
+ * <p>
+ * Numeric attributes are converted once when the AppConfigModel is compiled.  A value
+ * that is absent or not a valid hex number (the Pi entries use 'X') is held as -1.
+ * For a chip behind a mux, busNum is the mux channel.
+ * </p>
+ */
+public final class ChipDescriptor {
+
+    /**
+     * CTOR
+     * @param name    chipMap key
+     * @param detail  chipMap entry for name
+     */
+    ChipDescriptor(String name, Map<String, String> detail) {
+        this.name = name;
+        this.pca = detail.getOrDefault("pca", "");
+        this.busType = detail.getOrDefault("busType", "i2c");
+        this.busNum = AppConfigModel.parseHex(detail.get("busNum"));
+        this.address = AppConfigModel.parseHex(detail.get("address"));
+        this.channel = AppConfigModel.parseHex(detail.get("channel"));
+        this.banked = "y".equals(detail.get("banked"));
+        this.behindMux = detail.get("behindMux");
+        this.mcp23xxx = this.pca.equals("23008") || this.pca.equals("23017");
+        this.tca9548 = this.pca.equals("9548");
+    }
+
+    /**
+     *
+     * @return  true if this chip is reached through a mux/switch
+     */
+    public boolean isBehindMux() {
+        return (this.behindMux != null);
+    }
+
+    @Override
+    public String toString() {
+        return ("ChipDescriptor " + this.name + " pca " + this.pca + " bus " + this.busNum + " address "
+                + (this.address < 0 ? "none" : String.format("0x%02X", this.address))
+                + (this.behindMux == null ? "" : " behind " + this.behindMux));
+    }
+
+    public final String name;
+    public final String pca;
+    public final String busType;
+    public final int busNum;
+    public final int address;
+    public final int channel;
+    public final boolean banked;
+    public final String behindMux;
+    public final boolean mcp23xxx;
+    public final boolean tca9548;
+
+}
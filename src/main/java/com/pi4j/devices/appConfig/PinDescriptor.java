@@ -0,0 +1,101 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  PinDescriptor.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+package com.pi4j.devices.appConfig;
+
+import java.util.Map;
+
+/**
+ * <h1>PinDescriptor</h1>  Immutable, parsed form of one GpioToApp or PiPinMap pin entry.
+ * <p>
+ * Pin names such as 'pin14' and 'dio12' are reduced to their numbers when the
+ * AppConfigModel is compiled, -1 when the attribute is absent.
+ * </p>
+ */
+public final class PinDescriptor {
+
+    /**
+     * Configured interrupt action
+     */
+    public enum Action {
+        /** drive the target high, wait, drive it low */
+        HILOW,
+        /** drive the target to the state of the interrupting pin */
+        REFLECT,
+        /** missing or not recognized */
+        NONE
+    }
+
+    /**
+     * CTOR
+     * @param ownerChip  map key the pin entry is listed under
+     * @param pinName    pin key, 'pinN' or 'dioN'
+     * @param detail     pin entry
+     */
+    PinDescriptor(String ownerChip, String pinName, Map<String, String> detail) {
+        this.ownerChip = ownerChip;
+        this.pinName = pinName;
+        this.pinNum = AppConfigModel.parsePinName(pinName);
+        this.appName = detail.getOrDefault("appName", "");
+        String act = detail.getOrDefault("action", "");
+        if (act.equals("hilow")) {
+            this.action = Action.HILOW;
+        } else if (act.equals("reflect")) {
+            this.action = Action.REFLECT;
+        } else {
+            this.action = Action.NONE;
+        }
+        this.chipName = detail.get("chipName");
+        this.targetPin = AppConfigModel.parsePinName(detail.get("pin"));
+        this.targetChipName = detail.get("pinChip");
+        this.gpioNumLED = AppConfigModel.parsePinName(detail.get("gpioNumLED"));
+    }
+
+    @Override
+    public String toString() {
+        return ("PinDescriptor " + this.ownerChip + "/" + this.pinName + " app " + this.appName + " action "
+                + this.action + " chip " + this.chipName + " target pin " + this.targetPin + " LED gpio "
+                + this.gpioNumLED);
+    }
+
+    public final String ownerChip;
+    public final String pinName;
+    public final int pinNum;
+    public final String appName;
+    public final Action action;
+    public final String chipName;
+    public final int targetPin;
+    public final String targetChipName;
+    public final int gpioNumLED;
+
+}
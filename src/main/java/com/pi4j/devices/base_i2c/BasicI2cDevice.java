@@ -43,6 +43,7 @@ import com.pi4j.io.i2c.I2CConfig;
 import com.pi4j.util.Console;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -122,10 +123,10 @@ public class BasicI2cDevice {
      */
     protected int readRegister(int offset) {
         int reg = 0;
-        this.ffdc.ffdcMethodEntry("readRegister : offset " + String.format("0X%02x: ", offset) + " bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address));
+        this.ffdc.ffdcMethodEntry("readRegister : offset 0X%02x:  bus : 0X%02x:   device address:  0X%02x: ", offset, this.busNum, this.address);
         reg = this.i2cDevice.readRegister(offset);
         this.examineReturnRead(reg);
-        this.ffdc.ffdcMethodExit("readRegister  data :" + String.format("0X%02x: ", reg));
+        this.ffdc.ffdcMethodExit("readRegister  data :0X%02x: ", reg);
         return (reg);
     }
 
@@ -143,10 +144,10 @@ public class BasicI2cDevice {
      * @throws IOException, IOReadException
      */
     protected byte readRegisterByte(int offset) throws IOException, IOReadException {
-        this.ffdc.ffdcMethodEntry("readRegisterBye : offset " + String.format("0X%02x: ", offset) + " bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address));
+        this.ffdc.ffdcMethodEntry("readRegisterByte : offset 0X%02x:  bus : 0X%02x:   device address:  0X%02x: ", offset, this.busNum, this.address);
         byte reg = 0;
         reg = this.i2cDevice.readRegisterByte(offset);
-        this.ffdc.ffdcMethodExit("readRegisterByte data :" + String.format("0X%02x: ", reg));
+        this.ffdc.ffdcMethodExit("readRegisterByte data :0X%02x: ", reg & 0xff);
         return (reg);
     }
 
@@ -167,12 +168,12 @@ public class BasicI2cDevice {
      * PostCond:  Register contents returned if successful, else negative value
      */
     protected int read() {
-        this.ffdc.ffdcMethodEntry("read  bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address));
+        this.ffdc.ffdcMethodEntry("read  bus : 0X%02x:   device address:  0X%02x: ", this.busNum, this.address);
         int reg = 0;
         reg = this.i2cDevice.read();
         this.examineReturnRead(reg);
-        this.ffdc.ffdcDebugEntry("read :" + String.format("0X%02x: ", reg));
-        this.ffdc.ffdcMethodExit("read data:" + String.format("0X%02x: ", reg));
+        this.ffdc.ffdcDebugEntry("read :0X%02x: ", reg);
+        this.ffdc.ffdcMethodExit("read data:0X%02x: ", reg);
         return (reg);
     }
     /**
@@ -191,10 +192,10 @@ public class BasicI2cDevice {
      * @throws IOException
      */
     protected byte readByte() throws IOException {
-        this.ffdc.ffdcMethodEntry("readByte bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address));
+        this.ffdc.ffdcMethodEntry("readByte bus : 0X%02x:   device address:  0X%02x: ", this.busNum, this.address);
         byte reg = 0;
         reg = this.i2cDevice.readByte();
-        this.ffdc.ffdcDebugEntry("readByte  data :" + String.format("0X%02x: ", reg));
+        this.ffdc.ffdcDebugEntry("readByte  data :0X%02x: ", reg & 0xff);
         return (reg);
     }
 
@@ -207,27 +208,240 @@ public class BasicI2cDevice {
      * @return          number bytes read else negative number
      */
     protected  int readRegister(int register, byte[] buffer, int bufferOffset, int length){
-        this.ffdc.ffdcMethodEntry("readRegister bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address)
-                + "  register:  " + String.format("0X%02x: ",bufferOffset)+ "  length:  " + String.format("0X%02x: ",length));
+        this.ffdc.ffdcMethodEntry("readRegister bus : 0X%02x:   device address:  0X%02x:   register:  0X%02x:   length:  0X%02x: ",
+                this.busNum, this.address, register, length);
         int rc = 0;
 
         //  StandardCharsets.UTF_8,
         rc = this.i2cDevice.readRegister(register, buffer, bufferOffset, length);
         this.examineReturnRead(rc);
-        var details = "\n     0   1   2   3   4   5   6   7   8   9   a   b   c   d   e   f \n";
-        details = details + String.format("%02x: ", 0);
-        for (int i = 0; i < rc; i++) {
-            details = details + String.format("%02x ", buffer[i]) + " ";
-            if ((i > 0) && ((i + 1) % 16) == 0) {
-                details = details + "\n";
-                details = details + String.format("%02x: ", i + 1);
+        if (rc > 0) {
+            this.logBlock("readRegister", register, buffer, bufferOffset, rc);
+        }
+        this.ffdc.ffdcMethodExit("readRegister  rc :0X%02x: ", rc);
+        return(rc);
+        }
+
+    /**
+     * I2C device access, contiguous auto-increment read of buffer.remaining() bytes starting at
+     * device register 'register'.  One bus transaction, the device must have sequential
+     * addressing enabled.
+     * <p>
+     * PreCond: BasicI2cDevice instance initialized.  See CTOR
+     *
+     * @param register first device register
+     * @param buffer   caller supplied storage, filled from its position to its limit
+     * @return number bytes read else negative number.  On success the buffer position is
+     * advanced by the number of bytes read.
+     */
+    protected int readRegisterBlock(int register, ByteBuffer buffer) {
+        // the scratch buffers are shared by all block and list transfers
+        synchronized (this.blockLock) {
+            int length = buffer.remaining();
+            this.ffdc.ffdcMethodEntry("readRegisterBlock bus : 0X%02x:   device address:  0X%02x:   register:  0X%02x:   length:  0X%02x: ",
+                    this.busNum, this.address, register, length);
+            int rc;
+            if (buffer.hasArray()) {
+                int start = buffer.arrayOffset() + buffer.position();
+                rc = this.i2cDevice.readRegister(register, buffer.array(), start, length);
+                if (rc > 0) {
+                    this.logBlock("readRegisterBlock", register, buffer.array(), start, rc);
+                    buffer.position(buffer.position() + rc);
+                }
+            } else {
+                byte[] scratch = this.blockScratch(length);
+                rc = this.i2cDevice.readRegister(register, scratch, 0, length);
+                if (rc > 0) {
+                    this.logBlock("readRegisterBlock", register, scratch, 0, rc);
+                    buffer.put(scratch, 0, rc);
+                }
             }
+            this.examineReturnRead(rc);
+            this.ffdc.ffdcMethodExit("readRegisterBlock rc :%d", rc);
+            return (rc);
         }
+    }
 
-        this.ffdc.ffdcDebugEntry("readRegister  data :" + details
-                + "  rc: " + "\n" + String.format("0X%02x: ",rc));
-        return(rc);
+    /**
+     * I2C device access, contiguous auto-increment write of buffer.remaining() bytes starting at
+     * device register 'register'.  One bus transaction, the device must have sequential
+     * addressing enabled.
+     * <p>
+     * PreCond: BasicI2cDevice instance initialized.  See CTOR
+     *
+     * @param register first device register
+     * @param buffer   data written from its position to its limit
+     * @return 0 or positive if successful, else negative.  On success the buffer position is
+     * advanced to its limit.
+     */
+    protected int writeRegisterBlock(int register, ByteBuffer buffer) {
+        // the scratch buffers are shared by all block and list transfers
+        synchronized (this.blockLock) {
+            int length = buffer.remaining();
+            this.ffdc.ffdcMethodEntry("writeRegisterBlock bus : 0X%02x:   device address:  0X%02x:   register:  0X%02x:   length:  0X%02x: ",
+                    this.busNum, this.address, register, length);
+            int rval;
+            if (buffer.hasArray()) {
+                int start = buffer.arrayOffset() + buffer.position();
+                this.logBlock("writeRegisterBlock", register, buffer.array(), start, length);
+                rval = this.i2cDevice.writeRegister(register, buffer.array(), start, length);
+            } else {
+                byte[] scratch = this.blockScratch(length);
+                buffer.duplicate().get(scratch, 0, length);
+                this.logBlock("writeRegisterBlock", register, scratch, 0, length);
+                rval = this.i2cDevice.writeRegister(register, scratch, 0, length);
+            }
+            if (this.examineReturnWrite(rval)) {
+                buffer.position(buffer.limit());
+            }
+            this.ffdc.ffdcMethodExit("writeRegisterBlock rval :%d", rval);
+            return (rval);
         }
+    }
+
+    /**
+     * I2C device access, gather the contents of a list of device registers.
+     * <p>
+     * The registers are taken in address order and each run of consecutive addresses is
+     * read with one auto-increment block read of at most MAX_GATHER_SPAN bytes.  Addresses
+     * not in the list are never read, so a gap can safely hold a read-to-clear register
+     * such as the MCP23xxx INTCAP.
+     * <p>
+     * PreCond: BasicI2cDevice instance initialized.  See CTOR
+     *
+     * @param registers device registers, any order
+     * @param values    storage, values[i] receives the contents of registers[i]
+     * @return true if all reads successful, else false
+     */
+    protected boolean readRegisterList(int[] registers, byte[] values) {
+        // the scratch buffers are shared by all block and list transfers
+        synchronized (this.blockLock) {
+            this.ffdc.ffdcMethodEntry("readRegisterList  count : %d", registers.length);
+            boolean rval = true;
+            int[] order = this.orderScratch(registers.length);
+            // insertion sort of the indices by register address, lists are short
+            for (int i = 0; i < registers.length; i++) {
+                int k = i;
+                while ((k > 0) && (registers[order[k - 1]] > registers[i])) {
+                    order[k] = order[k - 1];
+                    k--;
+                }
+                order[k] = i;
+            }
+            int first = 0;
+            while ((first < registers.length) && rval) {
+                int low = registers[order[first]];
+                int last = first;
+                while (((last + 1) < registers.length) && (registers[order[last + 1]] - registers[order[last]] <= 1)
+                        && (registers[order[last + 1]] - low < MAX_GATHER_SPAN)) {
+                    last++;
+                }
+                int span = registers[order[last]] - low + 1;
+                byte[] scratch = this.blockScratch(span);
+                int rc = this.i2cDevice.readRegister(low, scratch, 0, span);
+                rval = this.examineReturnRead(rc) && (rc == span);
+                if (rval) {
+                    this.logBlock("readRegisterList", low, scratch, 0, span);
+                    for (int k = first; k <= last; k++) {
+                        values[order[k]] = scratch[registers[order[k]] - low];
+                    }
+                }
+                first = last + 1;
+            }
+            if (!rval) {
+                this.ffdc.ffdcErrorEntry("readRegisterList failed");
+            }
+            this.ffdc.ffdcMethodExit("readRegisterList");
+            return (rval);
+        }
+    }
+
+    /**
+     * I2C device access, scatter values to a list of device registers.
+     * <p>
+     * Registers are written in the order supplied.  Each run of consecutive ascending register
+     * addresses is merged into one auto-increment block write.
+     * <p>
+     * PreCond: BasicI2cDevice instance initialized.  See CTOR
+     *
+     * @param registers device registers, in the order they must be written
+     * @param values    values[i] is written to registers[i]
+     * @return true if all writes successful, else false
+     */
+    protected boolean writeRegisterList(int[] registers, byte[] values) {
+        // the scratch buffers are shared by all block and list transfers
+        synchronized (this.blockLock) {
+            this.ffdc.ffdcMethodEntry("writeRegisterList  count : %d", registers.length);
+            boolean rval = true;
+            byte[] scratch = this.blockScratch(registers.length);
+            int i = 0;
+            while ((i < registers.length) && rval) {
+                int start = registers[i];
+                int run = 1;
+                scratch[0] = values[i];
+                while (((i + run) < registers.length) && (registers[i + run] == start + run)) {
+                    scratch[run] = values[i + run];
+                    run++;
+                }
+                this.logBlock("writeRegisterList", start, scratch, 0, run);
+                int rc = this.i2cDevice.writeRegister(start, scratch, 0, run);
+                rval = this.examineReturnWrite(rc);
+                i += run;
+            }
+            if (!rval) {
+                this.ffdc.ffdcErrorEntry("writeRegisterList failed");
+            }
+            this.ffdc.ffdcMethodExit("writeRegisterList");
+            return (rval);
+        }
+    }
+
+    /**
+     * Per instance scratch storage for the block methods, grown as needed so steady
+     * state block access does not allocate.
+     *
+     * @param length minimum size required
+     * @return scratch array of at least length bytes
+     */
+    private byte[] blockScratch(int length) {
+        if ((this.blockBuffer == null) || (this.blockBuffer.length < length)) {
+            this.blockBuffer = new byte[Math.max(length, MAX_GATHER_SPAN)];
+        }
+        return (this.blockBuffer);
+    }
+
+    /**
+     * Per instance index storage for readRegisterList, grown as needed.
+     *
+     * @param length minimum size required
+     * @return scratch array of at least length ints
+     */
+    private int[] orderScratch(int length) {
+        if ((this.orderBuffer == null) || (this.orderBuffer.length < length)) {
+            this.orderBuffer = new int[Math.max(length, MAX_GATHER_SPAN)];
+        }
+        return (this.orderBuffer);
+    }
+
+    /**
+     * Hex dump of block data, only built when debug logging is enabled.
+     */
+    private void logBlock(String tag, int register, byte[] data, int offset, int length) {
+        if (this.ffdc.ffdcDebugEnabled()) {
+            StringBuilder details = new StringBuilder(tag);
+            details.append(String.format(" register 0X%02x: ", register));
+            details.append("\n     0   1   2   3   4   5   6   7   8   9   a   b   c   d   e   f \n");
+            details.append(String.format("%02x: ", 0));
+            for (int i = 0; i < length; i++) {
+                details.append(String.format("%02x ", data[offset + i])).append(" ");
+                if ((i > 0) && ((i + 1) % 16) == 0) {
+                    details.append("\n");
+                    details.append(String.format("%02x: ", i + 1));
+                }
+            }
+            this.ffdc.ffdcDebugEntry(details.toString());
+        }
+    }
 
     /**
      * I2C device access, write data to device register presently referenced in device control register.
@@ -240,12 +454,12 @@ public class BasicI2cDevice {
      *             PostCond:  0 returned if successful, else non-zero
      */
     protected int write(byte data) {
-        this.ffdc.ffdcMethodEntry("write : data " + String.format("0X%02x: ", data) + " bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address));
+        this.ffdc.ffdcMethodEntry("write : data 0X%02x:  bus : 0X%02x:   device address:  0X%02x: ", data & 0xff, this.busNum, this.address);
         int rval = 0;
         rval = this.i2cDevice.write(data);
         this.examineReturnWrite(rval);
-        this.ffdc.ffdcDebugEntry("write :" + String.format("0X%02x: ", data));
-        this.ffdc.ffdcMethodExit("write rval :" + String.format("0X%02x: ", rval));
+        this.ffdc.ffdcDebugEntry("write :0X%02x: ", data & 0xff);
+        this.ffdc.ffdcMethodExit("write rval :0X%02x: ", rval);
         return (rval);
     }
     /**
@@ -261,12 +475,12 @@ public class BasicI2cDevice {
      *             PostCond:  0 returned if successful, else non-zero
      */
     protected int writeByte(int offset, byte data) {
-        this.ffdc.ffdcMethodEntry("writeByte : offset  " + String.format("0X%02x: ", offset) + " data : " + String.format("0X%02x: ",data )  + " bus : " + String.format("0X%02x: ",this.busNum) + "  device address:  " + String.format("0X%02x: ",this.address));
+        this.ffdc.ffdcMethodEntry("writeByte : offset  0X%02x:  data : 0X%02x:  bus : 0X%02x:   device address:  0X%02x: ", offset, data & 0xff, this.busNum, this.address);
         int rval = 0;
         rval = this.i2cDevice.writeRegister(offset, data);
         this.examineReturnWrite(rval);
-        this.ffdc.ffdcDebugEntry("writeByte :" + String.format("0X%02x: ", data));
-        this.ffdc.ffdcMethodExit("writeByte rval :" + String.format("0X%02x: ", rval));
+        this.ffdc.ffdcDebugEntry("writeByte :0X%02x: ", data & 0xff);
+        this.ffdc.ffdcMethodExit("writeByte rval :0X%02x: ", rval);
         return (rval);
     }
 
@@ -282,7 +496,7 @@ public class BasicI2cDevice {
      *             PostCond:  If rval indicates success return true, else false
      */
     protected boolean examineReturnWrite(int rval) {
-        this.ffdc.ffdcMethodEntry(this.getMethodName());
+        this.ffdc.ffdcMethodEntry(TAG_EXAMINE_WRITE);
         boolean test = true;
         if (rval >= 0) {
             this.ffdc.ffdcDebugEntry("return value success");
@@ -291,7 +505,7 @@ public class BasicI2cDevice {
             this.ffdc.ffdcDebugEntry("return value Write failure");
             this.ffdc.ffdcErrorEntry("return value Write failure");
         }
-        this.ffdc.ffdcMethodExit(this.getMethodName() + " examine results " + rval);
+        this.ffdc.ffdcMethodExit(TAG_EXAMINE_WRITE + " examine results %d", rval);
         return (test);
     }
 
@@ -306,7 +520,7 @@ public class BasicI2cDevice {
      *             PostCond:  If rval indicates success return true, else false
      */
     protected boolean examineReturnRead(int rval) {
-        this.ffdc.ffdcMethodEntry(this.getMethodName());
+        this.ffdc.ffdcMethodEntry(TAG_EXAMINE_READ);
         boolean test = true;
         if (rval >= 0) {
             this.ffdc.ffdcDebugEntry("return value success");
@@ -315,7 +529,7 @@ public class BasicI2cDevice {
             this.ffdc.ffdcDebugEntry("return value Read failure");
             this.ffdc.ffdcErrorEntry("return value Read failure");
         }
-        this.ffdc.ffdcMethodExit(this.getMethodName() + " examine results " + rval);
+        this.ffdc.ffdcMethodExit(TAG_EXAMINE_READ + " examine results %d", rval);
         return (test);
     }
 
@@ -323,15 +537,26 @@ public class BasicI2cDevice {
     /**
      * Utility used by logging actions.
      * <p>
+     * Walks the stack, so only call it when the log level is enabled.  Methods on
+     * the I2C transaction path use constant call-site tags instead, see TAG_EXAMINE_READ.
+     * <p>
      * PreCond: BasicI2cDevice instance initialized.  See CTOR
      * <p>
      * PostCond:  String containing the calling methods name.
      */
     protected String getMethodName() {
-        return (new Throwable().getStackTrace()[1].getMethodName());
+        return (StackWalker.getInstance().walk(frames -> frames.skip(1).findFirst())
+                .map(StackWalker.StackFrame::getMethodName).orElse(""));
     }
 
 
+    /**
+     * Call-site tags used in place of getMethodName() on the per transaction path.
+     */
+    protected static final String TAG_EXAMINE_READ = "examineReturnRead";
+    protected static final String TAG_EXAMINE_WRITE = "examineReturnWrite";
+
+
     protected FfdcUtil ffdc;
     protected int busNum;
     protected int address;
@@ -340,5 +565,14 @@ public class BasicI2cDevice {
     protected I2CConfig i2cDeviceConfig;
     protected I2C i2cDevice;
 
+    /**
+     * Largest register span readRegisterList will cover with a single block read.
+     */
+    protected static final int MAX_GATHER_SPAN = 32;
+
+    private final Object blockLock = new Object();
+    private byte[] blockBuffer;
+    private int[] orderBuffer;
+
 
 }
@@ -0,0 +1,127 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  FfdcCallSiteBench.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_i2c;
+
+import com.pi4j.devices.base_util.ffdc.FfdcUtil;
+import com.pi4j.util.Console;
+
+/**
+ * FfdcCallSiteBench
+ * <p>
+ * Measures the FFDC logging cost that BasicI2cDevice adds to one register read, no hardware
+ * is required.  The 'before' path replays the sequence that preceded the call-site tags:
+ * the level gated overloads already in place, with examineReturnRead naming itself through
+ * a Throwable stack capture and concatenating its exit detail when trace is enabled.  The
+ * 'after' path is the present sequence, level gated overloads and constant call-site tags.
+ * </p>
+ * <p>
+ * Both paths run with the logger at the -f level (default 6 OFF).  At OFF the two paths
+ * should match, the tags change nothing for discarded records.  Run with -f 0 (TRACE) and
+ * a small -n to measure the two stack captures per read that the tags remove, the results
+ * are then interleaved with the trace records.
+ * </p>
+ */
+public class FfdcCallSiteBench {
+
+    static int sink = 0;
+
+    static void beforeRead(FfdcUtil ffdc, int offset, int busNum, int address, int reg) {
+        ffdc.ffdcMethodEntry("readRegister : offset 0X%02x:  bus : 0X%02x:   device address:  0X%02x: ", offset, busNum, address);
+        if (ffdc.ffdcMethodTraceEnabled()) {
+            ffdc.ffdcMethodEntry(new Throwable().getStackTrace()[0].getMethodName());
+        }
+        ffdc.ffdcDebugEntry("return value success");
+        if (ffdc.ffdcMethodTraceEnabled()) {
+            ffdc.ffdcMethodExit(new Throwable().getStackTrace()[0].getMethodName() + " examine results " + reg);
+        }
+        ffdc.ffdcMethodExit("readRegister  data :0X%02x: ", reg);
+    }
+
+    static void afterRead(FfdcUtil ffdc, int offset, int busNum, int address, int reg) {
+        ffdc.ffdcMethodEntry("readRegister : offset 0X%02x:  bus : 0X%02x:   device address:  0X%02x: ", offset, busNum, address);
+        ffdc.ffdcMethodEntry(BasicI2cDevice.TAG_EXAMINE_READ);
+        ffdc.ffdcDebugEntry("return value success");
+        ffdc.ffdcMethodExit(BasicI2cDevice.TAG_EXAMINE_READ + " examine results %d", reg);
+        ffdc.ffdcMethodExit("readRegister  data :0X%02x: ", reg);
+    }
+
+    static double run(FfdcUtil ffdc, boolean before, int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (before) {
+                beforeRead(ffdc, i & 0xff, 1, 0x20, i & 0x7f);
+            } else {
+                afterRead(ffdc, i & 0xff, 1, 0x20, i & 0x7f);
+            }
+            sink += i;
+        }
+        return ((System.nanoTime() - start) / (double) iterations);
+    }
+
+    /**
+     * FfdcCallSiteBench, main entry point
+     * <p>
+     * -f ffdc_lvl  -n iterations
+     * <p>
+     * PostCond:  ns per simulated register read printed for each path
+     */
+    public static void main(String[] args) {
+        var console = new Console();
+        int ffdcControlLevel = 6;
+        int iterations = 200000;
+        for (int i = 0; i < args.length; i++) {
+            String o = args[i];
+            if (o.contentEquals("-f")) {
+                ffdcControlLevel = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (o.contentEquals("-n")) {
+                iterations = Integer.parseInt(args[i + 1]);
+                i++;
+            }
+        }
+        FfdcUtil ffdc = new FfdcUtil(console, null, ffdcControlLevel, FfdcCallSiteBench.class);
+
+        // warm up both paths before measuring
+        for (int w = 0; w < 5; w++) {
+            run(ffdc, true, iterations);
+            run(ffdc, false, iterations);
+        }
+        double beforeNs = run(ffdc, true, iterations);
+        double afterNs = run(ffdc, false, iterations);
+        console.println(String.format("before : %10.1f ns per register read", beforeNs));
+        console.println(String.format("after  : %10.1f ns per register read", afterNs));
+        console.println("sink " + sink);
+    }
+}
@@ -88,7 +88,7 @@ public class I2cSimpleRead extends BasicI2cDevice {
     public void dumpRegs() throws IOException, IOReadException { // Here we will create I/O interfaces for a (GPIO) digital output
         // and input pin. Since no specific 'provider' is defined, Pi4J will
         // use the default `DigitalOutputProvider` for the current default platform.
-        this.ffdc.ffdcMethodEntry(this.getMethodName());
+        this.ffdc.ffdcMethodEntry("dumpRegs");
 
         var details = "\n     0   1   2   3   4   5   6   7   8   9   a   b   c   d   e   f \n";
         details = details + String.format("%02x: ", 0);
@@ -116,7 +116,7 @@ public class I2cSimpleRead extends BasicI2cDevice {
         }
         console.println(details);
         this.ffdc.ffdcDebugEntry(details);
-        this.ffdc.ffdcMethodExit(this.getMethodName());
+        this.ffdc.ffdcMethodExit("dumpRegs");
     }
     int numBytes = 0;
     int deviceOffset;
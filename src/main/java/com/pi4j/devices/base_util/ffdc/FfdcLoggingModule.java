@@ -33,11 +33,20 @@
  */
 
 package com.pi4j.devices.base_util.ffdc;
+
+import java.util.function.Supplier;
+
 /**
  * FfdcLoggingModule
  * Interface declarations for custom logging, the implementing class
  * can add any desired information to the 'detail'.
  *
+ * <p>
+ * The format/int and Supplier overloads are level gated, the detail string is only
+ * built when the corresponding level is enabled.  Callers on a hot path should use
+ * these so a disabled level costs neither allocation nor formatting.  The format
+ * string follows String.format, e.g. "offset 0X%02x".
+ * </p>
  * */
 
 public interface FfdcLoggingModule {
@@ -49,6 +58,93 @@ public interface FfdcLoggingModule {
 
     boolean ffdcDebugEntry(String detail);
 
+    /**
+     * @return true if method entry/exit records will be logged
+     */
+    boolean ffdcMethodTraceEnabled();
+
+    /**
+     * @return true if debug records will be logged
+     */
+    boolean ffdcDebugEnabled();
+
+    default boolean ffdcMethodEntry(Supplier<String> detail) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodEntry(detail.get());
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodEntry(String format, int arg1) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodEntry(String.format(format, arg1));
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodEntry(String format, int arg1, int arg2) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodEntry(String.format(format, arg1, arg2));
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodEntry(String format, int arg1, int arg2, int arg3) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodEntry(String.format(format, arg1, arg2, arg3));
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodEntry(String format, int arg1, int arg2, int arg3, int arg4) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodEntry(String.format(format, arg1, arg2, arg3, arg4));
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodExit(Supplier<String> detail) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodExit(detail.get());
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodExit(String format, int arg1) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodExit(String.format(format, arg1));
+        }
+        return (true);
+    }
+
+    default boolean ffdcMethodExit(String format, int arg1, int arg2) {
+        if (this.ffdcMethodTraceEnabled()) {
+            this.ffdcMethodExit(String.format(format, arg1, arg2));
+        }
+        return (true);
+    }
+
+    default boolean ffdcDebugEntry(Supplier<String> detail) {
+        if (this.ffdcDebugEnabled()) {
+            this.ffdcDebugEntry(detail.get());
+        }
+        return (true);
+    }
+
+    default boolean ffdcDebugEntry(String format, int arg1) {
+        if (this.ffdcDebugEnabled()) {
+            this.ffdcDebugEntry(String.format(format, arg1));
+        }
+        return (true);
+    }
+
+    default boolean ffdcDebugEntry(String format, int arg1, int arg2) {
+        if (this.ffdcDebugEnabled()) {
+            this.ffdcDebugEntry(String.format(format, arg1, arg2));
+        }
+        return (true);
+    }
+
     boolean ffdcErrorEntry(String detail);
 
     void ffdcErrorExit(String detail, int code);
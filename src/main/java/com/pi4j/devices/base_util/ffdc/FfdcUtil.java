@@ -127,12 +127,14 @@ public class FfdcUtil implements FfdcLoggingModule, FfdcLoggingSystem {
      * @param detail to log
      *               </p>
      *               <p>
-     *               PostCondition  &gt;&gt;&gt;&gt;  Entered : prepended to detail
+     *               PostCondition  &gt;&gt;&gt;&gt;  Entered : prepended to detail, logged at TRACE
      *               </p>
      */
     @Override
     public boolean ffdcMethodEntry(String detail) {
-        this.logger.info(">>>>  Entered :" + detail);
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(">>>>  Entered :" + detail);
+        }
         return (true);
     }
 
@@ -143,15 +145,40 @@ public class FfdcUtil implements FfdcLoggingModule, FfdcLoggingSystem {
      * @param detail to log
      *               </p>
      *               <p>
-     *               PostCondition  &lt;&lt;&lt;&lt;  Exit : prepended to detail
+     *               PostCondition  &lt;&lt;&lt;&lt;  Exit : prepended to detail, logged at TRACE
      *               </p>
      */
     @Override
     public boolean ffdcMethodExit(String detail) {
-        this.logger.info("<<<<<  Exit :" + detail);
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("<<<<<  Exit :" + detail);
+        }
         return (true);
     }
 
+    /**
+     * ffdcMethodTraceEnabled
+     * <p>
+     * Method entry/exit records track the application flow and are logged at TRACE.
+     * </p>
+     *
+     * @return true if ffdcMethodEntry/ffdcMethodExit records will be logged
+     */
+    @Override
+    public boolean ffdcMethodTraceEnabled() {
+        return (this.logger.isTraceEnabled());
+    }
+
+    /**
+     * ffdcDebugEnabled
+     *
+     * @return true if ffdcDebugEntry records will be logged
+     */
+    @Override
+    public boolean ffdcDebugEnabled() {
+        return (this.logger.isDebugEnabled());
+    }
+
     /**
      * ffdcConfigWarningEntry
      * <p>
@@ -180,7 +207,9 @@ public class FfdcUtil implements FfdcLoggingModule, FfdcLoggingSystem {
      */
     @Override
     public boolean ffdcDebugEntry(String detail) {
-        this.logger.debug("Info :" + detail);
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Info :" + detail);
+        }
         return (true);
     }
 
@@ -0,0 +1,145 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  CicDecimator.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+/**
+ * Cascaded integrator-comb decimator, one output per ratio inputs.
+ * <p>
+ * order integrators run at the input rate, order combs at the output rate, so
+ * each sample costs order additions.  Order 1 is a boxcar : the mean of each
+ * block of ratio samples.  Higher orders give more stop band attenuation at the
+ * price of droop in the pass band.
+ * <p>
+ * The output is scaled back by the filter gain ratio^order.  extraBits keeps
+ * that many bits of the resolution gained by oversampling, the output is then
+ * the input scale times 2^extraBits.  The first order - 1 outputs, which still
+ * contain the start up transient, are not reported.
+ */
+public final class CicDecimator implements SampleStage {
+
+    /**
+     * @param order      integrator/comb pairs, 1 .. 5
+     * @param ratio      decimation ratio, at least 2
+     * @param extraBits  output resolution above the input scale, 0 .. 8
+     */
+    public CicDecimator(int order, int ratio, int extraBits) {
+        if (order < 1 || order > 5) {
+            throw new IllegalArgumentException("CIC order out of range : " + order);
+        }
+        if (ratio < 2) {
+            throw new IllegalArgumentException("CIC ratio must be at least 2 : " + ratio);
+        }
+        if (extraBits < 0 || extraBits > 8) {
+            throw new IllegalArgumentException("CIC extraBits out of range : " + extraBits);
+        }
+        // 32 bit input plus register growth and scaling must fit a long
+        int growth = order * (32 - Integer.numberOfLeadingZeros(ratio - 1));
+        if (32 + growth + extraBits > 63) {
+            throw new IllegalArgumentException("CIC order " + order + " ratio " + ratio + " exceeds 64 bit registers");
+        }
+        long g = 1;
+        for (int k = 0; k < order; k++) {
+            g *= ratio;
+        }
+        this.gain = g;
+        this.ratio = ratio;
+        this.extraBits = extraBits;
+        this.integrators = new long[order];
+        this.delays = new long[order];
+    }
+
+    /**
+     * Boxcar average of ratio samples
+     * @param ratio  decimation ratio, at least 2
+     */
+    public CicDecimator(int ratio) {
+        this(1, ratio, 0);
+    }
+
+    @Override
+    public boolean push(int code) {
+        long v = code;
+        for (int k = 0; k < this.integrators.length; k++) {
+            this.integrators[k] += v;
+            v = this.integrators[k];
+        }
+        if (++this.phase < this.ratio) {
+            return (false);
+        }
+        this.phase = 0;
+        for (int k = 0; k < this.delays.length; k++) {
+            long prev = this.delays[k];
+            this.delays[k] = v;
+            v -= prev;
+        }
+        this.out = (int) Math.floorDiv((v << this.extraBits) + this.gain / 2, this.gain);
+        if (this.settling < this.delays.length - 1) {
+            this.settling++;
+            return (false);
+        }
+        return (true);
+    }
+
+    @Override
+    public int output() {
+        return (this.out);
+    }
+
+    @Override
+    public void reset() {
+        for (int k = 0; k < this.integrators.length; k++) {
+            this.integrators[k] = 0;
+            this.delays[k] = 0;
+        }
+        this.phase = 0;
+        this.settling = 0;
+    }
+
+    /**
+     * @return  inputs per output
+     */
+    public int getRatio() {
+        return (this.ratio);
+    }
+
+    private final long[] integrators;
+    private final long[] delays;
+    private final long gain;
+    private final int ratio;
+    private final int extraBits;
+    private int phase;
+    private int settling;
+    private int out;
+}
@@ -0,0 +1,84 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  FilterChain.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+/**
+ * Stages applied in order, each output of one stage is pushed into the next.
+ * <p>
+ * Typical use is spike rejection ahead of decimation :
+ * <pre>
+ *   new FilterChain(new MedianFilter(3), new CicDecimator(2, 64, 0))
+ * </pre>
+ */
+public final class FilterChain implements SampleStage {
+
+    /**
+     * @param stages  applied first to last
+     */
+    public FilterChain(SampleStage... stages) {
+        if (stages.length == 0) {
+            throw new IllegalArgumentException("FilterChain needs at least one stage");
+        }
+        this.stages = stages.clone();
+    }
+
+    @Override
+    public boolean push(int code) {
+        int v = code;
+        for (SampleStage stage : this.stages) {
+            if (stage.push(v) == false) {
+                return (false);
+            }
+            v = stage.output();
+        }
+        this.out = v;
+        return (true);
+    }
+
+    @Override
+    public int output() {
+        return (this.out);
+    }
+
+    @Override
+    public void reset() {
+        for (SampleStage stage : this.stages) {
+            stage.reset();
+        }
+    }
+
+    private final SampleStage[] stages;
+    private int out;
+}
@@ -0,0 +1,91 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  FilteredSampleSink.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+import java.util.function.Supplier;
+
+/**
+ * SampleSink running each channel through its own filter before passing the
+ * results to another sink.
+ * <p>
+ * Attach it to an ADC driver with setSampleSink.  A filter is created from the
+ * factory the first time a channel is seen, after that each sample is filtered
+ * without allocation.  Outputs carry the timestamp of the last input that
+ * contributed to them.  Channels must be 0 .. 255, this covers the MCP3008
+ * input number and the ADS1256 MUX register value.
+ */
+public final class FilteredSampleSink implements SampleSink {
+
+    /**
+     * @param downstream  receives the filtered samples
+     * @param factory     builds the filter for one channel
+     */
+    public FilteredSampleSink(SampleSink downstream, Supplier<? extends SampleStage> factory) {
+        this.downstream = downstream;
+        this.factory = factory;
+    }
+
+    @Override
+    public void accept(long timestamp, int channel, int code) {
+        SampleStage stage = this.stages[channel];
+        if (stage == null) {
+            stage = this.factory.get();
+            this.stages[channel] = stage;
+        }
+        if (stage.push(code)) {
+            this.downstream.accept(timestamp, channel, stage.output());
+        }
+    }
+
+    @Override
+    public void flush() {
+        this.downstream.flush();
+    }
+
+    /**
+     * Discard the history of every channel.
+     */
+    public void reset() {
+        for (SampleStage stage : this.stages) {
+            if (stage != null) {
+                stage.reset();
+            }
+        }
+    }
+
+    private final SampleSink downstream;
+    private final Supplier<? extends SampleStage> factory;
+    private final SampleStage[] stages = new SampleStage[256];
+}
@@ -0,0 +1,151 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  MappedSampleSink.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SampleSink writing fixed size binary records to a memory mapped file.
+ * <p>
+ * Each record is RECORD_BYTES long, little endian :
+ * <pre>
+ *   long  timestamp   System.nanoTime()
+ *   int   channel
+ *   int   code
+ * </pre>
+ * The file is mapped one region at a time, when a region fills the next one is
+ * mapped behind it.  Storing a sample is three puts into the mapped buffer, no
+ * system call and no allocation.  The region is forced to the device once every
+ * forceEvery samples rather than per sample.  close() forces the remaining data
+ * and truncates the file to the records written.
+ */
+public final class MappedSampleSink implements SampleSink, Closeable {
+
+    /** Bytes per record */
+    public static final int RECORD_BYTES = 16;
+
+    /**
+     * @param file               created or truncated
+     * @param recordsPerRegion   records mapped at a time
+     * @param forceEvery         force() after this many records, 0 only on flush/close
+     * @throws IOException
+     */
+    public MappedSampleSink(Path file, int recordsPerRegion, int forceEvery) throws IOException {
+        if (recordsPerRegion < 1 || recordsPerRegion > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("recordsPerRegion out of range : " + recordsPerRegion);
+        }
+        this.regionBytes = (long) recordsPerRegion * RECORD_BYTES;
+        this.forceEvery = forceEvery;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.mapRegion(0);
+    }
+
+    /**
+     * 64K records (1 MiB) per region, force() every 4096 records
+     * @param file  created or truncated
+     * @throws IOException
+     */
+    public MappedSampleSink(Path file) throws IOException {
+        this(file, 65536, 4096);
+    }
+
+    @Override
+    public void accept(long timestamp, int channel, int code) {
+        if (this.region.remaining() < RECORD_BYTES) {
+            this.region.force();
+            this.mapRegion(this.regionStart + this.regionBytes);
+        }
+        this.region.putLong(timestamp);
+        this.region.putInt(channel);
+        this.region.putInt(code);
+        this.written++;
+        if (this.forceEvery > 0 && ++this.sinceForce >= this.forceEvery) {
+            this.region.force();
+            this.sinceForce = 0;
+        }
+    }
+
+    @Override
+    public void flush() {
+        this.region.force();
+        this.sinceForce = 0;
+    }
+
+    /**
+     * Force outstanding records and cut the file to the records written.
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.channel.isOpen()) {
+            this.region.force();
+            this.channel.truncate(this.written * RECORD_BYTES);
+            this.channel.close();
+        }
+    }
+
+    /**
+     * @return  records written
+     */
+    public long getWritten() {
+        return (this.written);
+    }
+
+    private void mapRegion(long start) {
+        try {
+            this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, start, this.regionBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("MappedSampleSink map failed at offset " + start, e);
+        }
+        this.region.order(ByteOrder.LITTLE_ENDIAN);
+        this.regionStart = start;
+    }
+
+    private final FileChannel channel;
+    private final long regionBytes;
+    private final int forceEvery;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long written;
+    private int sinceForce;
+}
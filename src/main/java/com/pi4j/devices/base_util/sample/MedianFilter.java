@@ -0,0 +1,106 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  MedianFilter.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+/**
+ * Median of the last n samples, one output per input.  Removes isolated spikes
+ * while keeping steps.
+ * <p>
+ * The window is also kept sorted; each sample removes the value leaving the
+ * window and inserts the new one, bounded by n moves rather than a full sort.
+ * Intended for small odd n, 3 .. 15.
+ */
+public final class MedianFilter implements SampleStage {
+
+    /** Largest supported window */
+    public static final int MAX_WINDOW = 63;
+
+    /**
+     * @param n  window, 1 .. MAX_WINDOW
+     */
+    public MedianFilter(int n) {
+        if (n < 1 || n > MAX_WINDOW) {
+            throw new IllegalArgumentException("median window out of range : " + n);
+        }
+        this.history = new int[n];
+        this.sorted = new int[n];
+    }
+
+    @Override
+    public boolean push(int code) {
+        int size = this.filled;
+        if (size == this.history.length) {
+            // drop the oldest value from the sorted window
+            int old = this.history[this.next];
+            int i = 0;
+            while (this.sorted[i] != old) {
+                i++;
+            }
+            System.arraycopy(this.sorted, i + 1, this.sorted, i, size - i - 1);
+            size--;
+        } else {
+            this.filled++;
+        }
+        int j = size;
+        while (j > 0 && this.sorted[j - 1] > code) {
+            this.sorted[j] = this.sorted[j - 1];
+            j--;
+        }
+        this.sorted[j] = code;
+        this.history[this.next] = code;
+        if (++this.next == this.history.length) {
+            this.next = 0;
+        }
+        this.out = this.sorted[(this.filled - 1) / 2];
+        return (true);
+    }
+
+    @Override
+    public int output() {
+        return (this.out);
+    }
+
+    @Override
+    public void reset() {
+        this.filled = 0;
+        this.next = 0;
+    }
+
+    private final int[] history;
+    private final int[] sorted;
+    private int filled;
+    private int next;
+    private int out;
+}
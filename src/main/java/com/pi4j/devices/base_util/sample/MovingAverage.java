@@ -0,0 +1,88 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  MovingAverage.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+/**
+ * Running mean of the last window samples, one output per input.
+ * <p>
+ * A running sum is kept, each sample adds the new value and subtracts the one
+ * leaving the window.  Until the window fills the mean covers the samples seen.
+ */
+public final class MovingAverage implements SampleStage {
+
+    /**
+     * @param window  samples averaged, at least 1
+     */
+    public MovingAverage(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1 : " + window);
+        }
+        this.history = new int[window];
+    }
+
+    @Override
+    public boolean push(int code) {
+        if (this.filled == this.history.length) {
+            this.sum -= this.history[this.next];
+        } else {
+            this.filled++;
+        }
+        this.history[this.next] = code;
+        this.sum += code;
+        if (++this.next == this.history.length) {
+            this.next = 0;
+        }
+        this.out = (int) Math.floorDiv(2 * this.sum + this.filled, 2L * this.filled);  // rounded
+        return (true);
+    }
+
+    @Override
+    public int output() {
+        return (this.out);
+    }
+
+    @Override
+    public void reset() {
+        this.sum = 0;
+        this.filled = 0;
+        this.next = 0;
+    }
+
+    private final int[] history;
+    private long sum;
+    private int filled;
+    private int next;
+    private int out;
+}
@@ -0,0 +1,140 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  RingSampleSink.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SampleSink keeping the most recent samples in memory for another thread.
+ * <p>
+ * Single producer / single consumer ring over preallocated primitive arrays, no
+ * locks and no allocation on either side.  The producer never waits, a sample
+ * arriving while the ring is full is discarded and counted as an overrun.
+ */
+public final class RingSampleSink implements SampleSink {
+
+    /**
+     * @param capacity  minimum number of samples held, rounded up to a power of two
+     */
+    public RingSampleSink(int capacity) {
+        if (capacity < 1 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("capacity out of range : " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size = size << 1;
+        }
+        this.nanos = new long[size];
+        this.channels = new int[size];
+        this.codes = new int[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void accept(long timestamp, int channel, int code) {
+        long t = this.tail.get();
+        if (t - this.head.get() > this.mask) {
+            this.overruns.incrementAndGet();
+            return;
+        }
+        int i = (int) (t & this.mask);
+        this.nanos[i] = timestamp;
+        this.channels[i] = channel;
+        this.codes[i] = code;
+        this.tail.lazySet(t + 1);
+    }
+
+    /**
+     * Consumer side, move up to max samples out of the ring.
+     * @param dstNanos     receives time stamps, may be null
+     * @param dstChannels  receives channels, may be null
+     * @param dstCodes     receives conversion results
+     * @param offset       first index written in the destination arrays
+     * @param max          most samples to move
+     * @return  number of samples moved
+     */
+    public int drain(long[] dstNanos, int[] dstChannels, int[] dstCodes, int offset, int max) {
+        long h = this.head.get();
+        int n = (int) Math.min(max, this.tail.get() - h);
+        for (int k = 0; k < n; k++) {
+            int i = (int) ((h + k) & this.mask);
+            if (dstNanos != null) {
+                dstNanos[offset + k] = this.nanos[i];
+            }
+            if (dstChannels != null) {
+                dstChannels[offset + k] = this.channels[i];
+            }
+            dstCodes[offset + k] = this.codes[i];
+        }
+        this.head.lazySet(h + n);
+        return (n);
+    }
+
+    /**
+     * @return  samples waiting to be drained
+     */
+    public int size() {
+        return ((int) (this.tail.get() - this.head.get()));
+    }
+
+    /**
+     * @return  ring size
+     */
+    public int capacity() {
+        return (this.codes.length);
+    }
+
+    /**
+     * @return  samples accepted since creation
+     */
+    public long getWritten() {
+        return (this.tail.get());
+    }
+
+    /**
+     * @return  samples discarded because the ring was full
+     */
+    public long getOverruns() {
+        return (this.overruns.get());
+    }
+
+    private final long[] nanos;
+    private final int[] channels;
+    private final int[] codes;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+}
@@ -0,0 +1,61 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  SampleSink.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+/**
+ * Destination for ADC conversion results.
+ * <p>
+ * Drivers call accept once per conversion from their acquisition thread, so an
+ * implementation must not block or allocate per sample.  The channel value is
+ * chosen by the driver, MCP3008 passes the input number, ADS1256 the MUX register
+ * value (positive input in the high nibble, negative input in the low nibble).
+ * <p>
+ * Implementations are single producer, one driver thread feeds a sink.
+ */
+public interface SampleSink {
+
+    /**
+     * @param timestamp  System.nanoTime() when the result was read
+     * @param channel    driver specific channel identifier
+     * @param code       raw conversion result
+     */
+    void accept(long timestamp, int channel, int code);
+
+    /**
+     * Make accepted samples durable or visible, called by the owner at the end of a run.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  SampleStage.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.base_util.sample;
+
+/**
+ * One step of an incremental filter over raw conversion codes.
+ * <p>
+ * Each pushed sample is processed in bounded time with no allocation.  A stage
+ * may produce an output for every input (smoothing) or only for some of them
+ * (decimation), push reports which.
+ */
+public interface SampleStage {
+
+    /**
+     * @param code  next input sample
+     * @return  true if a new output is available from output()
+     */
+    boolean push(int code);
+
+    /**
+     * @return  most recent output
+     */
+    int output();
+
+    /**
+     * Discard all history.
+     */
+    void reset();
+
+    /**
+     * Run a block of samples through the stage.
+     * @param in      input samples
+     * @param inOff   first input index
+     * @param len     number of inputs
+     * @param out     receives the outputs produced, may be the in array
+     * @param outOff  first output index
+     * @return  number of outputs written
+     */
+    default int process(int[] in, int inOff, int len, int[] out, int outOff) {
+        int n = 0;
+        for (int k = 0; k < len; k++) {
+            if (this.push(in[inOff + k])) {
+                out[outOff + n++] = this.output();
+            }
+        }
+        return (n);
+    }
+}
@@ -0,0 +1,97 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280Declares.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+/**
+ * BME280 register addresses and register contents
+ */
+public class BME280Declares {
+
+    public static final int DEFAULT_ADDRESS = 0x77;
+
+    public static final int DEFAULT_BUS = 0x1;
+
+
+    /*  Begin device register definitions.        */
+    static int hum_lsb = 0xFE;
+    static int hum_msb = 0xFD;
+    static int temp_xlsb = 0xFC;
+    static int temp_lsb = 0xFB;
+    static int temp_msb = 0xFA;
+    static int press_xlsb = 0xF9;
+    static int press_lsb = 0xF8;
+    static int press_msb = 0xF7;
+    static int config = 0xF5;
+    static int ctrl_meas = 0xF4;
+    static int status = 0xF3;
+    static int ctrl_hum = 0xF2;
+    static int reset = 0xE0;
+    static int chipId = 0xD0;
+
+
+    // errata register definitions
+    static int reg_dig_t1 = 0x88;     // dig_T1 .. dig_P9, then 0xA0 unused and dig_H1
+    static int reg_dig_h1 = 0xA1;
+    static int reg_dig_h2 = 0xE1;     // dig_H2 .. dig_H6
+    static int reg_dig_h4 = 0xE4;     // 11:4, 0xE5 3:0
+    static int reg_dig_h5 = 0xE5;     // 7:4 are 3:0, 0xE6 11:4
+    static int reg_dig_h6 = 0xE7;
+
+    // register contents
+    static int idValueMskBME = 0x60;   // expected chpId value BME280
+    static int reset_cmd = 0xB6;  // written to reset
+
+    // Pertaining to 0xF3 status register
+    static int stat_measure = 0x08;  // set, conversion running
+    static int stat_update = 0x01;  // set, NVM being copied
+
+    // Pertaining to 0xF2 ctrl_hum register
+    static int humOverSampleMsk = 0x07;  // mask bits 0,1,2
+
+    // Pertaining to 0xF4 ctrl_meas register
+    static int tempOverSampleMsk = 0xE0;  // mask bits 5,6,7
+    static int presOverSampleMsk = 0x1C;  // mask bits 2,3,4
+    static int pwrModeMsk = 0x03;  // mask bits 0,1
+
+    // For the control reg 0xf4
+    static int ctl_forced = 0x01;
+    static int ctl_tempSamp1 = 0x20;   // oversample *1
+    static int ctl_pressSamp1 = 0x04;   // oversample *1
+
+    // For the control reg 0xf2
+    static int ctl_humSamp1 = 0x01;   // oversample *1
+}
@@ -0,0 +1,241 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280Device.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+
+import com.pi4j.context.Context;
+import com.pi4j.devices.bmp280.BMP280Calibration;
+import com.pi4j.devices.bmp280.BMP280Device;
+import com.pi4j.util.Console;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Implementation of BME280  Temperature/Pressure/Humidity Sensor, the I2C or SPI
+ * transport is provided by the subclass.
+ * <p>
+ * The BME280 is a BMP280 with a humidity sensor, this class adds only the
+ * humidity parts: ctrl_hum, the dig_H1 .. dig_H6 trim values and the two
+ * humidity measurement registers.  A measurement is one forced mode conversion
+ * followed by a single 8 byte read of 0xF7 .. 0xFE, so pressure, temperature
+ * and humidity always belong to the same conversion.
+ */
+public abstract class BME280Device extends BMP280Device implements BME280Interface {
+
+
+    /**
+     * Constant <code>NAME="BME280"</code>
+     */
+    public static final String NAME = "BME280";
+    /**
+     * Constant <code>ID="BME280"</code>
+     */
+    public static final String ID = "BME280";
+
+
+    // dig_H1 .. dig_H6, loaded with the BMP280 calibration
+    protected volatile BME280HumidityCalibration humidityCalibration = null;
+
+    // datasheet start-up time, reset to first communication
+    static final long STARTUP_NANOS = 2000000;
+
+
+    /**
+     * @param pi4j Context instance used across application
+     * @param console
+     * @param traceLevel for Logger
+     */
+    public BME280Device(Context pi4j, Console console, String traceLevel) {
+        super(pi4j, console, traceLevel, 8);
+    }
+
+
+    /**
+     * Temperature, pressure and humidity from a single forced mode conversion.
+     *
+     * @return temperature in C, pressure in Pa and relative humidity in %
+     */
+    @Override
+    public BME280Sample readSample() {
+        return ((BME280Sample) super.readSample());
+    }
+
+    /**
+     * ctrl_hum was set by initSensor, it takes effect with the ctrl_meas write
+     * @return  datasheet maximum time of a forced conversion with oversampling 1
+     */
+    @Override
+    protected long forcedMeasureNanos() {
+        return (measureTimeNanos(1, 1, 1));
+    }
+
+    /**
+     * Datasheet maximum measurement time, section 9.1
+     * @param tempSamples   temperature oversampling count, 0 if skipped
+     * @param pressSamples  pressure oversampling count, 0 if skipped
+     * @param humSamples    humidity oversampling count, 0 if skipped
+     * @return  nanoseconds
+     */
+    static long measureTimeNanos(int tempSamples, int pressSamples, int humSamples) {
+        long nanos = measureTimeNanos(tempSamples, pressSamples);
+        if (humSamples > 0) {
+            nanos += (2300L * humSamples + 575) * 1000;
+        }
+        return (nanos);
+    }
+
+    /**
+     * Apply the cached calibration to the raw measurement registers
+     * @param buff   press_msb .. hum_lsb
+     * @param nanos  System.nanoTime() of the register read
+     * @return temperature in C, pressure in Pa and relative humidity in %
+     */
+    @Override
+    protected BME280Sample compensate(byte[] buff, long nanos) {
+        BMP280Calibration cal = this.getCalibration();
+        BME280HumidityCalibration hcal = this.getHumidityCalibration();
+        int adcP = adcPressure(buff);
+        int adcT = adcTemperature(buff);
+        int adcH = adcHumidity(buff);
+        if (this.isFixedPoint()) {
+            int tFine = cal.tFine(adcT);
+            return (new BME280Sample(BMP280Calibration.temperatureCentiC(tFine) / 100.0,
+                    cal.pressureQ24_8(adcP, tFine) / 256.0, hcal.humidityQ22_10(adcH, tFine) / 1024.0, nanos));
+        }
+        double tFine = cal.tFineDouble(adcT);
+        return (new BME280Sample(tFine / 5120.0, cal.pressureDouble(adcP, (int) tFine),
+                hcal.humidityDouble(adcH, (int) tFine), nanos));
+    }
+
+    /**
+     * Integer compensation of the raw measurement registers
+     * @param buff  press_msb .. hum_lsb
+     * @param out   out[0] temperature in 0.01 C, out[1] pressure in Pa as Q24.8,
+     *              out[2] humidity in % as Q22.10 (divide by 1024 for %)
+     */
+    @Override
+    protected void compensateFixed(byte[] buff, int[] out) {
+        super.compensateFixed(buff, out);
+        int tFine = this.getCalibration().tFine(adcTemperature(buff));
+        out[2] = this.getHumidityCalibration().humidityQ22_10(adcHumidity(buff), tFine);
+    }
+
+    // 16 bit value
+    static int adcHumidity(byte[] buff) {
+        return (((buff[6] & 0xFF) << 8) | (buff[7] & 0xFF));
+    }
+
+    /**
+     * @return factory humidity calibration, read from the chip on first use
+     */
+    public BME280HumidityCalibration getHumidityCalibration() {
+        BME280HumidityCalibration hcal = this.humidityCalibration;
+        if (hcal == null) {
+            synchronized (this) {
+                if (this.humidityCalibration == null) {
+                    this.loadCalibration();
+                }
+                hcal = this.humidityCalibration;
+            }
+        }
+        return (hcal);
+    }
+
+    /**
+     * Read all trim values in two bursts, 0x88 .. 0xA1 holds dig_T1 .. dig_P9
+     * and dig_H1, 0xE1 .. 0xE7 holds dig_H2 .. dig_H6
+     */
+    @Override
+    protected synchronized void loadCalibration() {
+        this.logger.trace("enter: loadCalibration");
+        byte[] buf = new byte[BME280Declares.reg_dig_h1 - BME280Declares.reg_dig_t1 + 1];
+        this.readRegister(BME280Declares.reg_dig_t1, buf);
+        byte[] hbuf = new byte[BME280HumidityCalibration.LENGTH];
+        this.readRegister(BME280Declares.reg_dig_h2, hbuf);
+        // humidity first, getCalibration callers may go on to humidity without the lock
+        this.humidityCalibration = new BME280HumidityCalibration(buf[buf.length - 1], hbuf);
+        this.calibration = new BMP280Calibration(buf);
+        this.logger.trace("exit: loadCalibration  " + this.calibration + "  " + this.humidityCalibration);
+    }
+
+
+    /**
+     * @return Relative humidity in %
+     */
+    public double humidity() {
+        this.logger.trace("enter: humidity");
+        double rval = this.readSample().humidity();
+        this.logger.trace("exit: humidity  " + rval);
+        return rval;
+    }
+
+    /**
+     * Write the reset command to the BME280, wait the start-up time and for the
+     * NVM copy to complete
+     */
+    @Override
+    public void resetSensor() {
+        this.logger.trace("enter: resetSensor");
+        int rc = this.writeRegister(BME280Declares.reset, BME280Declares.reset_cmd);
+        LockSupport.parkNanos(STARTUP_NANOS);
+        this.awaitStatusClear(BME280Declares.stat_update, STARTUP_NANOS * 5);
+        this.logger.trace("exit: resetSensor rc : " + rc);
+    }
+
+    /**
+     * @param id  contents of the chipId register
+     * @return true for 0x60
+     */
+    @Override
+    protected boolean isExpectedChipId(int id) {
+        return (id == BME280Declares.idValueMskBME);
+    }
+
+    /**
+     * Set humidity oversampling 1, it applies from the next ctrl_meas write
+     */
+    @Override
+    protected void configureSensor() {
+        int ctlHum = this.readRegister(BME280Declares.ctrl_hum);
+        ctlHum &= ~BME280Declares.humOverSampleMsk;
+        ctlHum |= BME280Declares.ctl_humSamp1;
+        this.writeRegister(BME280Declares.ctrl_hum, ctlHum);
+    }
+
+
+}
@@ -0,0 +1,121 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280HumidityCalibration.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+
+/**
+ * Factory humidity trim values dig_H1 .. dig_H6 of a BME280.
+ * <p>
+ * dig_H1 is register 0xA1, dig_H2 .. dig_H6 are read in a single 7 byte burst
+ * from register 0xE1.  dig_H4 and dig_H5 are signed 12 bit values sharing
+ * register 0xE5: dig_H4 is 0xE4 bits 11:4 and 0xE5 bits 3:0, dig_H5 is 0xE5
+ * bits 7:4 as bits 3:0 and 0xE6 bits 11:4.
+ * <p>
+ * As with BMP280Calibration the double and the integer datasheet compensation
+ * are provided, both take the t_fine of the temperature compensation.
+ */
+public final class BME280HumidityCalibration {
+
+    /** Bytes read starting at reg_dig_h2 */
+    public static final int LENGTH = 7;
+
+    /**
+     * @param digH1  register 0xA1
+     * @param buf    LENGTH bytes read from register 0xE1
+     */
+    public BME280HumidityCalibration(byte digH1, byte[] buf) {
+        if (buf.length < LENGTH) {
+            throw new IllegalArgumentException("humidity calibration needs " + LENGTH + " bytes, got " + buf.length);
+        }
+        this.digH1 = digH1 & 0xff;
+        this.digH2 = (buf[0] & 0xff) | (buf[1] << 8);
+        this.digH3 = buf[2] & 0xff;
+        this.digH4 = (buf[3] << 4) | (buf[4] & 0x0f);
+        this.digH5 = (buf[5] << 4) | ((buf[4] & 0xff) >> 4);
+        this.digH6 = buf[6];
+    }
+
+    /**
+     * Datasheet bme280_compensate_H_double
+     * @param adcH   16 bit raw humidity
+     * @param tFine  t_fine of the same conversion
+     * @return relative humidity in %, clamped to 0 .. 100
+     */
+    public double humidityDouble(int adcH, int tFine) {
+        double varH = ((double) tFine) - 76800.0;
+        varH = (adcH - (((double) this.digH4) * 64.0 + ((double) this.digH5) / 16384.0 * varH))
+                * (((double) this.digH2) / 65536.0 * (1.0 + ((double) this.digH6) / 67108864.0 * varH
+                * (1.0 + ((double) this.digH3) / 67108864.0 * varH)));
+        varH = varH * (1.0 - ((double) this.digH1) * varH / 524288.0);
+        if (varH > 100.0) {
+            varH = 100.0;
+        } else if (varH < 0.0) {
+            varH = 0.0;
+        }
+        return (varH);
+    }
+
+    /**
+     * Datasheet bme280_compensate_H_int32
+     * @param adcH   16 bit raw humidity
+     * @param tFine  t_fine of the same conversion
+     * @return relative humidity in % as Q22.10, 47445 is 47445/1024 = 46.333 %
+     */
+    public int humidityQ22_10(int adcH, int tFine) {
+        int v = tFine - 76800;
+        v = (((((adcH << 14) - (this.digH4 << 20) - (this.digH5 * v)) + 16384) >> 15)
+                * (((((((v * this.digH6) >> 10) * (((v * this.digH3) >> 11) + 32768)) >> 10) + 2097152)
+                * this.digH2 + 8192) >> 14));
+        v = (v - (((((v >> 15) * (v >> 15)) >> 7) * this.digH1) >> 4));
+        v = (v < 0 ? 0 : v);
+        v = (v > 419430400 ? 419430400 : v);
+        return (v >> 12);
+    }
+
+    @Override
+    public String toString() {
+        return ("H1 " + this.digH1 + " H2 " + this.digH2 + " H3 " + this.digH3 + " H4 " + this.digH4
+                + " H5 " + this.digH5 + " H6 " + this.digH6);
+    }
+
+    public final int digH1;   // unsigned
+    public final int digH2;
+    public final int digH3;   // unsigned
+    public final int digH4;   // 12 bit
+    public final int digH5;   // 12 bit
+    public final int digH6;
+}
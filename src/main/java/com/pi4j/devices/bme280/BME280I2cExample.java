@@ -0,0 +1,179 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280I2cExample.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.util.Console;
+
+import java.text.DecimalFormat;
+
+/**
+ * Example code to read the temperature, humidity and pressure from a BME280 sensor, on an Adafruit board via I2C.
+ *
+ * Based on:
+ *
+ * <ul>
+ *  <li>https://github.com/Pi4J/pi4j-example-devices/blob/master/src/main/java/com/pi4j/devices/bmp280/README.md</li>
+ *  <li>https://www.adafruit.com/product/2652</li>
+ *  <li>https://learn.adafruit.com/adafruit-bme280-humidity-barometric-pressure-temperature-sensor-breakout/pinouts</li>
+ * </ul>
+ *
+ * I2C Wiring
+ *
+ * <ul>
+ *  <li>Vin to 3.3V</li>
+ *  <li>GND to GND</li>
+ *  <li>SCK to I2C clock SCL (pin 5)</li>
+ *  <li>SDI to I2C data SDA (pin 3)</li>
+ *  <li>CS to 3.3v</li>
+ * </ul>
+ *
+ * Make sure I2C is enabled on the Raspberry Pi. Use `sudo raspi-config' > Interface Options > I2C.
+ *
+ * Check that the sensor is detected on address 0x77 with `i2cdetect -y 1`.
+ */
+public class BME280I2cExample {
+    private static final Console console = new Console(); // Pi4J Logger helper
+
+    /**
+     * BME280I2cExample, main entry point
+     * <p>
+     * -b hex bus  -a hex address  -n count  -p pause ms  -s count  -t trace
+     */
+    public static void main(String[] args) throws Exception {
+
+        Context pi4j = Pi4J.newAutoContext();
+        int busNum = BME280Declares.DEFAULT_BUS;
+        int address = BME280Declares.DEFAULT_ADDRESS;
+        int count = 10;
+        int pauseMs = 1000;
+        int normalCount = 0;
+        String traceLevel = "info";
+        String helpString = " parms:  -b hex value bus  -a hex value address  -n count  -p pause ms  -s count  -t trace  -h help \n " +
+                " \n -s count  read count samples in normal mode, about 21 Hz" +
+                " \n trace values : \"trace\", \"debug\", \"info\", \"warn\", \"error\" or \"off\"  Default \"info\"";
+        for (int i = 0; i < args.length; i++) {
+            String o = args[i];
+            if (o.contentEquals("-b")) { // bus
+                String a = args[i + 1];
+                busNum = Integer.parseInt(a.substring(2), 16);
+                i++;
+            } else if (o.contentEquals("-a")) { // device address
+                String a = args[i + 1];
+                i++;
+                address = Integer.parseInt(a.substring(2), 16);
+            } else if (o.contentEquals("-n")) { // reading count
+                String a = args[i + 1];
+                i++;
+                count = Integer.parseInt(a);
+            } else if (o.contentEquals("-p")) { // pause between readings
+                String a = args[i + 1];
+                i++;
+                pauseMs = Integer.parseInt(a);
+            } else if (o.contentEquals("-s")) { // normal mode samples
+                String a = args[i + 1];
+                i++;
+                normalCount = Integer.parseInt(a);
+            } else if (o.contentEquals("-t")) { // trace level
+                String a = args[i + 1];
+                i++;
+                traceLevel = a;
+                if (a.contentEquals("trace") | a.contentEquals("debug") | a.contentEquals("info") | a.contentEquals("warn") | a.contentEquals("error") | a.contentEquals("off")) {
+                    console.println("Changing trace level to : " + traceLevel);
+                } else {
+                    console.println("Changing trace level invalid  : " + traceLevel);
+                    System.exit(40);
+                }
+            } else if (o.contentEquals("-h")) {
+                console.println(helpString);
+                System.exit(39);
+            } else {
+                console.println("  !!! Invalid Parm " + args);
+                console.println(helpString);
+                System.exit(42);
+            }
+        }
+
+        console.println("Initializing the sensor via I2C");
+        var bmeDev = new BME280DeviceI2C(pi4j, console, busNum, address, traceLevel);
+        bmeDev.initSensor();
+        console.println("  Setup ----------------------------------------------------------");
+
+        DecimalFormat df = new DecimalFormat("0.###");
+        for (int counter = 0; counter < count; counter++) {
+            if (counter > 0) {
+                Thread.sleep(pauseMs);
+            }
+            // temperature, pressure and humidity of one conversion
+            BME280Sample sample = bmeDev.readSample();
+            console.println("**************************************");
+            console.println("Reading values, loop " + (counter + 1));
+            console.println("Temperature: " + df.format(sample.temperatureC()) + " °C");
+            console.println("Temperature: " + df.format(sample.temperatureF()) + " °F ");
+            console.println("Pressure: " + df.format(sample.pressurePa()) + " Pa");
+            // 1 Pa = 0.00001 bar or 1 bar = 100,000 Pa
+            console.println("Pressure: " + df.format(sample.pressurePa() / 100_000) + " bar");
+            // 1 Pa = 0.0000098692316931 atmosphere (standard) and 1 atm = 101.325 kPa
+            console.println("Pressure: " + df.format(sample.pressurePa() / 101_325) + " atm");
+            console.println("Humidity: " + df.format(sample.humidity()) + " %");
+        }
+
+        if (normalCount > 0) {
+            BME280Sampler sampler = new BME280Sampler(bmeDev);
+            sampler.start();
+            long seen = 0;
+            while (seen < normalCount) {
+                Thread.sleep(sampler.getPeriodNanos() / 1000000);
+                BME280Sample latest = sampler.latest();
+                if (latest != null && sampler.getSamples() != seen) {
+                    seen = sampler.getSamples();
+                    console.println("Normal mode " + seen + " : " + df.format(latest.temperatureC()) + " °C  "
+                            + df.format(latest.pressurePa()) + " Pa  " + df.format(latest.humidity()) + " %");
+                }
+            }
+            sampler.stop();
+        }
+
+        pi4j.shutdown();
+
+        console.println("**************************************");
+        console.println("Finished");
+    }
+}
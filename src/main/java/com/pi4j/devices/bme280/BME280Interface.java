@@ -0,0 +1,58 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280Interface.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+import com.pi4j.devices.bmp280.BMP280Interface;
+
+/**
+ * BME280 operations, independent of the I2C or SPI transport.  The temperature,
+ * pressure and register methods are those of the BMP280.
+ */
+public interface BME280Interface extends BMP280Interface {
+
+    /**
+     * @return relative humidity in %
+     */
+    double humidity();
+
+    /**
+     * @return temperature, pressure and humidity from a single conversion
+     */
+    @Override
+    BME280Sample readSample();
+
+}
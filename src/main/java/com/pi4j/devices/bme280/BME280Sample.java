@@ -0,0 +1,71 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280Sample.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+import com.pi4j.devices.bmp280.BMP280Sample;
+
+/**
+ * Temperature, pressure and humidity of one BME280 conversion.  All three
+ * values come from the same 8 byte read of the measurement registers.
+ */
+public final class BME280Sample extends BMP280Sample {
+
+    /**
+     * @param temperatureC  temperature centigrade
+     * @param pressurePa    pressure in Pa units
+     * @param humidity      relative humidity in %
+     * @param nanos         System.nanoTime() when the measurement was read
+     */
+    public BME280Sample(double temperatureC, double pressurePa, double humidity, long nanos) {
+        super(temperatureC, pressurePa, nanos);
+        this.humidity = humidity;
+    }
+
+    /**
+     * @return Relative humidity in %
+     */
+    public double humidity() {
+        return (this.humidity);
+    }
+
+    @Override
+    public String toString() {
+        return (super.toString() + "  H " + this.humidity + " %");
+    }
+
+    private final double humidity;
+}
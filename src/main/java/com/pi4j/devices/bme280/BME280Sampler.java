@@ -0,0 +1,114 @@
+package com.pi4j.devices.bme280;
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  BME280Sampler.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+
+import com.pi4j.devices.bmp280.BMP280Sampler;
+
+/**
+ * Continuous normal mode sampling of a BME280.
+ * <p>
+ * BMP280Sampler with humidity added: humidity oversampling is written to
+ * ctrl_hum while the chip sleeps, it takes effect with the following ctrl_meas
+ * write, and each sample is read from the eight measurement registers.
+ * latest() returns the most recent sample without locking or bus access.
+ * <p>
+ * Do not call the forced mode methods of the device (readSample, humidity ...)
+ * while the sampler runs.
+ */
+public final class BME280Sampler extends BMP280Sampler {
+
+    /**
+     * t_sb register codes, the last two differ from the BMP280
+     */
+    public enum Standby {
+        MS_0_5(500), MS_62_5(62500), MS_125(125000), MS_250(250000), MS_500(500000), MS_1000(1000000),
+        MS_10(10000), MS_20(20000);
+
+        Standby(long micros) {
+            this.micros = micros;
+        }
+
+        final long micros;
+    }
+
+    /**
+     * @param device   initialized device
+     * @param osrsT    temperature oversampling, not SKIP
+     * @param osrsP    pressure oversampling
+     * @param osrsH    humidity oversampling
+     * @param standby  inactive time between conversions
+     * @param filter   IIR filter coefficient, temperature and pressure only
+     */
+    public BME280Sampler(BME280Device device, Oversampling osrsT, Oversampling osrsP, Oversampling osrsH,
+                         Standby standby, Filter filter) {
+        super(device, osrsT, osrsP, standby.ordinal(), standby.micros, filter,
+                BME280Device.measureTimeNanos(osrsT.getSamples(), osrsP.getSamples(), osrsH.getSamples()),
+                "bme280-sampler");
+        this.bme = device;
+        this.ctrlHum = osrsH.ordinal();
+    }
+
+    /**
+     * About 21 Hz : temperature x2, pressure x16, humidity x1, 0.5 ms standby,
+     * IIR filter 16, the datasheet's indoor navigation setting.
+     * @param device  initialized device
+     */
+    public BME280Sampler(BME280Device device) {
+        this(device, Oversampling.X2, Oversampling.X16, Oversampling.X1, Standby.MS_0_5, Filter.X16);
+    }
+
+    /**
+     * Write the humidity oversampling, applied by the ctrl_meas write that starts normal mode
+     */
+    @Override
+    protected void configureSleeping() {
+        int hum = this.bme.readRegister(BME280Declares.ctrl_hum);
+        hum = (hum & ~BME280Declares.humOverSampleMsk) | this.ctrlHum;
+        this.bme.writeRegister(BME280Declares.ctrl_hum, hum);
+    }
+
+    /**
+     * @return most recent sample, null before the first conversion completes
+     */
+    @Override
+    public BME280Sample latest() {
+        return ((BME280Sample) super.latest());
+    }
+
+    private final BME280Device bme;
+    private final int ctrlHum;
+}
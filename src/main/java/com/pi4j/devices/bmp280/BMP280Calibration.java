@@ -0,0 +1,214 @@
+package com.pi4j.devices.bmp280;
+
+/*
+ *
+ *
+ *  #%L
+ *  **********************************************************************
+ *  ORGANIZATION  :  Pi4J
+ *  PROJECT       :  Pi4J ::  Providers
+ *  FILENAME      :  BMP280Calibration.java
+ *
+ *  This file is part of the Pi4J project. More information about
+ *  this project can be found here:  https://pi4j.com/
+ *  **********************************************************************
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Lesser Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Lesser Public
+ *  License along with this program.  If not, see
+ *  <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *  #L%
+ *
+ */
+
+
+
+/**
+ * Factory trim values dig_T1 .. dig_P9 of a BMP280/BME280.
+ * <p>
+ * The values never change for a part, they are read once in a single 24 byte
+ * burst from register 0x88 and kept for the life of the device object.
+ * <p>
+ * Both compensation variants from datasheet section 8.2 are provided. The
+ * double methods match the floating point reference code, the integer methods
+ * are the 32 bit temperature, 64 bit pressure and 32 bit pressure routines and
+ * return fixed point primitives without allocating. Each variant first derives
+ * t_fine from the raw temperature, the pressure routines take that t_fine.
+ */
+public final class BMP280Calibration {
+
+    /** Bytes read starting at reg_dig_t1 */
+    public static final int LENGTH = 24;
+
+    private static final long U32 = 0xFFFFFFFFL;
+
+    /**
+     * @param buf  LENGTH bytes read from register 0x88, little endian pairs
+     */
+    public BMP280Calibration(byte[] buf) {
+        if (buf.length < LENGTH) {
+            throw new IllegalArgumentException("calibration needs " + LENGTH + " bytes, got " + buf.length);
+        }
+        this.digT1 = unsigned16(buf, 0);
+        this.digT2 = signed16(buf, 2);
+        this.digT3 = signed16(buf, 4);
+        this.digP1 = unsigned16(buf, 6);
+        this.digP2 = signed16(buf, 8);
+        this.digP3 = signed16(buf, 10);
+        this.digP4 = signed16(buf, 12);
+        this.digP5 = signed16(buf, 14);
+        this.digP6 = signed16(buf, 16);
+        this.digP7 = signed16(buf, 18);
+        this.digP8 = signed16(buf, 20);
+        this.digP9 = signed16(buf, 22);
+    }
+
+    /**
+     * Datasheet bmp280_compensate_T_double without the final scaling
+     * @param adcT  20 bit raw temperature
+     * @return t_fine, C = t_fine / 5120.0
+     */
+    public double tFineDouble(int adcT) {
+        double var1 = (((double) adcT) / 16384.0 - ((double) this.digT1) / 1024.0) * ((double) this.digT2);
+        double var2 = ((((double) adcT) / 131072.0 - ((double) this.digT1) / 8192.0) *
+                (((double) adcT) / 131072.0 - ((double) this.digT1) / 8192.0)) * ((double) this.digT3);
+        return (var1 + var2);
+    }
+
+    /**
+     * Datasheet bmp280_compensate_P_double
+     * @param adcP   20 bit raw pressure
+     * @param tFine  t_fine truncated to an int, see tFineDouble
+     * @return pressure in Pa, 0 if the calibration would divide by zero
+     */
+    public double pressureDouble(int adcP, int tFine) {
+        double var1, var2, P;
+        var1 = ((double) tFine / 2.0) - 64000.0;
+        var2 = var1 * var1 * ((double) this.digP6) / 32768.0;
+        var2 = var2 + var1 * ((double) this.digP5) * 2.0;
+        var2 = (var2 / 4.0) + (((double) this.digP4) * 65536.0);
+        var1 = (((double) this.digP3) * var1 * var1 / 524288.0 + ((double) this.digP2) * var1) / 524288.0;
+        var1 = (1.0 + var1 / 32768.0) * ((double) this.digP1);
+        if (var1 == 0.0) {
+            return (0);   // avoid exception caused by division by zero
+        }
+        P = 1048576.0 - (double) adcP;
+        P = (P - (var2 / 4096.0)) * 6250.0 / var1;
+        var1 = ((double) this.digP9) * P * P / 2147483648.0;
+        var2 = P * ((double) this.digP8) / 32768.0;
+        return (P + (var1 + var2 + ((double) this.digP7)) / 16.0);
+    }
+
+    /**
+     * Datasheet bmp280_compensate_T_int32, t_fine part
+     * @param adcT  20 bit raw temperature
+     * @return t_fine
+     */
+    public int tFine(int adcT) {
+        int var1 = (((adcT >> 3) - (this.digT1 << 1)) * this.digT2) >> 11;
+        int var2 = (((((adcT >> 4) - this.digT1) * ((adcT >> 4) - this.digT1)) >> 12) * this.digT3) >> 14;
+        return (var1 + var2);
+    }
+
+    /**
+     * Datasheet bmp280_compensate_T_int32, scaling part
+     * @param tFine  from tFine(int)
+     * @return temperature in 0.01 C, 5123 is 51.23 C
+     */
+    public static int temperatureCentiC(int tFine) {
+        return ((tFine * 5 + 128) >> 8);
+    }
+
+    /**
+     * Datasheet bmp280_compensate_P_int64
+     * @param adcP   20 bit raw pressure
+     * @param tFine  from tFine(int)
+     * @return pressure in Pa as Q24.8, 24674867 is 24674867/256 = 96386.2 Pa,
+     *         0 if the calibration would divide by zero
+     */
+    public int pressureQ24_8(int adcP, int tFine) {
+        long var1, var2, p;
+        var1 = ((long) tFine) - 128000;
+        var2 = var1 * var1 * this.digP6;
+        var2 = var2 + ((var1 * this.digP5) << 17);
+        var2 = var2 + (((long) this.digP4) << 35);
+        var1 = ((var1 * var1 * this.digP3) >> 8) + ((var1 * this.digP2) << 12);
+        var1 = (((1L << 47) + var1) * this.digP1) >> 33;
+        if (var1 == 0) {
+            return (0);   // avoid exception caused by division by zero
+        }
+        p = 1048576 - adcP;
+        p = (((p << 31) - var2) * 3125) / var1;
+        var1 = (this.digP9 * (p >> 13) * (p >> 13)) >> 25;
+        var2 = (this.digP8 * p) >> 19;
+        p = ((p + var1 + var2) >> 8) + (((long) this.digP7) << 4);
+        return ((int) p);
+    }
+
+    /**
+     * Datasheet bmp280_compensate_P_int32, the unsigned 32 bit arithmetic is
+     * carried in a long masked to 32 bits
+     * @param adcP   20 bit raw pressure
+     * @param tFine  from tFine(int)
+     * @return pressure in Pa, 0 if the calibration would divide by zero
+     */
+    public int pressurePa32(int adcP, int tFine) {
+        int var1, var2;
+        long p;
+        var1 = (tFine >> 1) - 64000;
+        var2 = (((var1 >> 2) * (var1 >> 2)) >> 11) * this.digP6;
+        var2 = var2 + ((var1 * this.digP5) << 1);
+        var2 = (var2 >> 2) + (this.digP4 << 16);
+        var1 = (((this.digP3 * (((var1 >> 2) * (var1 >> 2)) >> 13)) >> 3) + ((this.digP2 * var1) >> 1)) >> 18;
+        var1 = ((32768 + var1) * this.digP1) >> 15;
+        if (var1 == 0) {
+            return (0);   // avoid exception caused by division by zero
+        }
+        p = ((1048576 - adcP - (var2 >> 12)) * 3125) & U32;
+        if (p < 0x80000000L) {
+            p = (p << 1) / (var1 & U32);
+        } else {
+            p = (p / (var1 & U32)) * 2;
+        }
+        var1 = (this.digP9 * ((int) ((((p >> 3) * (p >> 3)) & U32) >> 13))) >> 12;
+        var2 = (((int) (p >> 2)) * this.digP8) >> 13;
+        return ((int) p + ((var1 + var2 + this.digP7) >> 4));
+    }
+
+    static int unsigned16(byte[] buf, int offset) {
+        return ((buf[offset] & 0xff) | ((buf[offset + 1] & 0xff) << 8));
+    }
+
+    static int signed16(byte[] buf, int offset) {
+        return ((buf[offset] & 0xff) | (buf[offset + 1] << 8));
+    }
+
+    @Override
+    public String toString() {
+        return ("T1 " + this.digT1 + " T2 " + this.digT2 + " T3 " + this.digT3 + " P1 " + this.digP1
+                + " P2 " + this.digP2 + " P3 " + this.digP3 + " P4 " + this.digP4 + " P5 " + this.digP5
+                + " P6 " + this.digP6 + " P7 " + this.digP7 + " P8 " + this.digP8 + " P9 " + this.digP9);
+    }
+
+    public final int digT1;   // unsigned
+    public final int digT2;
+    public final int digT3;
+    public final int digP1;   // unsigned
+    public final int digP2;
+    public final int digP3;
+    public final int digP4;
+    public final int digP5;
+    public final int digP6;
+    public final int digP7;
+    public final int digP8;
+    public final int digP9;
+}
@@ -0,0 +1,184 @@
+package com.pi4j.devices.bmp280;
+
+/*
+ *
+ *
+ *  #%L
+ *  **********************************************************************
+ *  ORGANIZATION  :  Pi4J
+ *  PROJECT       :  Pi4J ::  Providers
+ *  FILENAME      :  BMP280CompensationBench.java
+ *
+ *  This file is part of the Pi4J project. More information about
+ *  this project can be found here:  https://pi4j.com/
+ *  **********************************************************************
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Lesser Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Lesser Public
+ *  License along with this program.  If not, see
+ *  <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *  #L%
+ *
+ */
+
+
+import com.pi4j.util.Console;
+
+/**
+ * BMP280CompensationBench
+ * <p>
+ * Compares the double and the integer datasheet compensation, no hardware is
+ * required.  The calibration is the datasheet example trim set, the raw values
+ * sweep +-65536 counts around the datasheet example reading.
+ * </p>
+ * <p>
+ * Before timing, the integer routines are checked bit exact against reference
+ * results of the datasheet C code and the double routines against its double
+ * code to 0.001.  Over the sweep the integer results must stay within 0.01 C
+ * of the double temperature, and within 0.1 Pa (64 bit) or 8 Pa (32 bit) of
+ * the double pressure.
+ * </p>
+ */
+public class BMP280CompensationBench {
+
+    static long sink = 0;
+
+    // datasheet section 8.2 example, trim dig_T1 .. dig_P9
+    static final int[] TRIM = {27504, 26435, -1000, 36477, -10685, 3024, 2855, 140, -7, 15500, -14600, 6000};
+    static final int ADC_T = 519888;
+    static final int ADC_P = 415148;
+
+    // reference results for ADC_T, ADC_P from the datasheet C routines.  The
+    // datasheet table lists 25767236 and 100653 for the two integer pressure
+    // routines, its own code yields the values below for these inputs.
+    static final int REF_T_FINE = 128422;
+    static final int REF_T_CENTI = 2508;
+    static final int REF_P_Q24_8 = 25767233;
+    static final int REF_P_32 = 100656;
+    static final double REF_T_DOUBLE = 25.082478;
+    static final double REF_P_DOUBLE = 100653.258;
+
+    static BMP280Calibration datasheetCalibration() {
+        byte[] buf = new byte[BMP280Calibration.LENGTH];
+        for (int i = 0; i < TRIM.length; i++) {
+            buf[i * 2] = (byte) TRIM[i];
+            buf[i * 2 + 1] = (byte) (TRIM[i] >> 8);
+        }
+        return (new BMP280Calibration(buf));
+    }
+
+    static int[] rawValues(int count, int center) {
+        int[] rval = new int[count];
+        for (int i = 0; i < count; i++) {
+            rval[i] = center - 65536 + (int) ((131072L * i) / count);
+        }
+        return (rval);
+    }
+
+    static String verify(BMP280Calibration cal, int[] adcT, int[] adcP) {
+        int tFine = cal.tFine(ADC_T);
+        if (tFine != REF_T_FINE || BMP280Calibration.temperatureCentiC(tFine) != REF_T_CENTI
+                || cal.pressureQ24_8(ADC_P, tFine) != REF_P_Q24_8 || cal.pressurePa32(ADC_P, tFine) != REF_P_32) {
+            return ("integer result differs from datasheet reference, t_fine " + tFine
+                    + " T " + BMP280Calibration.temperatureCentiC(tFine)
+                    + " P64 " + cal.pressureQ24_8(ADC_P, tFine) + " P32 " + cal.pressurePa32(ADC_P, tFine));
+        }
+        double dFine = cal.tFineDouble(ADC_T);
+        if (Math.abs(dFine / 5120.0 - REF_T_DOUBLE) > 0.001
+                || Math.abs(cal.pressureDouble(ADC_P, (int) dFine) - REF_P_DOUBLE) > 0.001) {
+            return ("double result differs from datasheet reference, T " + dFine / 5120.0
+                    + " P " + cal.pressureDouble(ADC_P, (int) dFine));
+        }
+        for (int i = 0; i < adcT.length; i++) {
+            dFine = cal.tFineDouble(adcT[i]);
+            tFine = cal.tFine(adcT[i]);
+            double dT = dFine / 5120.0;
+            double dP = cal.pressureDouble(adcP[i], (int) dFine);
+            if (Math.abs(BMP280Calibration.temperatureCentiC(tFine) / 100.0 - dT) > 0.01
+                    || Math.abs(cal.pressureQ24_8(adcP[i], tFine) / 256.0 - dP) > 0.1
+                    || Math.abs(cal.pressurePa32(adcP[i], tFine) - dP) > 8.0) {
+                return ("integer and double disagree at adc_T " + adcT[i] + " adc_P " + adcP[i]);
+            }
+        }
+        return (null);
+    }
+
+    static double runDouble(BMP280Calibration cal, int[] adcT, int[] adcP, int iterations) {
+        double acc = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            int j = i % adcT.length;
+            double tFine = cal.tFineDouble(adcT[j]);
+            acc += tFine / 5120.0 + cal.pressureDouble(adcP[j], (int) tFine);
+        }
+        double rval = (System.nanoTime() - start) / (double) iterations;
+        sink += (long) acc;
+        return (rval);
+    }
+
+    static double runFixed(BMP280Calibration cal, int[] adcT, int[] adcP, int iterations) {
+        long acc = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            int j = i % adcT.length;
+            int tFine = cal.tFine(adcT[j]);
+            acc += BMP280Calibration.temperatureCentiC(tFine) + cal.pressureQ24_8(adcP[j], tFine);
+        }
+        double rval = (System.nanoTime() - start) / (double) iterations;
+        sink += acc;
+        return (rval);
+    }
+
+    /**
+     * BMP280CompensationBench, main entry point
+     * <p>
+     * -n iterations  -v sweep vectors
+     * <p>
+     * PostCond:  reference check result and ns per compensated sample printed for each path
+     */
+    public static void main(String[] args) {
+        var console = new Console();
+        int iterations = 1000000;
+        int vectors = 4096;
+        for (int i = 0; i < args.length; i++) {
+            String o = args[i];
+            if (o.contentEquals("-n")) {
+                iterations = Integer.parseInt(args[i + 1]);
+                i++;
+            } else if (o.contentEquals("-v")) {
+                vectors = Integer.parseInt(args[i + 1]);
+                i++;
+            }
+        }
+        BMP280Calibration cal = datasheetCalibration();
+        int[] adcT = rawValues(vectors, ADC_T);
+        int[] adcP = rawValues(vectors, ADC_P);
+
+        String failure = verify(cal, adcT, adcP);
+        if (failure != null) {
+            console.println("verify : FAILED " + failure);
+            System.exit(1);
+        }
+        console.println("verify : datasheet reference vectors match, " + vectors + " sweep vectors agree");
+
+        // warm up both paths before measuring
+        for (int w = 0; w < 5; w++) {
+            runDouble(cal, adcT, adcP, iterations);
+            runFixed(cal, adcT, adcP, iterations);
+        }
+        double doubleNs = runDouble(cal, adcT, adcP, iterations);
+        double fixedNs = runFixed(cal, adcT, adcP, iterations);
+        console.println(String.format("double : %10.1f ns per sample", doubleNs));
+        console.println(String.format("fixed  : %10.1f ns per sample", fixedNs));
+        console.println("sink " + sink);
+    }
+}
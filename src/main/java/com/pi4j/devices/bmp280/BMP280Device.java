@@ -38,6 +38,8 @@ import com.pi4j.util.Console;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.locks.LockSupport;
+
 
 
 
@@ -48,8 +50,12 @@ import org.slf4j.LoggerFactory;
  */
 
 /**
- * Implementation of BMP280  Temperature/Pressure Sensor, using I2C communication.
- * Note:  For I2C operation CSB pin must be connected to 3.3 V.
+ * Implementation of BMP280  Temperature/Pressure Sensor, the I2C or SPI transport
+ * is provided by the subclass.
+ * <p>
+ * BME280Device extends this class, the protected hooks (measurement length and
+ * time, compensate, loadCalibration, chip ID and sensor configuration) are where
+ * it adds humidity.
  */
 public abstract class BMP280Device implements BMP280Interface {
 
@@ -66,20 +72,6 @@ public abstract class BMP280Device implements BMP280Interface {
 
   
 
-    private static final int t1 = 0;
-    private static final int t2 = 1;
-    private static final int t3 = 2;
-    private static final int p1 = 3;
-    private static final int p2 = 4;
-    private static final int p3 = 5;
-    private static final int p4 = 6;
-    private static final int p5 = 7;
-    private static final int p6 = 8;
-    private static final int p7 = 9;
-    private static final int p8 = 10;
-    private static final int p9 = 11;
-
-
     protected Logger logger;
     protected String traceLevel;
 
@@ -89,6 +81,19 @@ public abstract class BMP280Device implements BMP280Interface {
 
     protected Console console = null;
 
+    // dig_T1 .. dig_P9, loaded once, read without locking by the sampler thread
+    protected volatile BMP280Calibration calibration = null;
+
+    // press_msb .. temp_xlsb (.. hum_lsb on the BME280), shared by readSample and
+    // readFixed under the instance lock
+    private final byte[] measureBuf;
+
+    // integer datasheet compensation instead of double, see setFixedPoint
+    private volatile boolean fixedPoint = false;
+
+    // interval between status register reads while a conversion runs
+    static final long STATUS_POLL_NANOS = 250000;
+
   
 
     /**
@@ -97,56 +102,27 @@ public abstract class BMP280Device implements BMP280Interface {
      * @param traceLevel for Logger
      */
     public BMP280Device(Context pi4j, Console console, String traceLevel) {
+        this(pi4j, console, traceLevel, 6);
+    }
+
+    /**
+     * @param pi4j Context instance used across application
+     * @param console
+     * @param traceLevel for Logger
+     * @param measureLength  bytes read from press_msb for one measurement
+     */
+    protected BMP280Device(Context pi4j, Console console, String traceLevel, int measureLength) {
         super();
         this.pi4j = pi4j;
         this.console = console;
         this.traceLevel = traceLevel;
-    
+        this.measureBuf = new byte[measureLength];
     }
 
 
  
   
 
-    /**
-     * @param read 8 bits data
-     * @return unsigned value
-     */
-    private int castOffSignByte(byte read) {
-
-        this.logger.trace("Enter: castOffSignByte byte " + read);
-        this.logger.trace("Exit: castOffSignByte  " + ((int) read & 0Xff));
-        return ((int) read & 0Xff);
-    }
-
-    /**
-     * @param read 16 bits of data  stored in 8 bit array
-     * @return 16 bit signed
-     */
-    private int signedInt(byte[] read) {
-        this.logger.trace("Enter: signedInt byte[] " + read.toString());
-        int temp = 0;
-        temp = (read[0] & 0xff);
-        temp += (((long) read[1]) << 8);
-        this.logger.trace("Exit: signedInt  " + temp);
-        return (temp);
-    }
-
-    /**
-     * @param read 16 bits of data  stored in 8 bit array
-     * @return 64 bit unsigned value
-     */
-    private long castOffSignInt(byte[] read) {
-        this.logger.trace("Enter: castOffSignInt byte[] " + read.toString());
-        long temp = 0;
-        temp = ((long) read[0] & 0xff);
-        temp += (((long) read[1] & 0xff)) << 8;
-        this.logger.trace("Exit: castOffSignInt  " + temp);
-        return (temp);
-    }
-
-
-
     /**
      * Reset BMP280 chip to remove any previous applications configuration details.
      * <p>
@@ -162,125 +138,202 @@ public abstract class BMP280Device implements BMP280Interface {
      */
     public double[] readBMP280() {
         this.logger.trace("enter: readBMP280");
+        BMP280Sample sample = this.readSample();
+        double[] rval = new double[]{sample.temperatureC(), sample.pressurePa()};
+        this.logger.trace("exit: readBMP280  T " + rval[0] + "  P " + rval[1]);
+        return rval;
+    }
 
-        double[] rval = new double[2];
-        // set forced mode to leave sleep mode state and initiate measurements.
-        // At measurement completion chip returns to sleep mode
-        int ctlReg = this.readRegister(BMP280Declares.ctrl_meas);
-        ctlReg |= BMP280Declares.ctl_forced;
-        ctlReg &= ~BMP280Declares.tempOverSampleMsk;   // mask off all temperauire bits
-        ctlReg |= BMP280Declares.ctl_tempSamp1;      // Temperature oversample 1
-        ctlReg &= ~BMP280Declares.presOverSampleMsk;   // mask off all pressure bits
-        ctlReg |= BMP280Declares.ctl_pressSamp1;   //  Pressure oversample 1
-        byte[] ctlVal = new byte[1];
-        ctlVal[0] = (byte) ctlReg;
-
-
-        this.writeRegister(BMP280Declares.ctrl_meas,ctlVal[0]);
-
-      //  this.writeRegister(BMP280Declares.ctrl_meas, ctlReg);
-
-
-        // Next delay for 100 ms to provide chip time to perform measurements
-        try {
-            Thread.sleep(100);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    /**
+     * Temperature and pressure from a single forced mode conversion.  The cached
+     * calibration is used, the bus traffic is one control register update, status
+     * reads until the conversion completes and one 6 byte read of the measurement
+     * registers.
+     *
+     * @return temperature in C and pressure in Pa
+     */
+    public synchronized BMP280Sample readSample() {
+        this.logger.trace("enter: readSample");
+        byte[] buff = this.forcedMeasure();
+        BMP280Sample rval = this.compensate(buff, System.nanoTime());
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("exit: readSample  " + rval);
         }
+        return rval;
+    }
 
-        // read the temp factory errata
-
-        byte[] compVal = new byte[2];
-
-
-       this.readRegister(BMP280Declares.reg_dig_t1, compVal);
-
-       long dig_t1 = castOffSignInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_t2, compVal);
-        int dig_t2 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_t3, compVal);
-        int dig_t3 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p1, compVal);
-        long dig_p1 = castOffSignInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p2, compVal);
-        int dig_p2 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p3, compVal);
-        int dig_p3 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p4, compVal);
-        int dig_p4 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p5, compVal);
-        int dig_p5 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p6, compVal);
-        int dig_p6 = signedInt(compVal);
-
-        this.readRegister(BMP280Declares.reg_dig_p7, compVal);
-        int dig_p7 = signedInt(compVal);
+    /**
+     * Forced mode conversion compensated with the datasheet integer routines,
+     * no objects are allocated.
+     * @param out  out[0] temperature in 0.01 C, out[1] pressure in Pa as Q24.8
+     *             (divide by 256 for Pa)
+     */
+    public synchronized void readFixed(int[] out) {
+        this.logger.trace("enter: readFixed");
+        this.compensateFixed(this.forcedMeasure(), out);
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("exit: readFixed  " + out[0] + "  " + out[1]);
+        }
+    }
 
-        this.readRegister(BMP280Declares.reg_dig_p8, compVal);
-        int dig_p8 = signedInt(compVal);
+    /**
+     * Select the compensation used by readSample and BMP280Sampler
+     * @param fixedPoint  true for the datasheet 32/64 bit integer routines,
+     *                    false (the default) for the double routines
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
 
-        this.readRegister(BMP280Declares.reg_dig_p9, compVal);
-        int dig_p9 = signedInt(compVal);
+    /**
+     * @return true if the integer compensation is selected
+     */
+    public boolean isFixedPoint() {
+        return (this.fixedPoint);
+    }
 
+    /**
+     * Run one forced mode conversion with oversampling 1 and read the result.
+     * ctrl_meas holds only osrs_t, osrs_p and mode, so it is written without
+     * reading it first.
+     * @return measureBuf holding press_msb .. temp_xlsb
+     */
+    private byte[] forcedMeasure() {
+        // set forced mode to leave sleep mode state and initiate measurements.
+        // At measurement completion chip returns to sleep mode
+        int ctlReg = BMP280Declares.ctl_forced | BMP280Declares.ctl_tempSamp1 | BMP280Declares.ctl_pressSamp1;
+        this.writeRegister(BMP280Declares.ctrl_meas, ctlReg);
 
-        byte[] buff = new byte[6];
+        // wait the datasheet maximum conversion time, then for the measuring bit to clear
+        long maxNanos = this.forcedMeasureNanos();
+        LockSupport.parkNanos(maxNanos);
+        this.awaitConversion(maxNanos);
 
+        byte[] buff = this.measureBuf;
         this.readRegister(BMP280Declares.press_msb, buff);
+        return (buff);
+    }
 
+    /**
+     * @return  bytes read from press_msb for one measurement
+     */
+    protected int measureLength() {
+        return (this.measureBuf.length);
+    }
 
-        int p_msb = castOffSignByte(buff[0]);
-        int p_lsb = castOffSignByte(buff[1]);
-        int p_xlsb = castOffSignByte(buff[2]);
+    /**
+     * @return  datasheet maximum time of the forced mode conversion readSample runs
+     */
+    protected long forcedMeasureNanos() {
+        return (measureTimeNanos(1, 1));
+    }
 
-        int t_msb = castOffSignByte(buff[3]);
-        int t_lsb = castOffSignByte(buff[4]);
-        int t_xlsb = castOffSignByte(buff[5]);
+    /**
+     * Datasheet maximum measurement time, section 9.1
+     * @param tempSamples   temperature oversampling count, 0 if skipped
+     * @param pressSamples  pressure oversampling count, 0 if skipped
+     * @return  nanoseconds
+     */
+    protected static long measureTimeNanos(int tempSamples, int pressSamples) {
+        long micros = 1250 + 2300L * tempSamples;
+        if (pressSamples > 0) {
+            micros += 2300L * pressSamples + 575;
+        }
+        return (micros * 1000);
+    }
 
+    /**
+     * Poll the status measuring bit until it clears
+     * @param timeoutNanos  give up after this long
+     * @return  true if no conversion running
+     */
+    protected boolean awaitConversion(long timeoutNanos) {
+        return (this.awaitStatusClear(BMP280Declares.stat_measure, timeoutNanos));
+    }
 
-        long adc_T = (long) ((buff[3] & 0xFF) << 12) + (long) ((buff[4] & 0xFF) << 4) + (long) (buff[5] & 0xFF);
+    /**
+     * Poll the status register until the bits clear
+     * @param mask          stat_measure or stat_update
+     * @param timeoutNanos  give up after this long
+     * @return false if the bits were still set at the timeout
+     */
+    protected boolean awaitStatusClear(int mask, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while ((this.readRegister(BMP280Declares.status) & mask) != 0) {
+            if (System.nanoTime() - deadline > 0) {
+                this.logger.trace("awaitStatusClear  status bits still set " + String.format("0X%02x", mask));
+                return (false);
+            }
+            LockSupport.parkNanos(STATUS_POLL_NANOS);
+        }
+        return (true);
+    }
 
-        long adc_P = (long) ((buff[0] & 0xFF) << 12) + (long) ((buff[1] & 0xFF) << 4) + (long) (buff[2] & 0xFF);
+    /**
+     * Apply the cached calibration to the raw measurement registers
+     * @param buff   press_msb .. temp_xlsb
+     * @param nanos  System.nanoTime() of the register read
+     * @return temperature in C and pressure in Pa
+     */
+    protected BMP280Sample compensate(byte[] buff, long nanos) {
+        BMP280Calibration cal = this.getCalibration();
+        int adcP = adcPressure(buff);
+        int adcT = adcTemperature(buff);
+        if (this.fixedPoint) {
+            int tFine = cal.tFine(adcT);
+            return (new BMP280Sample(BMP280Calibration.temperatureCentiC(tFine) / 100.0,
+                    cal.pressureQ24_8(adcP, tFine) / 256.0, nanos));
+        }
+        double tFine = cal.tFineDouble(adcT);
+        return (new BMP280Sample(tFine / 5120.0, cal.pressureDouble(adcP, (int) tFine), nanos));
+    }
 
-        // Temperature
-        int t_fine;
-        double var1, var2, T, P;
-        var1 = (((double) adc_T) / 16384.0 - ((double) dig_t1) / 1024.0) * ((double) dig_t2);
-        var2 = ((((double) adc_T) / 131072.0 - ((double) dig_t1) / 8192.0) *
-                (((double) adc_T) / 131072.0 - ((double) dig_t1) / 8192.0)) * ((double) dig_t3);
-        t_fine = (int) (var1 + var2);
-        T = (var1 + var2) / 5120.0;
+    /**
+     * Integer compensation of the raw measurement registers
+     * @param buff  press_msb .. temp_xlsb
+     * @param out   out[0] temperature in 0.01 C, out[1] pressure in Pa as Q24.8
+     */
+    protected void compensateFixed(byte[] buff, int[] out) {
+        BMP280Calibration cal = this.getCalibration();
+        int tFine = cal.tFine(adcTemperature(buff));
+        out[0] = BMP280Calibration.temperatureCentiC(tFine);
+        out[1] = cal.pressureQ24_8(adcPressure(buff), tFine);
+    }
 
+    // 20 bit values, xlsb holds the low 4 bits in its upper nibble
+    protected static int adcPressure(byte[] buff) {
+        return (((buff[0] & 0xFF) << 12) | ((buff[1] & 0xFF) << 4) | ((buff[2] & 0xFF) >> 4));
+    }
 
-        rval[0] = T;
+    protected static int adcTemperature(byte[] buff) {
+        return (((buff[3] & 0xFF) << 12) | ((buff[4] & 0xFF) << 4) | ((buff[5] & 0xFF) >> 4));
+    }
 
-        // Pressure
-        var1 = ((double) t_fine / 2.0) - 64000.0;
-        var2 = var1 * var1 * ((double) dig_p6) / 32768.0;
-        var2 = var2 + var1 * ((double) dig_p5) * 2.0;
-        var2 = (var2 / 4.0) + (((double) dig_p4) * 65536.0);
-        var1 = (((double) dig_p3) * var1 * var1 / 524288.0 + ((double) dig_p2) * var1) / 524288.0;
-        var1 = (1.0 + var1 / 32768.0) * ((double) dig_p1);
-        if (var1 == 0.0) {
-            P = 0;   // // avoid exception caused by division by zero
-        } else {
-            P = 1048576.0 - (double) adc_P;
-            P = (P - (var2 / 4096.0)) * 6250.0 / var1;
-            var1 = ((double) dig_p9) * P * P / 2147483648.0;
-            var2 = P * ((double) dig_p8) / 32768.0;
-            P = P + (var1 + var2 + ((double) dig_p7)) / 16.0;
+    /**
+     * @return factory calibration, read from the chip on first use
+     */
+    public BMP280Calibration getCalibration() {
+        BMP280Calibration cal = this.calibration;
+        if (cal == null) {
+            synchronized (this) {
+                if (this.calibration == null) {
+                    this.loadCalibration();
+                }
+                cal = this.calibration;
+            }
         }
-        rval[1] = P;
-        this.logger.trace("exit: readBMP280  T " + rval[0] + "  P " + rval[1]);
+        return (cal);
+    }
 
-        return rval;   // “5123” equals 51.23 DegC.
+    /**
+     * Read dig_T1 .. dig_P9 in one 24 byte burst
+     */
+    protected synchronized void loadCalibration() {
+        this.logger.trace("enter: loadCalibration");
+        byte[] buf = new byte[BMP280Calibration.LENGTH];
+        this.readRegister(BMP280Declares.reg_dig_t1, buf);
+        this.calibration = new BMP280Calibration(buf);
+        this.logger.trace("exit: loadCalibration  " + this.calibration);
     }
 
 
@@ -362,16 +415,33 @@ public abstract class BMP280Device implements BMP280Interface {
     public void initSensor() {
         this.logger.trace("enter: initSensor");
         this.resetSensor();
-        // read 0xD0 validate data equal 0x58 or 0x60
+        // read 0xD0 validate data
         int id = this.readRegister(BMP280Declares.chipId);
-        if((id == BMP280Declares.idValueMskBMP) || (id == BMP280Declares.idValueMskBME))  {
+        if (this.isExpectedChipId(id)) {
             this.logger.trace("Correct chip ID read");
         }else{
             System.out.println("Incorrect chip ID read");
             System.exit(42);
         }
+        this.configureSensor();
+        // trim values are fixed, read them once
+        this.loadCalibration();
         this.logger.trace("exit: initSensor");
     }
 
+    /**
+     * @param id  contents of the chipId register
+     * @return true for 0x58 (BMP280) or 0x60 (BME280, used as a BMP280)
+     */
+    protected boolean isExpectedChipId(int id) {
+        return ((id == BMP280Declares.idValueMskBMP) || (id == BMP280Declares.idValueMskBME));
+    }
+
+    /**
+     * Called by initSensor after the chip ID check, the BMP280 needs no setup
+     */
+    protected void configureSensor() {
+    }
+
 
 }
@@ -72,6 +72,10 @@ public class BMP280DeviceSPI extends BMP280Device {
     Spi spi = null;
 
     SpiConfig config = null;
+
+    // register address byte, data byte; reused by every transfer
+    private final byte[] cmd = new byte[2];
+
     // SPI Provider name and unique ID
     /**
      * Constant <code>SPI_PROVIDER_NAME="NAME +  SPI Provider"</code>
@@ -150,15 +154,18 @@ public class BMP280DeviceSPI extends BMP280Device {
      * @param register
      * @return 8bit value read from register
      */
-    public int readRegister(int register) {
-        this.logger.trace(">>> Enter readRegister   : " + String.format("0X%02x: ", register));
+    public synchronized int readRegister(int register) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(">>> Enter readRegister   : " + String.format("0X%02x: ", register));
+        }
+        this.cmd[0] = (byte) (0b10000000 | register);
         this.csGpio.low();
-        byte data[] = new byte[]{(byte) (0b10000000 | register)};
-        int bytesWritten = this.spi.write(data);
-        byte value[] = new byte[1];
-        byte rval = this.spi.readByte();
+        this.spi.write(this.cmd, 0, 1);
+        int rval = this.spi.readByte() & 0xff;
         this.csGpio.high();
-        this.logger.trace("<<< Exit readRegister   : " + String.format("0X%02x: ", rval));
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("<<< Exit readRegister   : " + String.format("0X%02x: ", rval));
+        }
         return (rval);
     }
 
@@ -167,14 +174,18 @@ public class BMP280DeviceSPI extends BMP280Device {
      * @param buffer   Buffer to return read data
      * @return count     number bytes read or fail -1
      */
-    public int readRegister(int register, byte[] buffer) {
-        this.logger.trace(">>> Enter readRegister   : " + String.format("0X%02x: ", register));
-        byte data[] = new byte[]{(byte) (0b10000000 | register)};
+    public synchronized int readRegister(int register, byte[] buffer) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(">>> Enter readRegister   : " + String.format("0X%02x: ", register));
+        }
+        this.cmd[0] = (byte) (0b10000000 | register);
         this.csGpio.low();
-        int bytesWritten = this.spi.write(data);
+        this.spi.write(this.cmd, 0, 1);
         int bytesRead = this.spi.read(buffer);
         this.csGpio.high();
-        this.logger.trace("<<< Exit readRegister   : " + String.format("0X%02x: ", buffer[0]) + String.format("0X%02x: ", buffer[0]));
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("<<< Exit readRegister   : " + String.format("0X%02x: ", buffer[0]));
+        }
         return (bytesRead);
     }
 
@@ -184,21 +195,18 @@ public class BMP280DeviceSPI extends BMP280Device {
      * @param data     byte to write
      * @return bytes written, else -1
      */
-    public int writeRegister(int register, int data) {
-        this.logger.trace(">>> Enter writeRegister   : " + String.format("0X%02x: ", register));
-        int rval = 0;
-        int byteswritten = -1;
-        byte buffer[] = new byte[]{(byte) (0b01111111 & register),
-                (byte) data
-        };
-        byte dummy[] = new byte[2];
-        // send read request to BMP chip via SPI channel
+    public synchronized int writeRegister(int register, int data) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(">>> Enter writeRegister   : " + String.format("0X%02x: ", register));
+        }
+        this.cmd[0] = (byte) (0b01111111 & register);
+        this.cmd[1] = (byte) data;
         this.csGpio.low();
-        byteswritten = this.spi.write(buffer);
+        int byteswritten = this.spi.write(this.cmd, 0, 2);
         this.csGpio.high();
-
-        this.logger.trace("<<< Exit writeRegister wrote : " + byteswritten);
-        return (rval);
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("<<< Exit writeRegister wrote : " + byteswritten);
+        }
+        return (byteswritten);
     }
 }
-
@@ -79,6 +79,11 @@ public interface BMP280Interface {
      */
     double pressureMb();
 
+    /**
+     * @return temperature and pressure from a single conversion
+     */
+    BMP280Sample readSample();
+
     /**
      *
      * @param   register
@@ -0,0 +1,109 @@
+package com.pi4j.devices.bmp280;
+
+/*
+ *
+ *
+ *  #%L
+ *  **********************************************************************
+ *  ORGANIZATION  :  Pi4J
+ *  PROJECT       :  Pi4J ::  Providers
+ *  FILENAME      :  BMP280Sample.java
+ *
+ *  This file is part of the Pi4J project. More information about
+ *  this project can be found here:  https://pi4j.com/
+ *  **********************************************************************
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Lesser Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Lesser Public
+ *  License along with this program.  If not, see
+ *  <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *  #L%
+ *
+ */
+
+
+
+/**
+ * Temperature and pressure from one BMP280 conversion, BME280Sample adds humidity.
+ */
+public class BMP280Sample {
+
+    /**
+     * @param temperatureC  temperature centigrade
+     * @param pressurePa    pressure in Pa units
+     */
+    public BMP280Sample(double temperatureC, double pressurePa) {
+        this(temperatureC, pressurePa, System.nanoTime());
+    }
+
+    /**
+     * @param temperatureC  temperature centigrade
+     * @param pressurePa    pressure in Pa units
+     * @param nanos         System.nanoTime() when the measurement was read
+     */
+    public BMP280Sample(double temperatureC, double pressurePa, long nanos) {
+        this.temperatureC = temperatureC;
+        this.pressurePa = pressurePa;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return System.nanoTime() when the measurement was read
+     */
+    public long nanos() {
+        return (this.nanos);
+    }
+
+    /**
+     * @return Temperature centigrade
+     */
+    public double temperatureC() {
+        return (this.temperatureC);
+    }
+
+    /**
+     * @return Temperature fahrenheit
+     */
+    public double temperatureF() {
+        return (this.temperatureC * 1.8 + 32);
+    }
+
+    /**
+     * @return Pressure in Pa units
+     */
+    public double pressurePa() {
+        return (this.pressurePa);
+    }
+
+    /**
+     * @return Pressure in millBar
+     */
+    public double pressureMb() {
+        return (this.pressurePa / 100);
+    }
+
+    /**
+     * @return Pressure in inches mercury
+     */
+    public double pressureIn() {
+        return (this.pressurePa / 3386);
+    }
+
+    @Override
+    public String toString() {
+        return ("T " + this.temperatureC + " C  P " + this.pressurePa + " Pa");
+    }
+
+    private final double temperatureC;
+    private final double pressurePa;
+    private final long nanos;
+}
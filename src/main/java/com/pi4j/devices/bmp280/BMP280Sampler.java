@@ -0,0 +1,260 @@
+package com.pi4j.devices.bmp280;
+
+/*
+ *
+ *
+ *  #%L
+ *  **********************************************************************
+ *  ORGANIZATION  :  Pi4J
+ *  PROJECT       :  Pi4J ::  Providers
+ *  FILENAME      :  BMP280Sampler.java
+ *
+ *  This file is part of the Pi4J project. More information about
+ *  this project can be found here:  https://pi4j.com/
+ *  **********************************************************************
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation, either version 3 of the
+ *  License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Lesser Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Lesser Public
+ *  License along with this program.  If not, see
+ *  <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *  #L%
+ *
+ */
+
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Continuous normal mode sampling of a BMP280, BME280Sampler extends it with
+ * humidity.
+ * <p>
+ * The chip is put in normal mode with the requested oversampling, standby time
+ * and IIR filter, it then converts on its own every measurement time plus
+ * standby.  A daemon thread sleeps for that period, polls the status measuring
+ * bit until the conversion in progress completes, reads the six measurement
+ * registers and publishes the compensated result.  latest() returns the most
+ * recent sample without locking or bus access, any number of threads may call it.
+ * <p>
+ * Do not call the forced mode methods of the device (readSample, temperatureC ...)
+ * while the sampler runs.
+ */
+public class BMP280Sampler {
+
+    /**
+     * osrs_t / osrs_p register codes
+     */
+    public enum Oversampling {
+        SKIP(0), X1(1), X2(2), X4(4), X8(8), X16(16);
+
+        Oversampling(int samples) {
+            this.samples = samples;
+        }
+
+        /**
+         * @return  conversions averaged, 0 for SKIP
+         */
+        public int getSamples() {
+            return (this.samples);
+        }
+
+        final int samples;
+    }
+
+    /**
+     * t_sb register codes
+     */
+    public enum Standby {
+        MS_0_5(500), MS_62_5(62500), MS_125(125000), MS_250(250000), MS_500(500000), MS_1000(1000000),
+        MS_2000(2000000), MS_4000(4000000);
+
+        Standby(long micros) {
+            this.micros = micros;
+        }
+
+        final long micros;
+    }
+
+    /**
+     * IIR filter coefficient register codes
+     */
+    public enum Filter {
+        OFF, X2, X4, X8, X16
+    }
+
+    /**
+     * @param device   initialized device
+     * @param osrsT    temperature oversampling, not SKIP
+     * @param osrsP    pressure oversampling
+     * @param standby  inactive time between conversions
+     * @param filter   IIR filter coefficient
+     */
+    public BMP280Sampler(BMP280Device device, Oversampling osrsT, Oversampling osrsP, Standby standby, Filter filter) {
+        this(device, osrsT, osrsP, standby.ordinal(), standby.micros, filter,
+                BMP280Device.measureTimeNanos(osrsT.samples, osrsP.samples), "bmp280-sampler");
+    }
+
+    /**
+     * For a subclass with its own standby codes and measurement time
+     * @param device         initialized device
+     * @param osrsT          temperature oversampling, not SKIP
+     * @param osrsP          pressure oversampling
+     * @param standbyCode    t_sb register code
+     * @param standbyMicros  inactive time between conversions
+     * @param filter         IIR filter coefficient
+     * @param measureNanos   datasheet maximum measurement time
+     * @param threadName     name of the sampling thread
+     */
+    protected BMP280Sampler(BMP280Device device, Oversampling osrsT, Oversampling osrsP, int standbyCode,
+                            long standbyMicros, Filter filter, long measureNanos, String threadName) {
+        if (osrsT == Oversampling.SKIP) {
+            throw new IllegalArgumentException("temperature is needed for compensation, osrsT must not be SKIP");
+        }
+        this.device = device;
+        this.ctrlMeas = (osrsT.ordinal() << 5) | (osrsP.ordinal() << 2);
+        this.config = (standbyCode << 5) | (filter.ordinal() << 2);
+        this.measureNanos = measureNanos;
+        this.periodNanos = this.measureNanos + standbyMicros * 1000;
+        this.threadName = threadName;
+        this.logger = LoggerFactory.getLogger(this.getClass());
+    }
+
+    /**
+     * About 23 Hz : temperature x2, pressure x16, 0.5 ms standby, IIR filter 16,
+     * the datasheet's indoor navigation setting.
+     * @param device  initialized device
+     */
+    public BMP280Sampler(BMP280Device device) {
+        this(device, Oversampling.X2, Oversampling.X16, Standby.MS_0_5, Filter.X16);
+    }
+
+    /**
+     * Configure the chip and start the sampling thread
+     */
+    public synchronized void start() {
+        if (this.thread != null) {
+            return;
+        }
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace("enter: start  ctrl_meas " + String.format("0X%02x", this.ctrlMeas | MODE_NORMAL)
+                    + "  config " + String.format("0X%02x", this.config) + "  period nS " + this.periodNanos);
+        }
+        this.device.getCalibration();
+        // config is only reliably written in sleep mode
+        this.device.writeRegister(BMP280Declares.ctrl_meas, this.ctrlMeas);
+        this.configureSleeping();
+        this.device.writeRegister(BMP280Declares.config, this.config);
+        this.device.writeRegister(BMP280Declares.ctrl_meas, this.ctrlMeas | MODE_NORMAL);
+        this.running = true;
+        this.thread = new Thread(this::sampleLoop, this.threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        this.logger.trace("exit: start");
+    }
+
+    /**
+     * Stop the sampling thread and return the chip to sleep mode
+     * @throws InterruptedException
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (this.thread == null) {
+            return;
+        }
+        this.running = false;
+        this.thread.interrupt();
+        this.thread.join(1000 + this.periodNanos / 1000000);
+        this.thread = null;
+        this.device.writeRegister(BMP280Declares.ctrl_meas, this.ctrlMeas);
+        this.logger.trace("exit: stop  samples " + this.samples + "  errors " + this.errors);
+    }
+
+    /**
+     * Called by start while the chip is in sleep mode, before config and the
+     * ctrl_meas write that enters normal mode.  The BMP280 needs nothing here.
+     */
+    protected void configureSleeping() {
+    }
+
+    private void sampleLoop() {
+        byte[] buf = new byte[this.device.measureLength()];
+        // wake on the chip's schedule, not relative to the last read
+        long next = System.nanoTime() + this.measureNanos;
+        while (this.running) {
+            long left = next - System.nanoTime();
+            if (left > 0) {
+                LockSupport.parkNanos(this, left);
+            }
+            if (Thread.interrupted()) {
+                break;
+            }
+            next += this.periodNanos;
+            if (next - System.nanoTime() < 0) {
+                next = System.nanoTime() + this.periodNanos;   // fell behind, resynchronize
+            }
+            try {
+                this.device.awaitConversion(this.measureNanos);
+                this.device.readRegister(BMP280Declares.press_msb, buf);
+                this.latest = this.device.compensate(buf, System.nanoTime());
+                this.samples++;
+            } catch (RuntimeException e) {
+                this.errors++;
+                this.logger.warn("sampleLoop read failed " + e);
+            }
+        }
+    }
+
+    /**
+     * @return most recent sample, null before the first conversion completes
+     */
+    public BMP280Sample latest() {
+        return (this.latest);
+    }
+
+    /**
+     * @return samples published since start
+     */
+    public long getSamples() {
+        return (this.samples);
+    }
+
+    /**
+     * @return failed reads
+     */
+    public long getErrors() {
+        return (this.errors);
+    }
+
+    /**
+     * @return conversion interval the chip was configured for
+     */
+    public long getPeriodNanos() {
+        return (this.periodNanos);
+    }
+
+    private static final int MODE_NORMAL = 0x03;
+
+    private final BMP280Device device;
+    private final Logger logger;
+    private final int ctrlMeas;
+    private final int config;
+    private final long measureNanos;
+    private final long periodNanos;
+    private final String threadName;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile BMP280Sample latest;
+    private volatile long samples;
+    private volatile long errors;
+}
@@ -108,8 +108,10 @@ public class BMP280SpiExample {
 
 
         String helpString = " parms:   -t trace    -csp  chipSelectGPIO    \n " +
-                " \n trace values : \"trace\", \"debug\", \"info\", \"warn\", \"error\" or \"off\"  Default \"info\"";
+                " \n trace values : \"trace\", \"debug\", \"info\", \"warn\", \"error\" or \"off\"  Default \"info\"" +
+                " \n -n count  read count samples in normal mode, about 23 Hz";
         String traceLevel = "info";
+        int normalCount = 0;
         for (int i = 0; i < args.length; i++) {
             String o = args[i];
             if (o.contentEquals("-csp")) { // device address
@@ -126,6 +128,10 @@ public class BMP280SpiExample {
                     console.println("Changing trace level invalid  : " + traceLevel);
                     System.exit(40);
                 }
+            } else if (o.contentEquals("-n")) { // normal mode samples
+                String a = args[i + 1];
+                i++;
+                normalCount = Integer.parseInt(a);
             } else if (o.contentEquals("-h")) {
                 console.println(helpString);
                 System.exit(39);
@@ -162,6 +168,24 @@ public class BMP280SpiExample {
         double press3 = bmpDev.pressureMb();
         console.println(" Pressure mb = " + press3);
 
+        BMP280Sample sample = bmpDev.readSample();
+        console.println(" Single conversion : " + sample.temperatureC() + " C  " + sample.pressureMb() + " mb");
+
+        if (normalCount > 0) {
+            BMP280Sampler sampler = new BMP280Sampler(bmpDev);
+            sampler.start();
+            long seen = 0;
+            while (seen < normalCount) {
+                Thread.sleep(sampler.getPeriodNanos() / 1000000);
+                BMP280Sample latest = sampler.latest();
+                if (latest != null && sampler.getSamples() != seen) {
+                    seen = sampler.getSamples();
+                    console.println(" Normal mode " + seen + " : " + latest.temperatureC() + " C  " + latest.pressureMb() + " mb");
+                }
+            }
+            sampler.stop();
+        }
+
 
         // Shutdown Pi4J
         pi4j.shutdown();
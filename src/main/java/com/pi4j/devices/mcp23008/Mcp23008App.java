@@ -160,6 +160,10 @@ public class Mcp23008App extends Mcp23008{
             mcpObj.drivePin(parmsObj.pin, parmsObj.pinOn);
         }
 
+        if (parmsObj.writePins) {
+            mcpObj.writePins(parmsObj.pinMask, parmsObj.pinValues);
+        }
+
 
 
         if (parmsObj.readPin) {
@@ -162,6 +162,10 @@ public class Mcp23017App extends Mcp23017 {
 
         }
 
+        if (parmsObj.writePins) {
+            mcpObj.writePins(parmsObj.pinMask, parmsObj.pinValues);
+        }
+
 
         if (parmsObj.readPin) {
             mcpObj.readInput(parmsObj.pin);
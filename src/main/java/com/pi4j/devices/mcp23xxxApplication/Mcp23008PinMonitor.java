@@ -142,6 +142,11 @@ public class Mcp23008PinMonitor extends Mcp23008 implements Mcp23xxxPinMonitorIn
     public boolean processPinInterrupt(int pinNum, DigitalState pinState, FfdcUtil ffdc) {
         boolean rval = false;
         this.ffdc.ffdcMethodEntry("Application processPinInterrupt PIN " + pinNum);// figure
+        if (this.jumpTable[pinNum] == null) {
+            this.ffdc.ffdcDebugEntry("No interrupt action installed for PIN " + pinNum);
+            this.ffdc.ffdcMethodExit("Application processPinInterrupt  rval :" + rval);
+            return (rval);
+        }
         this.jumpTable[pinNum].interruptAction(pinNum, pinState);
         try {
             Thread.sleep(1000);
@@ -293,6 +298,10 @@ public class Mcp23008PinMonitor extends Mcp23008 implements Mcp23xxxPinMonitorIn
 
         }
 
+        if (parmsObj.writePins) {
+            mcpObj.writePins(parmsObj.pinMask, parmsObj.pinValues);
+        }
+
 
         if (parmsObj.readPin) {
             mcpObj.readInput(parmsObj.pin);
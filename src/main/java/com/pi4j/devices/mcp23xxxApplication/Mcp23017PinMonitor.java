@@ -153,6 +153,11 @@ public class Mcp23017PinMonitor extends Mcp23017 implements Mcp23xxxPinMonitorIn
     public boolean processPinInterrupt(int pinNum, DigitalState pinState, FfdcUtil ffdc) {
         boolean rval = true;
         this.ffdc.ffdcMethodEntry("Application processPinInterrupt PIN " + pinNum);// figure
+        if (this.jumpTable[pinNum] == null) {
+            this.ffdc.ffdcDebugEntry("No interrupt action installed for PIN " + pinNum);
+            this.ffdc.ffdcMethodExit("Application processPinInterrupt  rval :" + rval);
+            return (rval);
+        }
         this.jumpTable[pinNum].interruptAction(pinNum, pinState);
         try {
             Thread.sleep(1000);
@@ -310,6 +315,10 @@ public class Mcp23017PinMonitor extends Mcp23017 implements Mcp23xxxPinMonitorIn
             mcpObj.drivePin(parmsObj.pin, parmsObj.pinOn);
 
         }
+
+        if (parmsObj.writePins) {
+            mcpObj.writePins(parmsObj.pinMask, parmsObj.pinValues);
+        }
         if (parmsObj.readPin) {
             mcpObj.readInput(parmsObj.pin);
 
@@ -164,6 +164,21 @@ public class Mcp23xxxAppProcessParms {
                 } else {
                     parmsObj.readPin = true;
                 }
+            } else if (o.contentEquals("-w")) {
+                String m = args[i + 1];
+                String v = args[i + 2];
+                i += 2;
+                parmsObj.pinMask = Integer.parseInt(m.substring(2), 16);
+                parmsObj.pinValues = Integer.parseInt(v.substring(2), 16);
+                if ((parmsObj.bankCapable == false) && (parmsObj.pinMask > 0xff)) {
+                    badParmDetail = ("Mask too large, MAX of 0xff");
+                    badParm = true;
+                } else if (parmsObj.pinMask > 0xffff) {
+                    badParmDetail = ("Mask too large, MAX of 0xffff");
+                    badParm = true;
+                } else {
+                    parmsObj.writePins = true;
+                }
             } else if (o.contentEquals("-o")) {
                 String a = args[i + 1];
                 i++;
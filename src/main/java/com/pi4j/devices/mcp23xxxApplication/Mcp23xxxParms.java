@@ -63,6 +63,9 @@ public class Mcp23xxxParms {
     public boolean readPin;
     public boolean pinOn;
     public boolean setPin;
+    public boolean writePins;
+    public int pinMask;
+    public int pinValues;
     public String fullKeyedData;
     public String fullPinKeyedData;
     public boolean hasFullKeyedData;
@@ -105,6 +108,7 @@ public class Mcp23xxxParms {
                 + "-c primary chip     -p primary pin \n"
                 + "-z  gpios config dict    -i interript monitor on/off -q mainChip \n"
                 + "-g gpio,   -x reset-chip GPIO# -n resetPin -f ffdc_lvl  -y dumpRegs  \n"
+                + "-w write-pins 0xMASK 0xVALUES  \n"
                 + "     ffdc_lvl 0 < TRACE 1 DEBUG < 2 INFO < 3 WARN < 4 ERROR < 5 FATAL < 6 OFF  \n");
     }
 
@@ -53,6 +53,27 @@ public interface Mcp23xxxPinMonitorIntf {
             throws InterruptedException, IOException{} ;
 
 
+     /**
+      *  writePins
+      * @param mask   pins to change, bit n is pin n
+      * @param values  new state of the masked pins, a set bit drives the pin high
+      * @throws InterruptedException
+      * @throws IOException
+      */
+     default void writePins(int mask, int values)
+            throws InterruptedException, IOException{} ;
+
+
+     /**
+      *  writePorts
+      * @param portAB  output latch contents, port A bits 0-7, port B bits 8-15
+      * @throws InterruptedException
+      * @throws IOException
+      */
+     default void writePorts(int portAB)
+            throws InterruptedException, IOException{} ;
+
+
      /**
       * readInput
       *  <p>
@@ -36,6 +36,8 @@ package com.pi4j.devices.mcp23xxxApplication;
 
 
 import com.pi4j.devices.appConfig.AppConfigUtilities;
+import com.pi4j.devices.appConfig.ChipDescriptor;
+import com.pi4j.devices.appConfig.PinDescriptor;
 import com.pi4j.devices.base_util.ffdc.FfdcUtil;
 import com.pi4j.devices.base_util.gpio.BaseGpioInOut;
 import com.pi4j.devices.base_util.gpio.GpioPinCfgData;
@@ -86,105 +88,30 @@ public class PinInterruptLED  extends PinInterruptBase implements Mcp23xxxPinMon
      * @param pinState   DigitalState
      */
     public void changeLed(int pinNumber, DigitalState pinState) {
-        ffdc.ffdcMethodEntry("changeLed pin : " + pinNumber + " pin state :" + pinState + " this instance for pin " + this.pin);
-        HashMap<String, String> pinDetails = this.cfgU.getPinMapDetails(this.priChipName, "pin" + this.pin);
-        ffdc.ffdcDebugEntry("instance pin  " + this.pin + " priChipName " + this.priChipName + " chip details " + pinDetails);
+        ffdc.ffdcMethodEntry("changeLed pin : %d  this instance for pin %d", pinNumber, this.pin);
         if ((pinNumber == this.pin)) {
             // chipMap attribute contains details on what to do
+            PinDescriptor pinDetails = this.cfgU.getPin(this.priChipName, this.pin);
+            ffdc.ffdcDebugEntry(() -> "instance pin  " + this.pin + " priChipName " + this.priChipName + " pin details " + pinDetails);
             if (pinDetails != null) {
-                String action = pinDetails.get("action");
-                ffdc.ffdcDebugEntry("action " + action);
-                if (action.equals("hilow")) {
-                    ffdc.ffdcDebugEntry("Hilow " + pinNumber);
-                    // do the LED work
-                    BaseGpioInOut gpio = new BaseGpioInOut(this.pi4j, this.ffdc, this.pinDict);
-                    if (pinDetails.containsKey("gpioNumLED")) {
-                        // what pin to drive
-                        ffdc.ffdcDebugEntry("PinMap details contains Pi gpioNumLED " + pinDetails.get("gpioNumLED"));
-                        // any
-                        // mux
-                        // in
-                        // path
-                        String ledGpio = pinDetails.get("gpioNumLED");
-                        int pinNum = Character.getNumericValue(ledGpio.charAt(3)); // dionx
-                        if(ledGpio.length() == 5) {  // dioxx
-                            pinNum = pinNum * 10;
-                            pinNum += Character.getNumericValue(ledGpio.charAt(4));
-                        }
-                        int intPin = pinNum;
-                        gpio.createOutPin("Util usage", intPin, DigitalState.HIGH);
-                        gpio.drivePinHigh(intPin);
-                        try {
-                            Thread.sleep(3000);
-                        } catch (InterruptedException e1) {
-                            // TODO Auto-generated catch block
-                            e1.printStackTrace();
-                        }
-                        gpio.drivePinLow(intPin);
-                    } else if (pinDetails.containsKey("pin")) {
-                        ffdc.ffdcDebugEntry("PinMap details contains pin " + pinDetails.get("pin"));
-                        String ledGpio = pinDetails.get("pin");
-                        int pinNum = Character.getNumericValue(ledGpio.charAt(3)); // pinx
-                        if(ledGpio.length() == 5) {  // pinxx
-                            pinNum = pinNum * 10;
-                            pinNum += Character.getNumericValue(ledGpio.charAt(4));
-                        }
-                        HashMap<String, String> target = this.cfgU.getPinMapDetails(this.priChipName,
-                                pinDetails.get("pin"));
-                        this.cfgU.enableGpioPath(pinDetails.get("pin"), this.priChipName); // enable
-                        // any
-                        // mux
-                        // in
-                        // path
-                        HashMap<String, String> chipDetail = this.cfgU.getChipMapRec(target.get("chipName"));
-                        this.controlChip(chipDetail, pinNum, action, pinState);
-                    } else {
-                        ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " No valid target");
-                    }
-                } else if (action.equals("reflect")) {
-                    ffdc.ffdcDebugEntry("Reflect  " + pinNumber);
-
-                    // do the LED work
-                    ffdc.ffdcDebugEntry("PinMap details contains Pi gpioNumLED " + pinDetails.get("gpioNumLED"));
-                    if (pinDetails.containsKey("gpioNumLED")) {
-                        // what pin to drive
-                        String ledGpio = pinDetails.get("gpioNumLED");
-                        BaseGpioInOut gpio = new BaseGpioInOut(this.pi4j, this.ffdc, this.pinDict);
-                        int pinNum = Character.getNumericValue(ledGpio.charAt(3)); // diox
-                        if(ledGpio.length() == 5) {  // dioxx
-                            pinNum = pinNum * 10;
-                            pinNum += Character.getNumericValue(ledGpio.charAt(4));
-                        }
-                        int intPin = pinNum;
-                        gpio.createOutPin("Util usage", intPin, DigitalState.HIGH);
-
-                        if (pinState == DigitalState.HIGH) {
-                            gpio.drivePinHigh(intPin);
-                        } else {
-                            gpio.drivePinLow(intPin);
-                        }
-                    } else if (pinDetails.containsKey("pin")) {
-                        String ledGpio = pinDetails.get("pin");
-                        int pinNum = Character.getNumericValue(ledGpio.charAt(3)); // pinx
-                        if(ledGpio.length() == 5) {  // pinxx
-                            pinNum = pinNum * 10;  // mov first digit to tens column
-                            pinNum += Character.getNumericValue(ledGpio.charAt(4)); // last digit is ones column
-                        }
-                        HashMap<String, String> target = this.cfgU.getPinMapDetails(this.priChipName,
-                                pinDetails.get("pin"));
-                        this.cfgU.enableGpioPath(pinDetails.get("pin"), this.priChipName); // enable
-                        // any
-                        // mux
-                        // in
-                        // path
-                        HashMap<String, String> chipDetail = this.cfgU.getChipMapRec(target.get("chipName"));
-                        this.controlChip(chipDetail, pinNum, action, pinState);
-
+                PinDescriptor.Action action = pinDetails.action;
+                if (action == PinDescriptor.Action.NONE) {
+                    ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " No valid acton");
+                } else if (pinDetails.gpioNumLED >= 0) {
+                    // what Pi pin to drive
+                    ffdc.ffdcDebugEntry("PinMap details contains Pi gpioNumLED %d", pinDetails.gpioNumLED);
+                    this.driveGpio(pinDetails.gpioNumLED, action, pinState);
+                } else if (pinDetails.targetPin >= 0) {
+                    ffdc.ffdcDebugEntry("PinMap details contains pin %d", pinDetails.targetPin);
+                    PinDescriptor target = this.cfgU.getPin(this.priChipName, pinDetails.targetPin);
+                    if (target == null) {
+                        ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " target pin" + pinDetails.targetPin + " not found in GpioToApp map");
                     } else {
-                        ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " No valid target");
+                        this.cfgU.enablePinPath(target); // enable any mux in path
+                        this.controlChip(this.cfgU.getChip(target.chipName), pinDetails.targetPin, action, pinState);
                     }
                 } else {
-                    ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " No valid acton");
+                    ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " No valid target");
                 }
             } else {
                 ffdc.ffdcConfigWarningEntry("Pin : " + pinNumber + " not found in GpioToApp map");
@@ -195,13 +122,33 @@ public class PinInterruptLED  extends PinInterruptBase implements Mcp23xxxPinMon
         ffdc.ffdcMethodExit("changeLed");
     }
 
-    private void controlChip(HashMap<String, String> chipDetail, int pinNum, String action, DigitalState pinState) {
-        // TODO Auto-generated method stub
-        String chipPCA = chipDetail.get("pca");
-        if ((chipPCA.equals("23017"))  || (chipPCA.equals("23008")) ) {
-            int busNumber = Integer.parseInt(chipDetail.get("busNum").substring(2), 16);
-            int chipAddress = Integer.parseInt(chipDetail.get("address").substring(2), 16);
-            if (action.equals("hilow")) {
+    private void driveGpio(int intPin, PinDescriptor.Action action, DigitalState pinState) {
+        BaseGpioInOut gpio = new BaseGpioInOut(this.pi4j, this.ffdc, this.pinDict);
+        if (action == PinDescriptor.Action.HILOW) {
+            ffdc.ffdcDebugEntry("Hilow %d", intPin);
+            gpio.createOutPin("Util usage", intPin, DigitalState.HIGH);
+            gpio.drivePinHigh(intPin);
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e1) {
+                // TODO Auto-generated catch block
+                e1.printStackTrace();
+            }
+            gpio.drivePinLow(intPin);
+        } else {
+            ffdc.ffdcDebugEntry("Reflect  %d", intPin);
+            gpio.createOutPin("Util usage", intPin, DigitalState.HIGH);
+            if (pinState == DigitalState.HIGH) {
+                gpio.drivePinHigh(intPin);
+            } else {
+                gpio.drivePinLow(intPin);
+            }
+        }
+    }
+
+    private void controlChip(ChipDescriptor chipDetail, int pinNum, PinDescriptor.Action action, DigitalState pinState) {
+        if (chipDetail != null && chipDetail.mcp23xxx) {
+            if (action == PinDescriptor.Action.HILOW) {
                 try {
                     this.mcpObj.drivePin(pinNum, true);
                     Thread.sleep(3000);
@@ -210,7 +157,7 @@ public class PinInterruptLED  extends PinInterruptBase implements Mcp23xxxPinMon
                     // TODO Auto-generated catch block
                     e.printStackTrace();
                 }
-            } else if (action.equals("reflect")) {
+            } else if (action == PinDescriptor.Action.REFLECT) {
                 try {
                     if (pinState == DigitalState.HIGH) {
                         this.mcpObj.drivePin(pinNum, true);
@@ -223,7 +170,7 @@ public class PinInterruptLED  extends PinInterruptBase implements Mcp23xxxPinMon
                 }
             }
         } else {
-            System.out.println("ChipName not found in PinInterruptLed:ControlChip implementation : " + chipPCA);
+            System.out.println("ChipName not found in PinInterruptLed:ControlChip implementation : " + chipDetail);
         }
 
     }
@@ -41,11 +41,14 @@ import com.pi4j.devices.base_util.gpio.GpioPinCfgData;
 import com.pi4j.devices.mcp23xxxApplication.Mcp23xxxParms;
 import com.pi4j.util.Console;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Mcp23xxxUtil
@@ -64,7 +67,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
      * @param busNum    Pi bus number
      * @param address    Chip device address
      * @param cfgData    Chip defines/constants
-     * @param mcpObj     MCP23008 and MCP23017 instance
+     * @param mcpObj     MCP23008 and MCP23017 instance, its cfgData set, it owns the register cache
      * @param console    Context
      */
     public Mcp23xxxUtil(Context pi4j,  FfdcUtil ffdc, int busNum, int address, McpConfigData cfgData, McpBase mcpObj, Console console) {
@@ -86,58 +89,43 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
     public void drivePin(int pin, boolean pinOn) {
         // get the regs and make sure the desired pin is configed as output. Log
         // error if not
-        byte configed;
-        byte b;
-        byte reg;
+        int configed;
+        int reg;
         int absPin = pin; // if in second bank must subtract 8
 
         byte[] first8 = this.mcpB.getAddrMapFirst8();
 
         byte thisOffsetIOD = first8[this.cfgData._IODIR];
-
-        byte thisOffsetGPI = first8[this.cfgData._GPIO];
+        byte thisOffsetOLA = first8[this.cfgData._OLAT];
         if (pin > 7) {
             absPin = absPin - 8;
             byte[] second8 = this.mcpB.getAddrMapSecond8();
             thisOffsetIOD = second8[this.cfgData._IODIRB];
-            thisOffsetGPI = second8[this.cfgData._GPIOB];
+            thisOffsetOLA = second8[this.cfgData._OLATB];
         }
 
-        this.ffdc.ffdcMethodEntry("drivePin  pin" + String.format("0x%02X", pin) + " pinOn : " + pinOn);
-        this.ffdc.ffdcMethodEntry(
-                "drivePin banked capable " + this.mcpB.bankCapable + " banked  : " + this.mcpB.banked);
+        this.ffdc.ffdcMethodEntry("drivePin  pin0x%02X pinOn : %d", pin, pinOn ? 1 : 0);
 
-        configed = (byte) this.readRegister(thisOffsetIOD);
+        McpRegisterCache cache = this.mcpB.getRegisterCache();
+        configed = cache.read(thisOffsetIOD, this.chipRead);
 
         if ((configed & (1 << absPin)) > 0) {
             this.ffdc.ffdcErrorExit("Pin" + pin + "  not configured for output",500);
         }
-        reg = (byte) this.readRegister(thisOffsetGPI);
-        if (pinOn) {
-            Integer integerObject;
-            integerObject = 1 << absPin;
-            b = integerObject.byteValue();
-            reg = (byte) (reg | b);
-        } else {
-            Integer integerObject = ~(1 << absPin);
-            b = integerObject.byteValue();
-            reg = (byte) (reg & b);
-        }
-
-        this.writeByte( thisOffsetGPI, reg);
 
-       if (pinOn) {
-            Integer integerObject;
-            integerObject = (1 << absPin);
-            b = integerObject.byteValue();
-            reg = (byte) (reg | b);
-        } else {
-            Integer integerObject;
-            integerObject = ~(1 << absPin);
-            b = integerObject.byteValue();
-            reg = (byte) (reg & b);
+        // OLAT holds the output state, with the shadow copy current this is a single bus write.
+        // Hold the cache lock so a concurrent drivePin cannot lose this bit.
+        synchronized (cache) {
+            reg = cache.read(thisOffsetOLA, this.chipRead);
+            if (pinOn) {
+                reg = reg | (1 << absPin);
+            } else {
+                reg = reg & ~(1 << absPin);
+            }
+            cache.write(thisOffsetOLA, (byte) reg, this.chipWrite);
         }
-      this.ffdc.ffdcMethodExit("drivePin");
+
+        this.ffdc.ffdcMethodExit("drivePin");
     }
 
     /**
@@ -168,12 +156,9 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
             thisOffsetGPI = second8[this.cfgData._GPIOB];
         }
 
-        this.ffdc.ffdcMethodEntry(" readInput  pin " + String.format("0x%02X", pin));
-        this.ffdc.ffdcMethodEntry(
-                "drivePin banked capable " + this.mcpB.bankCapable + " banked  : " + this.mcpB.banked);
+        this.ffdc.ffdcMethodEntry(" readInput  pin 0x%02X", pin);
 
-        configed = this.readRegister(thisOffsetIOD);
-        this.examineReturnRead(reg);
+        configed = this.mcpB.getRegisterCache().read(thisOffsetIOD, this.chipRead);
 
         if ((configed & (1 << absPin)) == 0) {
             this.ffdc.ffdcErrorExit("Pin" + String.format("0x%02X", pin) + "  not configured for input",510);
@@ -195,6 +180,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
         // this.keyedData;
         this.ffdc.ffdcMethodEntry("processKeyedData ");
         HashMap<String, HashMap<String, String>> outerMap = this.cfgData.getFullMap();
+        this.loadConfigRegs();
 
         // this.configUtils.confgureGpios(cfgData);
         Set outerSet = outerMap.entrySet();
@@ -211,14 +197,14 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 byte regValOffset = first8[this.cfgData._IOCON];
                 if (key.equals("act")) {
                     byte ioconReg;
-                    ioconReg = (byte) this.readRegister(regValOffset);
+                    ioconReg = this.configRegs[regValOffset];
                     String level =  childPair.getValue();
                     if (level.contains("low")) {
                         ioconReg = (byte) (ioconReg & (~2));
                     } else if (level.contains("high")) {
                         ioconReg = (byte) (ioconReg | 2);
                     }
-                    this.writeByte(regValOffset, ioconReg);
+                    this.configRegs[regValOffset] = ioconReg;
                 }
             }
             String[] pinList = { "pin0", "pin1", "pin2", "pin3", "pin4", "pin5", "pin6", "pin7", "pin8", "pin9",
@@ -229,6 +215,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 }
             }
         }
+        this.flushConfigRegs();
         this.ffdc.ffdcMethodExit("processKeyedData ");
     }
 
@@ -253,6 +240,10 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
 
     public void processOptData(int pin, String key, String value){
         this.ffdc.ffdcMethodEntry(" processOptData  pin " + pin + "  key " + key + "  value " + value);
+        boolean ownSnapshot = (this.configRegs == null);
+        if (ownSnapshot) {
+            this.loadConfigRegs();
+        }
         byte reg;
         byte b;
         int absPin = pin; // if in second bank must subtract 8
@@ -265,11 +256,9 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 thisOffset = second8[this.cfgData._IODIRB];
             }
 
-            // # read return a list, get the single entry [0]
             this.ffdc.ffdcDebugEntry(" I2cDevice on bus  " + this.busNum + "   Chip address :   "
                     + String.format("0x%02X", this.address) + " offset  " + thisOffset);
-           // TODO  Must we ever remap the bus/address ???
-            reg = (byte) this.readRegister(thisOffset);
+            reg = this.configRegs[thisOffset];
             this.ffdc.ffdcDebugEntry(" Read returned : " + String.format("0x%02X", reg));
             if (value.contains("in")) {
                 Integer integerObject = (1 << absPin);
@@ -280,7 +269,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 b = integerObject.byteValue();
                 reg = (byte) (reg & b);
             }
-            this.writeByte( thisOffset, reg);
+            this.configRegs[thisOffset] = reg;
         } else if (key.contains("pull")) {
             byte[] first8 = this.mcpB.getAddrMapFirst8();
             byte thisOffset = first8[this.cfgData._GPPU];
@@ -289,8 +278,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 byte[] second8 = this.mcpB.getAddrMapSecond8();
                 thisOffset = second8[this.cfgData._GPPUB];
             }
-            // # read return a list, get the single entry [0]
-            reg = (byte) this.readRegister( thisOffset);
+            reg = this.configRegs[thisOffset];
             this.ffdc.ffdcDebugEntry(" Read returned : " + String.format("0x%02X", reg));
             if (value.contains("up")) {
                 Integer integerObject = (1 << absPin);
@@ -301,7 +289,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 b = integerObject.byteValue();
                 reg = (byte) (reg & b);
             }
-            this.writeByte( thisOffset, reg);
+            this.configRegs[thisOffset] = reg;
         } else if (key.contains("default")) {
             byte[] first8 = this.mcpB.getAddrMapFirst8();
             byte thisOffset = first8[this.cfgData._DEFVAL];
@@ -311,8 +299,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 thisOffset = second8[this.cfgData._DEFVALB];
                 // thisOffset = this.cfgData._DEFVALB;
             }
-            // # read return a list, get the single entry [0]
-            reg = (byte) this.readRegister(thisOffset);
+            reg = this.configRegs[thisOffset];
             this.ffdc.ffdcDebugEntry(" Read returned : " + String.format("0x%02X", reg));
             if (value.contains("1")) {
                 Integer integerObject = (1 << absPin);
@@ -323,7 +310,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 b = integerObject.byteValue();
                 reg = (byte) (reg & b);
             }
-            this.writeByte(thisOffset, reg);
+            this.configRegs[thisOffset] = reg;
         } else if (key.contains("do_compare")) {
             byte first8[] = this.mcpB.getAddrMapFirst8();
             byte thisOffset = first8[this.cfgData._INTCON];
@@ -332,8 +319,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 byte second8[] = this.mcpB.getAddrMapSecond8();
                 thisOffset = second8[this.cfgData._INTCON];
             }
-            // # read return a list, get the single entry [0]
-            reg = (byte) this.readRegister(thisOffset );
+            reg = this.configRegs[thisOffset];
             this.ffdc.ffdcDebugEntry(" Read returned : " + String.format("0x%02X", reg));
             if (value.contains("yes")) {
                 Integer integerObject = (1 << absPin);
@@ -345,7 +331,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 b = integerObject.byteValue();
                 reg = (byte) (reg & b);
             }
-            this.writeByte( thisOffset, reg);
+            this.configRegs[thisOffset] = reg;
         } else if (key.contains("invert")) {
             byte first8[] = this.mcpB.getAddrMapFirst8();
             byte thisOffset = first8[this.cfgData._IPOL];
@@ -354,8 +340,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 byte second8[] = this.mcpB.getAddrMapSecond8();
                 thisOffset = second8[this.cfgData._IPOLB];
             }
-            // # read return a list, get the single entry [0]
-            reg = (byte)this.readRegister( thisOffset);
+            reg = this.configRegs[thisOffset];
             this.ffdc.ffdcDebugEntry(" Read returned : " + String.format("0x%02X", reg));
             if (value.contains("yes")) {
                 Integer integerObject;
@@ -367,7 +352,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 b = integerObject.byteValue();
                 reg = (byte) (reg & b);
             }
-            this.writeByte( thisOffset, reg);
+            this.configRegs[thisOffset] = reg;
         } else if (key.contains("int_ena")) {
             byte first8[] = this.mcpB.getAddrMapFirst8();
             byte thisOffset = first8[this.cfgData._GPINTEN];
@@ -376,8 +361,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 byte second8[] = this.mcpB.getAddrMapSecond8();
                 thisOffset = second8[this.cfgData._GPINTENB];
             }
-            // # read return a list, get the single entry [0]
-            reg = (byte) this.readRegister( thisOffset);
+            reg = this.configRegs[thisOffset];
             this.ffdc.ffdcDebugEntry(" Read returned : " + String.format("0x%02X", reg));
             if (value.contains("yes")) {
                 Integer integerObject = (1 << absPin);
@@ -388,15 +372,107 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 b = integerObject.byteValue();
                 reg = (byte) (reg & b);
             }
-            var i = this.writeByte(thisOffset, reg);
+            this.configRegs[thisOffset] = reg;
+        }
+        if (ownSnapshot) {
+            this.flushConfigRegs();
         }
         this.ffdc.ffdcMethodExit(" processOptData");
     }
 
+    /**
+     * <p>
+     *     Read the configuration registers (IODIR through GPPU, both banks if present) into
+     *     configRegs with a single block read.  processOptData then updates the
+     *     snapshot and flushConfigRegs writes back only the registers that changed.
+     *     INTF, INTCAP and GPIO are not part of the snapshot so reading it does not clear
+     *     a pending interrupt.
+     * </p>
+     */
+    void loadConfigRegs() {
+        this.ffdc.ffdcMethodEntry("loadConfigRegs");
+        int[] regs = this.configRegList();
+        byte[] values = new byte[regs.length];
+        this.configRegs = new byte[MAX_GATHER_SPAN];
+        this.configLoaded = new byte[MAX_GATHER_SPAN];
+        if (this.readRegisterList(regs, values) == false) {
+            this.ffdc.ffdcErrorExit("loadConfigRegs read failed", 512);
+        }
+        for (int i = 0; i < regs.length; i++) {
+            this.configRegs[regs[i]] = values[i];
+            this.configLoaded[regs[i]] = values[i];
+        }
+        this.ffdc.ffdcMethodExit("loadConfigRegs");
+    }
+
+    /**
+     * <p>
+     *     Write back the configRegs entries modified since loadConfigRegs, merging
+     *     consecutive registers into block writes. GPINTEN is written last so compare and
+     *     default values are in place before interrupts are enabled.
+     * </p>
+     */
+    void flushConfigRegs() {
+        this.ffdc.ffdcMethodEntry("flushConfigRegs");
+        int[] regs = this.configRegList();
+        byte[] first8 = this.mcpB.getAddrMapFirst8();
+        byte[] second8 = this.mcpB.getAddrMapSecond8();
+        int gpintenA = first8[this.cfgData._GPINTEN];
+        int gpintenB = (second8.length > 0) ? second8[this.cfgData._GPINTENB] : -1;
+        Arrays.sort(regs);
+        int[] dirty = new int[regs.length];
+        int count = 0;
+        for (int reg : regs) {
+            if ((reg != gpintenA) && (reg != gpintenB) && (this.configRegs[reg] != this.configLoaded[reg])) {
+                dirty[count++] = reg;
+            }
+        }
+        for (int reg : new int[]{gpintenA, gpintenB}) {
+            if ((reg >= 0) && (this.configRegs[reg] != this.configLoaded[reg])) {
+                dirty[count++] = reg;
+            }
+        }
+        byte[] values = new byte[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = this.configRegs[dirty[i]];
+        }
+        if (this.writeRegisterList(Arrays.copyOf(dirty, count), values) == false) {
+            this.ffdc.ffdcErrorExit("flushConfigRegs write failed", 513);
+        }
+        // IOCON is mirrored in both banks of the MCP23017, drop the shadow copy rather than patch it
+        this.mcpB.getRegisterCache().invalidate();
+        this.configRegs = null;
+        this.configLoaded = null;
+        this.ffdc.ffdcMethodExit("flushConfigRegs  registers written : " + count);
+    }
+
+    /**
+     *
+     * @return  addresses of IODIR through GPPU for each bank
+     */
+    private int[] configRegList() {
+        byte[] first8 = this.mcpB.getAddrMapFirst8();
+        byte[] second8 = this.mcpB.getAddrMapSecond8();
+        int perBank = this.cfgData._GPPU + 1;
+        int[] regs = new int[perBank + ((second8.length > 0) ? perBank : 0)];
+        for (int i = 0; i < perBank; i++) {
+            regs[i] = first8[i];
+            if (second8.length > 0) {
+                regs[perBank + i] = second8[i];
+            }
+        }
+        return (regs);
+    }
+
     public FfdcUtil ffdc;
     public BasicI2cDevice i2cDevice;
     McpConfigData cfgData;
     McpBase mcpB;
+    byte[] configRegs;
+    byte[] configLoaded;
+    // chip transfers handed to the McpBase register cache
+    private final IntUnaryOperator chipRead = this::readRegister;
+    private final IntBinaryOperator chipWrite = (reg, data) -> this.writeByte(reg, (byte) data);
 
     /**
      *
@@ -495,6 +571,21 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 } else {
                     parmsObj.readPin = true;
                 }
+            } else if (o.contentEquals("-w")) {
+                String m = args[i + 1];
+                String v = args[i + 2];
+                i += 2;
+                parmsObj.pinMask = Integer.parseInt(m.substring(2), 16);
+                parmsObj.pinValues = Integer.parseInt(v.substring(2), 16);
+                if ((parmsObj.bankCapable == false) && (parmsObj.pinMask > 0xff)) {
+                    badParmDetail = ("Mask too large, MAX of 0xff");
+                    badParm = true;
+                } else if (parmsObj.pinMask > 0xffff) {
+                    badParmDetail = ("Mask too large, MAX of 0xffff");
+                    badParm = true;
+                } else {
+                    parmsObj.writePins = true;
+                }
             } else if (o.contentEquals("-o")) {
                 String a = args[i + 1];
                 i++;
@@ -528,6 +619,7 @@ public class Mcp23xxxUtil extends BasicI2cDevice{
                 + "-c primary chip     -p primary pin \n"
                 + "-z  gpios config dict     -q mainChip \n"
                 + "-x reset-chip GPIO# -n resetPin -f ffdc_lvl  -y dumpRegs \n"
+                + "-w write-pins 0xMASK 0xVALUES \n"
                 + "ffdc_lvl 0 < TRACE 1 DEBUG < 2 INFO < 3 WARN < 4 ERROR < 5 FATAL < 6 OFF    ");
     }
 
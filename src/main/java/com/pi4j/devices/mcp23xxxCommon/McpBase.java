@@ -44,7 +44,10 @@ import com.pi4j.devices.mcp23xxxApplication.Mcp23xxxParms;
 import com.pi4j.io.gpio.digital.*;
 import com.pi4j.context.Context;
 import com.pi4j.util.Console;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
 
 import com.pi4j.devices.mcp23xxxApplication.PinInterruptActionIntf;
 
@@ -156,15 +159,17 @@ public class McpBase extends MutableI2cDevice  {
                 { "OL7    OL6    OL5    OL4    OL3    OL2    OL1    OL0     " }, };
         byte regAddrB[] = this.getAddrMapSecond8();
 
-        this.ffdc.ffdcDebugEntry("this.getAddrMapSecond8() function returned     " + this.getAddrMapSecond8());
+        // one auto-increment read captures every register of both banks
+        ByteBuffer snapshot = ByteBuffer.allocate(this.getRegisterSpan());
+        if (this.readRegisterBlock(0, snapshot) != snapshot.capacity()) {
+            this.ffdc.ffdcErrorEntry("dumpRegs register block read failed");
+        }
+        byte[] regs = snapshot.array();
         String regAstr = "";
         int reg ;
 
         for (int i = 0; i < regName.length; i++) {
-            // this.ffdc.ffdcDebugEntry(" regAddr " + regAddr[i]);
-            // System.out.println(" regAddr " + regAddr[i]);
-
-            reg = this.readRegister(regAddr[i]);
+            reg = regs[regAddr[i]] & 0xff;
             regAstr = regAstr.concat("\n   Reg " + regName[i] + " offset ("+ i + ")  data: "  +   String.format("0x%02X", reg) + "\n");
             int val =  reg;
             // System.out.println("pin7 pin6 pin5 pin4 pin3 pin2 pin1 pin0");
@@ -176,19 +181,11 @@ public class McpBase extends MutableI2cDevice  {
         this.ffdc.ffdcDebugEntry(regAstr);
         //System.out.println(regAstr);
         if (this.bankCapable) {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                 e.printStackTrace();
-            }
             String regBstr = "";
             int regB;
 
             for (int i = 0; i < regNameB.length; i++) {
-                // this.ffdc.ffdcDebugEntry(" regAddrB " + regAddrB[i]);
-                // System.out.println(" regAddrB " + regAddrB[i]);
-
-                regB = this.readRegister(regAddrB[i]);
+                regB = regs[regAddrB[i]] & 0xff;
                 regBstr = regBstr.concat("\n   RegB " + regNameB[i] + " offset ("+ i + ")  data: "  +   String.format("0x%02X", regB) + "\n");
                 int val =  regB;
                 // System.out.println("pin7 pin6 pin5 pin4 pin3 pin2 pin1
@@ -206,6 +203,21 @@ public class McpBase extends MutableI2cDevice  {
         this.ffdc.ffdcMethodExit("dumpRegs");
     }
 
+    /**
+     *
+     * @return  number of device registers, highest address in getAddrMapFirst8/getAddrMapSecond8 plus one
+     */
+    public int getRegisterSpan() {
+        int high = 0;
+        for (byte reg : this.getAddrMapFirst8()) {
+            high = Math.max(high, reg);
+        }
+        for (byte reg : this.getAddrMapSecond8()) {
+            high = Math.max(high, reg);
+        }
+        return (high + 1);
+    }
+
     public void pgmSleep(int mills) {
         this.ffdc.ffdcMethodEntry("pgmSleep mills : " + String.format("0x%02X", mills));
         this.gpio.sleepMS(mills, this.ffdc);
@@ -215,9 +227,107 @@ public class McpBase extends MutableI2cDevice  {
     public void resetChip() {
         this.ffdc.ffdcMethodEntry("resetChip ");
         this.gpio.resetChip(this.gpioReset,this.pi4j,5000,true, this.ffdc);
+        this.getRegisterCache().invalidate();
         this.ffdc.ffdcMethodExit("resetChip");
     }
 
+    /**
+     * I2C device reinit, any shadow register values belong to the previous bus/address
+     * and are dropped.
+     */
+    @Override
+    protected void reinit(String id, String name, int bus, int address) {
+        super.reinit(id, name, bus, address);
+        this.getRegisterCache().invalidate();
+    }
+
+    /**
+     *
+     * @return  The chip shadow register cache, created on first use
+     */
+    public McpRegisterCache getRegisterCache() {
+        McpRegisterCache cache = this.regCache;
+        if (cache != null) {
+            return (cache);
+        }
+        // own lock, the interrupt worker must not wait on addListener's monitor
+        synchronized (this.regCacheLock) {
+            if (this.regCache != null) {
+                return (this.regCache);
+            }
+            byte[] first8 = this.getAddrMapFirst8();
+            byte[] second8 = this.getAddrMapSecond8();
+            int[] volatileRegs = new int[(second8.length > 0) ? 6 : 3];
+            volatileRegs[0] = first8[this.cfgData._INTF];
+            volatileRegs[1] = first8[this.cfgData._INTCAP];
+            volatileRegs[2] = first8[this.cfgData._GPIO];
+            if (second8.length > 0) {
+                volatileRegs[3] = second8[this.cfgData._INTFB];
+                volatileRegs[4] = second8[this.cfgData._INTCAPB];
+                volatileRegs[5] = second8[this.cfgData._GPIOB];
+            }
+            this.regCache = new McpRegisterCache(this.ffdc, this.getRegisterSpan(), volatileRegs);
+            return (this.regCache);
+        }
+    }
+
+    /**
+     * Drop the shadow copy and reload it from the chip.  The configuration registers
+     * IODIR through GPPU are read with one block read and OLAT with a second.  INTF,
+     * INTCAP and GPIO are not read so a pending interrupt is not cleared.
+     */
+    public void refreshRegisterCache() {
+        this.ffdc.ffdcMethodEntry("refreshRegisterCache");
+        McpRegisterCache cache = this.getRegisterCache();
+        byte[] first8 = this.getAddrMapFirst8();
+        byte[] second8 = this.getAddrMapSecond8();
+        int banks = (second8.length > 0) ? 2 : 1;
+        int perBank = this.cfgData._GPPU + 1;
+        int[] cfgRegs = new int[perBank * banks];
+        int[] olatRegs = new int[banks];
+        for (int i = 0; i < perBank; i++) {
+            cfgRegs[i] = first8[i];
+            if (banks == 2) {
+                cfgRegs[perBank + i] = second8[i];
+            }
+        }
+        olatRegs[0] = first8[this.cfgData._OLAT];
+        if (banks == 2) {
+            olatRegs[1] = second8[this.cfgData._OLATB];
+        }
+        synchronized (cache) {
+            cache.invalidate();
+            for (int[] regs : new int[][]{cfgRegs, olatRegs}) {
+                byte[] values = new byte[regs.length];
+                if (this.readRegisterList(regs, values)) {
+                    for (int i = 0; i < regs.length; i++) {
+                        cache.put(regs[i], values[i]);
+                    }
+                }
+            }
+        }
+        this.ffdc.ffdcMethodExit("refreshRegisterCache");
+    }
+
+    /**
+     *
+     * @param reg  register address
+     * @return  register contents, from the shadow copy if held, else read from the chip
+     */
+    protected int readRegisterCached(int reg) {
+        return (this.getRegisterCache().read(reg, this.chipRead));
+    }
+
+    /**
+     * Write-through, the chip is always written and the shadow copy updated on success.
+     * @param reg   register address
+     * @param data  new contents
+     * @return   0 or positive if successful, else negative
+     */
+    protected int writeRegisterCached(int reg, byte data) {
+        return (this.getRegisterCache().write(reg, data, this.chipWrite));
+    }
+
     /**
      *
      * @param pin         MCP pin to drive
@@ -227,65 +337,128 @@ public class McpBase extends MutableI2cDevice  {
         // get the regs and make sure the desired pin is configed as output. Log
         // error if not
         int configed;
-        int b;
         int reg;
         int absPin = pin; // if in second bank must subtract 8
         byte first8[] = this.getAddrMapFirst8();
 
         byte thisOffsetIOD = first8[this.cfgData._IODIR];
-
-        byte thisOffsetGPI = first8[this.cfgData._GPIO];
         byte thisOffsetOLA = first8[this.cfgData._OLAT];
         if (pin > 7) {
             absPin = absPin - 8;
             byte second8[] = this.getAddrMapSecond8();
 
             thisOffsetIOD = second8[this.cfgData._IODIRB];
-            thisOffsetGPI = second8[this.cfgData._GPIOB];
             thisOffsetOLA = second8[this.cfgData._OLATB];
         }
 
-        this.ffdc.ffdcMethodEntry("drivePin  pin" + String.format("0x%02X", pin) + " pinOn : " + pinOn);
+        this.ffdc.ffdcMethodEntry("drivePin  pin0x%02X pinOn : %d", pin, pinOn ? 1 : 0);
 
-        configed = this.readRegister(thisOffsetIOD);
+        configed = this.readRegisterCached(thisOffsetIOD);
 
         if ((configed & (1 << absPin)) > 0) {
             System.out.println("Pin" + pin + "  not configured for output");
             System.exit(500);
         }
-        reg = this.readRegister( thisOffsetGPI);
-        // System.out.println("read GPI " + String.format("0x%02X", reg[0]));
-        if (pinOn) {
-            Integer integerObject = ((1 << absPin));
-            b = integerObject.byteValue();
-            reg = (byte)(reg | b);
-        } else {
-            Integer integerObject = (~(1 << absPin));
-            b = integerObject.byteValue();
-            reg = (byte)(reg & b);
-        }
 
-        // System.out.println("write GPI " + String.format("0x%02X", reg[0]));
+        // OLAT holds the output state, a write to OLAT drives the pin. With the
+        // shadow copy current this is a single bus write.  The cache lock keeps a
+        // concurrent drivePin from losing this bit between the read and the write.
+        McpRegisterCache cache = this.getRegisterCache();
+        synchronized (cache) {
+            reg = this.readRegisterCached(thisOffsetOLA);
+            if (pinOn) {
+                reg = reg | (1 << absPin);
+            } else {
+                reg = reg & ~(1 << absPin);
+            }
+            reg = reg & 0xff;
 
-        reg = reg & 0xff;
-        this.writeByte(thisOffsetGPI, (byte) reg);
+            this.writeRegisterCached(thisOffsetOLA, (byte) reg);
+        }
 
-        // OLAT
-        reg = this.readRegister( thisOffsetOLA);
-        if (pinOn) {
-            Integer integerObject = ((1 << absPin));
-            b = integerObject.byteValue();
-            reg =  (reg | b);
-        } else {
-            Integer integerObject = (~(1 << absPin));
-            b = integerObject.byteValue();
-            reg = (reg & b);
+        this.ffdc.ffdcMethodExit("drivePin");
+    }
+
+    /**
+     * Drive any subset of the chip pins in one bus transaction.
+     * <p>
+     *     Bit n of mask and values corresponds to pin n, bits 8 - 15 are port B and only
+     *     valid on the MCP23017.  All masked pins must be configured as output.  When both
+     *     ports change, OLATA and OLATB are written with one sequential write, this relies on
+     *     the IOCON.BANK=0 register layout this class always uses.
+     * </p>
+     * @param mask     pins to change
+     * @param values   new pin states, a set bit drives the pin HIGH
+     */
+    public void writePins(int mask, int values) {
+        this.ffdc.ffdcMethodEntry("writePins  mask 0x%04X values 0x%04X", mask, values);
+        int pinBits = this.bankCapable ? 0xffff : 0xff;
+        if ((mask & ~pinBits) != 0) {
+            this.ffdc.ffdcErrorExit("writePins mask " + String.format("0x%04X", mask) + " exceeds chip pins", 502);
+        }
+        byte first8[] = this.getAddrMapFirst8();
+        McpRegisterCache cache = this.getRegisterCache();
+        synchronized (cache) {
+            int iodir = this.readRegisterCached(first8[this.cfgData._IODIR]);
+            int olat = this.readRegisterCached(first8[this.cfgData._OLAT]);
+            if (this.bankCapable) {
+                byte second8[] = this.getAddrMapSecond8();
+                iodir = iodir | (this.readRegisterCached(second8[this.cfgData._IODIRB]) << 8);
+                olat = olat | (this.readRegisterCached(second8[this.cfgData._OLATB]) << 8);
+            }
+            if ((iodir & mask) != 0) {
+                this.ffdc.ffdcErrorExit("Pins " + String.format("0x%04X", iodir & mask) + "  not configured for output", 500);
+            }
+            this.writeOutputLatch((olat & ~mask) | (values & mask), mask);
         }
-        reg = reg & 0xff;
+        this.ffdc.ffdcMethodExit("writePins");
+    }
 
-        this.writeByte(thisOffsetOLA, (byte) reg);
+    /**
+     * Write all output latches, port A in bits 0 - 7 and (MCP23017) port B in bits 8 - 15.
+     * One bus transaction. Pins configured as input are not effected.
+     * @param portAB   new latch contents
+     */
+    public void writePorts(int portAB) {
+        this.ffdc.ffdcMethodEntry("writePorts  portAB 0x%04X", portAB);
+        this.writeOutputLatch(portAB, this.bankCapable ? 0xffff : 0xff);
+        this.ffdc.ffdcMethodExit("writePorts");
+    }
 
-        this.ffdc.ffdcMethodExit("drivePin");
+    /**
+     * Write OLATA and/or OLATB, only the ports with a bit set in mask are written.
+     * @param value   bits 0 - 7 OLATA, bits 8 - 15 OLATB
+     * @param mask    ports to write
+     */
+    private void writeOutputLatch(int value, int mask) {
+        byte first8[] = this.getAddrMapFirst8();
+        int olatA = first8[this.cfgData._OLAT];
+        boolean portA = (mask & 0xff) != 0;
+        boolean portB = (mask & 0xff00) != 0;
+        if (portA && portB) {
+            int olatB = this.getAddrMapSecond8()[this.cfgData._OLATB];
+            if (olatB == olatA + 1) {
+                McpRegisterCache cache = this.getRegisterCache();
+                synchronized (cache) {
+                    this.latchBlock[0] = (byte) value;
+                    this.latchBlock[1] = (byte) (value >> 8);
+                    this.latchBuffer.clear();
+                    if (this.writeRegisterBlock(olatA, this.latchBuffer) >= 0) {
+                        cache.put(olatA, this.latchBlock[0]);
+                        cache.put(olatB, this.latchBlock[1]);
+                    } else {
+                        cache.invalidate();
+                    }
+                }
+            } else {
+                this.writeRegisterCached(olatA, (byte) value);
+                this.writeRegisterCached(olatB, (byte) (value >> 8));
+            }
+        } else if (portA) {
+            this.writeRegisterCached(olatA, (byte) value);
+        } else if (portB) {
+            this.writeRegisterCached(this.getAddrMapSecond8()[this.cfgData._OLATB], (byte) (value >> 8));
+        }
     }
 
     /**
@@ -312,9 +485,9 @@ public class McpBase extends MutableI2cDevice  {
             thisOffsetGPI = second8[this.cfgData._GPIOB];
         }
 
-        this.ffdc.ffdcMethodEntry(" readInput  pin " + String.format("0x%02X", pin));
+        this.ffdc.ffdcMethodEntry(" readInput  pin 0x%02X", pin);
 
-        configed = this.readRegister(thisOffsetIOD);
+        configed = this.readRegisterCached(thisOffsetIOD);
         // System.out.println("configed from _IODIR : " +
         // String.format("0x%02X", configed[0]));
         // System.out.println("(configed[0] & (1 << pin)) : " + (configed[0] &
@@ -341,10 +514,10 @@ public class McpBase extends MutableI2cDevice  {
 
     /**
      *
-     * @param onOff   Enable listener if true, else (at present disable not possible)
+     * @param onOff   "on" enables the listener, "off" removes it
      * @param gpioPin  Pi GPIO to apply the listener
-     * These listen to pi DIO interrupts. If on occurs this pgm handler is
-     *  called. The handler then
+     * These listen to pi DIO interrupts. If on occurs the edge is queued to this
+     *  chip's McpInterruptDispatcher, whose worker thread then
      *  interrogates the 23xxx chip to see which of its pins created the
      *  interrupt.
      *                 <P>
@@ -352,15 +525,39 @@ public class McpBase extends MutableI2cDevice  {
      *                 This data supplied by the program user must include gpioPin
      *                 as Input and the needed pullDown value
      *                 </P>
+     *                 <P>
+     *                 The chip keeps one dispatcher, created on the first "on" and started
+     *                 and stopped with the listener.  It is rebuilt only after setIntrpDispatch
+     *                 changed the queue settings, its worker then waits for the previous one.
+     *                 </P>
      */
-    public void addListener(String onOff,int gpioPin) {
+    public synchronized void addListener(String onOff,int gpioPin) {
         // find BCM number for this pin
         this.ffdc.ffdcMethodEntry(" addListener onOff : " + onOff + "  pin" + gpioPin);
         int intPin = gpioPin;
         if (onOff.equals("on")) {
-            this.gpio.getCfgData(intPin).input.addListener((DigitalStateChangeListener) new McpBaseIntrpListener(this));
+            if (this.intrpListener == null) {
+                McpInterruptDispatcher prior = this.intrpDispatcher;
+                if (prior == null || prior.capacity != this.intrpQueueCapacity || prior.policy != this.intrpDropPolicy) {
+                    this.intrpDispatcher = new McpInterruptDispatcher(this, this.intrpQueueCapacity, this.intrpDropPolicy, this.ffdc);
+                    if (prior != null) {
+                        this.intrpDispatcher.inheritWorker(prior);
+                    }
+                }
+                this.intrpDispatcher.start();
+                this.intrpListener = new McpBaseIntrpListener(this);
+                this.intrpListenerPin = intPin;
+                this.gpio.getCfgData(intPin).input.addListener((DigitalStateChangeListener) this.intrpListener);
+            } else {
+                this.ffdc.ffdcDebugEntry("addListener: listener already active on pin " + this.intrpListenerPin);
+            }
         } else if (onOff.equals("off")) {
-            ; // cannot remove handler (yet)
+            if (this.intrpListener != null) {
+                this.gpio.getCfgData(this.intrpListenerPin).input.removeListener(this.intrpListener);
+                this.intrpDispatcher.stop();
+                this.ffdc.ffdcDebugEntry("addListener: interrupt dispatch " + this.intrpDispatcher.stats());
+                this.intrpListener = null;
+            }
         } else {
             this.ffdc.ffdcErrorExit("addListener: invalid onOff", 521);
         }
@@ -368,112 +565,81 @@ public class McpBase extends MutableI2cDevice  {
     }
 
     /**
-     *  <p>
+     * Set the interrupt queue used by the next addListener("on").
+     * @param capacity   maximum edges queued for the worker thread
+     * @param policy     edge discarded when the queue is full
+     */
+    public synchronized void setIntrpDispatch(int capacity, McpInterruptDispatcher.DropPolicy policy) {
+        this.intrpQueueCapacity = capacity;
+        this.intrpDropPolicy = policy;
+    }
+
+    /**
      *
-     *  </p>When a Pi gpio detects a level change, if a Listener is attached, this
+     * @return  the interrupt dispatcher, null before the first addListener("on")
+     */
+    public synchronized McpInterruptDispatcher getIntrpDispatcher() {
+        return (this.intrpDispatcher);
+    }
+
+    /**
+     *  <p>
+     *  When a Pi gpio detects a level change, if a Listener is attached, this
      *  method is called.
      *  </p>
      *  <p>
-     *      The method will examine registers in the MCP chip to determine which
-     *      pin changed and caused the interrupt. When the interrupting pin is
-     *      determined, the processPinInterrupt method in a subclasss is called.
+     *      INTF and INTCAP of every bank are fetched with one block read, with the
+     *      IOCON.BANK=0 layout these registers are adjacent.  Reading INTCAP clears the
+     *      chip interrupt.  Every pin flagged in INTF is decoded and passed, with its
+     *      captured state, to processPinInterrupt in a subclass, lowest pin first.
      *  </p>
      *
      *
      * @param event     DigitalStateChangeEvent
      */
     public void intrpHappened(DigitalStateChangeEvent event) {
-        // System.out.println("intrpHappened");
         this.ffdc.ffdcMethodEntry(
-                " intrpHappened : GPIO PIN STATE CHANGE: " + event.state());// figure
-        // out, which, pins // interrupted
-        int reg;
-        boolean foundIntrBit = false;
-        int pinNum = 0;
-        int testVal = 0;
-        DigitalState effectedPinState = DigitalState.HIGH;
-        if (this.pin < 8) {
+                " intrpHappened : GPIO PIN STATE CHANGE: " + event.state());
+        if (this.intrpRegs == null) {
             byte first8[] = this.getAddrMapFirst8();
-
-            reg =  this.readRegister(first8[this.cfgData._INTF]);
-            // find the bit (pin) that interrupted this time.
-            testVal = reg;
-            testVal = testVal & 0xff;
-            pinNum = 0;
-            this.ffdc.ffdcDebugEntry("A reg INTF " + String.format("0x%02X", reg));
-
-            this.ffdc.ffdcDebugEntry("Pin 0 - 7, inspect _INTCAP ");
-            for (int c = 0; c < 8; c++) {
-                if ((testVal >> c) == 1) {
-                    pinNum = c;
-                    foundIntrBit = true;
-                    // get pin state for c + *. Set effectedPinState
-                    reg =  this.readRegister( first8[this.cfgData._INTCAP]);
-                    testVal = reg;
-                    testVal = testVal & 0xff;
-                    if ((testVal >> c) == 1) {
-                        effectedPinState = DigitalState.HIGH;
-                    } else {
-                        effectedPinState = DigitalState.LOW;
-                    }
-                    this.ffdc.ffdcDebugEntry("A reg interrupt on pin_Nm :" + pinNum);
-                    break;
-                }
-            }
-        } else {
-            if (this.pin > 7) { // search B bank
-                this.ffdc.ffdcDebugEntry("Pin 8 - 15, inspect _INTCAPB ");
-                byte second8[] = this.getAddrMapSecond8();
-
-                reg = this.readRegister( second8[this.cfgData._INTFB]);
-                // find the bit (pin) that interrupted this time.
-                testVal = reg;
-                testVal = testVal & 0xff;
-                pinNum = 0;
-                this.ffdc.ffdcDebugEntry("B reg " + String.format("0x%02X", reg));
-                for (int c = 0; c < 8; c++) {
-                    if ((testVal >> c) == 1) {
-                        pinNum = c + 8;
-                        foundIntrBit = true;
-                        // get pin state for c + *. Set effectedPinState
-                        reg = this.readRegister(second8[this.cfgData._INTCAPB]);
-                        testVal = reg;
-                        testVal = testVal & 0xff;
-                        if ((testVal >> c) == 1) {
-                            effectedPinState = DigitalState.HIGH;
-                        } else {
-                            effectedPinState = DigitalState.LOW;
-                        }
-                        this.ffdc.ffdcDebugEntry("B reg interrupt on  pinNum : " + pinNum);
-                        break;
-                    }
-                }
-
+            byte second8[] = this.getAddrMapSecond8();
+            if (this.bankCapable) {
+                this.intrpRegs = new int[]{first8[this.cfgData._INTF], first8[this.cfgData._INTCAP],
+                        second8[this.cfgData._INTFB], second8[this.cfgData._INTCAPB]};
+            } else {
+                this.intrpRegs = new int[]{first8[this.cfgData._INTF], first8[this.cfgData._INTCAP]};
             }
-        } // pin 8-15
+            this.intrpValues = new byte[this.intrpRegs.length];
+        }
+        if (this.readRegisterList(this.intrpRegs, this.intrpValues) == false) {
+            this.ffdc.ffdcErrorEntry("intrpHappened INTF/INTCAP read failed");
+            this.ffdc.ffdcMethodExit(" intrpHappened");
+            return;
+        }
+        int flagged = this.intrpValues[0] & 0xff;
+        int captured = this.intrpValues[1] & 0xff;
+        if (this.bankCapable) {
+            flagged = flagged | ((this.intrpValues[2] & 0xff) << 8);
+            captured = captured | ((this.intrpValues[3] & 0xff) << 8);
+        }
+        this.ffdc.ffdcDebugEntry("INTF 0x%04X  INTCAP 0x%04X", flagged, captured);
 
-        if (foundIntrBit == false) {
+        if (flagged == 0) {
             this.ffdc.ffdcDebugEntry("Bit not found in _INTF(B) ");
         } else {
-
-            String[] pinList = { "pin0", "pin1", "pin2", "pin3", "pin4", "pin5", "pin6", "pin7", "pin8", "pin9",
-                    "pin10", "pin11", "pin12", "pin13", "pin14", "pin15" };
-            if (event.state() == DigitalState.LOW) {
-                this.ffdc.ffdcDebugEntry("    McpBase  GPIO " + pinNum + " LOW, chip pin: " + pinList[pinNum]
-                        + " State: " + effectedPinState);
-            } else {
-                this.ffdc.ffdcDebugEntry("    McpBase  GPIO " + pinNum + " HIGH, chip pin: " + pinList[pinNum]
-                        + " State: " + effectedPinState);
-            }
-            if (this.pin == pinNum) {
+            int pending = flagged;
+            while (pending != 0) {
+                int pinNum = Integer.numberOfTrailingZeros(pending);
+                pending = pending & (pending - 1);
+                DigitalState effectedPinState = ((captured & (1 << pinNum)) != 0) ? DigitalState.HIGH : DigitalState.LOW;
+                if (this.ffdc.ffdcDebugEnabled()) {
+                    this.ffdc.ffdcDebugEntry("    McpBase  GPIO " + event.state() + ", chip pin: pin" + pinNum
+                            + " State: " + effectedPinState);
+                }
                 this.processPinInterrupt(pinNum, effectedPinState, this.ffdc);
-            } else {
-                this.ffdc.ffdcDebugEntry(
-                        "    McpBase  effected pin: " + pinNum + " is not our monitored pin: " + this.pin);
             }
             this.intrptCount++;
-            this.ffdc.ffdcDebugEntry(
-                    "Interrupt occured " + "  interrupt count : " + String.format("0x%02X", this.intrptCount));
+            this.ffdc.ffdcDebugEntry("Interrupt occured   interrupt count : 0x%02X", this.intrptCount);
         }
         this.ffdc.ffdcMethodExit(" intrpHappened");
     }
@@ -564,6 +730,20 @@ public class McpBase extends MutableI2cDevice  {
     public MapUtil mapUtils;
     public AppConfigUtilities cfgU;
     public PinInterruptActionIntf[] jumpTable;
+    volatile McpRegisterCache regCache;
+    private final Object regCacheLock = new Object();
+    // chip transfers handed to the register cache
+    private final IntUnaryOperator chipRead = this::readRegister;
+    private final IntBinaryOperator chipWrite = (reg, data) -> this.writeByte(reg, (byte) data);
+    volatile McpInterruptDispatcher intrpDispatcher;
+    McpBaseIntrpListener intrpListener;
+    int intrpListenerPin;
+    int intrpQueueCapacity = 64;
+    McpInterruptDispatcher.DropPolicy intrpDropPolicy = McpInterruptDispatcher.DropPolicy.DROP_NEWEST;
+    private int[] intrpRegs;
+    private byte[] intrpValues;
+    private final byte[] latchBlock = new byte[2];
+    private final ByteBuffer latchBuffer = ByteBuffer.wrap(this.latchBlock);
 
     protected McpBase chip;
 
@@ -572,27 +752,19 @@ public class McpBase extends MutableI2cDevice  {
 
 
     public class McpBaseIntrpListener implements DigitalStateChangeListener {
-        ;
         public McpBaseIntrpListener(McpBase chip) {
             this.chip = chip;
-            Runtime.getRuntime().addShutdownHook(new Thread() {
-                public void run() {
-                    System.out.println("McpBaseIntrpListener: Performing ctl-C shutdown");
-                    // Thread.dumpStack();
-                }
-            });
         }
 
+        /**
+         * Runs on the Pi4J GPIO event thread, only queue the edge.  Decode and
+         * handler callbacks run on the McpInterruptDispatcher worker.
+         * @param event   state change
+         */
         @Override
         public void onDigitalStateChange(DigitalStateChangeEvent event) {
-            // display pin state on console
-            // system.out.println(" Matrix -->Utility : GPIO PIN STATE CHANGE: "
-            // + event.getPin() + " = " + event.getState());
-
             if (event.state() == DigitalState.LOW) {
-                // System.out.println("Pin went low");
-
-                this.chip.intrpHappened(event);
+                this.chip.intrpDispatcher.offer(event);
             }
         }
          McpBase chip;
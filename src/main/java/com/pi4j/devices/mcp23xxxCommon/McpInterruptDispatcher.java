@@ -0,0 +1,324 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  McpInterruptDispatcher.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.mcp23xxxCommon;
+
+
+import com.pi4j.devices.base_util.ffdc.FfdcUtil;
+import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * McpInterruptDispatcher
+ * <p>
+ *     Moves MCP23xxx interrupt processing off the Pi4J GPIO event thread.  The listener
+ *     only time stamps the edge and offers it to a bounded lock-free queue, a single
+ *     daemon worker thread drains the queue and calls McpBase.intrpHappened, which does
+ *     the INTF/INTCAP decode and the PinInterruptActionIntf callbacks.
+ * </p>
+ * <p>
+ *     When the queue is full the DropPolicy decides which edge is discarded, the
+ *     GPIO thread never waits.  A dropped edge loses no pin state, the next decode
+ *     reads INTF/INTCAP from the chip.  Counters are kept for received, dispatched and
+ *     dropped edges, queue high water mark and worst case queue latency.
+ * </p>
+ */
+public class McpInterruptDispatcher {
+
+    /**
+     * Which event is discarded when the queue is full
+     */
+    public enum DropPolicy {
+        /** discard the edge being offered */
+        DROP_NEWEST,
+        /** discard the oldest queued edge and queue the new one */
+        DROP_OLDEST
+    }
+
+    /**
+     * CTOR
+     * @param chip       chip whose intrpHappened is called by the worker
+     * @param capacity   maximum queued edges
+     * @param policy     action when the queue is full
+     * @param ffdc       logging
+     */
+    public McpInterruptDispatcher(McpBase chip, int capacity, DropPolicy policy, FfdcUtil ffdc) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be > 0 : " + capacity);
+        }
+        this.chip = chip;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.ffdc = ffdc;
+    }
+
+    /**
+     * Start the worker thread, and register a single shutdown hook to stop it.
+     * No-op if already running.  If a worker from an earlier start is still finishing
+     * a callback the new worker waits for it to exit, callbacks never overlap.
+     */
+    public synchronized void start() {
+        this.ffdc.ffdcMethodEntry("McpInterruptDispatcher start capacity %d", this.capacity);
+        if (this.worker == null) {
+            int gen = ++this.generation;
+            Thread previous = this.stopped;
+            this.stopped = null;
+            this.worker = new Thread(() -> this.drain(gen, previous), "mcp23xxx-intrp-" + this.chip.priChipName);
+            this.worker.setDaemon(true);
+            this.worker.start();
+            if (this.shutdownHook == null) {
+                this.shutdownHook = new Thread(() -> {
+                    System.out.println("McpInterruptDispatcher: Performing ctl-C shutdown  " + this.stats());
+                    this.stop();
+                });
+                Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+            }
+        }
+        this.ffdc.ffdcMethodExit("McpInterruptDispatcher start");
+    }
+
+    /**
+     * Take over the worker of a dispatcher this one replaces, the first worker started
+     * here waits for it to exit.  Call before start.
+     * @param previous  stopped dispatcher of the same chip
+     */
+    synchronized void inheritWorker(McpInterruptDispatcher previous) {
+        synchronized (previous) {
+            Thread w = (previous.worker != null) ? previous.worker : previous.stopped;
+            previous.stop();
+            this.stopped = (w != null && w.isAlive()) ? w : null;
+        }
+    }
+
+    /**
+     * Stop the worker, queued edges are discarded.  Waits up to one second for an
+     * in-progress callback to return.  A worker still in its callback after that
+     * exits when the callback returns, it no longer dispatches.
+     */
+    public synchronized void stop() {
+        this.ffdc.ffdcMethodEntry("McpInterruptDispatcher stop");
+        Thread w = this.worker;
+        this.generation++;
+        this.worker = null;
+        if (w != null) {
+            LockSupport.unpark(w);
+            if (w != Thread.currentThread()) {
+                try {
+                    w.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (w.isAlive()) {
+                this.ffdc.ffdcDebugEntry("McpInterruptDispatcher stop, worker still in callback");
+                this.stopped = w;
+            }
+        }
+        while (this.queue.poll() != null) {
+            this.depth.decrementAndGet();
+        }
+        if (this.shutdownHook != null && this.shutdownHook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+            } catch (IllegalStateException e) {
+                // already shutting down
+            }
+            this.shutdownHook = null;
+        }
+        this.ffdc.ffdcMethodExit("McpInterruptDispatcher stop");
+    }
+
+    /**
+     * Called on the GPIO event thread.  Never blocks.
+     * @param event  edge reported by Pi4J
+     * @return  true if the edge was queued, false if it was dropped
+     */
+    public boolean offer(DigitalStateChangeEvent event) {
+        Pending p = new Pending(System.nanoTime(), event);
+        this.received.incrementAndGet();
+        int queued = this.depth.incrementAndGet();
+        if (queued > this.capacity) {
+            this.dropped.incrementAndGet();
+            if (this.policy == DropPolicy.DROP_OLDEST) {
+                if (this.queue.poll() != null) {
+                    queued = this.depth.decrementAndGet();
+                }
+            } else {
+                this.depth.decrementAndGet();
+                return (false);
+            }
+        }
+        this.queue.offer(p);
+        this.updateMax(this.highWater, queued);
+        Thread w = this.worker;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return (true);
+    }
+
+    /**
+     * Worker body, runs until stop or a later start changes the generation.
+     * @param gen       generation this worker belongs to
+     * @param previous  stopped worker that may still be in a callback, or null
+     */
+    private void drain(int gen, Thread previous) {
+        if (previous != null) {
+            try {
+                previous.join();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+        while (this.generation == gen) {
+            Pending p = this.queue.poll();
+            if (p == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            this.depth.decrementAndGet();
+            this.updateMax(this.maxLatencyNanos, System.nanoTime() - p.nanos);
+            try {
+                this.chip.intrpHappened(p.event);
+            } catch (RuntimeException e) {
+                this.failed.incrementAndGet();
+                this.ffdc.ffdcErrorEntry("McpInterruptDispatcher handler failed : " + e);
+            }
+            this.dispatched.incrementAndGet();
+        }
+    }
+
+    private void updateMax(AtomicLong max, long value) {
+        long cur = max.get();
+        while (value > cur && !max.compareAndSet(cur, value)) {
+            cur = max.get();
+        }
+    }
+
+    /**
+     * @return  edges reported by the GPIO listener
+     */
+    public long getReceived() {
+        return (this.received.get());
+    }
+
+    /**
+     * @return  edges passed to intrpHappened
+     */
+    public long getDispatched() {
+        return (this.dispatched.get());
+    }
+
+    /**
+     * @return  edges discarded because the queue was full
+     */
+    public long getDropped() {
+        return (this.dropped.get());
+    }
+
+    /**
+     * @return  callbacks that threw a RuntimeException
+     */
+    public long getFailed() {
+        return (this.failed.get());
+    }
+
+    /**
+     * @return  current number of queued edges
+     */
+    public int getDepth() {
+        return (this.depth.get());
+    }
+
+    /**
+     * @return  largest queue depth seen
+     */
+    public long getHighWater() {
+        return (this.highWater.get());
+    }
+
+    /**
+     * @return  longest time in microseconds an edge waited in the queue
+     */
+    public long getMaxLatencyMicros() {
+        return (TimeUnit.NANOSECONDS.toMicros(this.maxLatencyNanos.get()));
+    }
+
+    /**
+     * @return  counters formatted for display
+     */
+    public String stats() {
+        return ("received " + this.getReceived() + "  dispatched " + this.getDispatched()
+                + "  dropped " + this.getDropped() + "  failed " + this.getFailed()
+                + "  high water " + this.getHighWater() + "/" + this.capacity
+                + "  max latency uS " + this.getMaxLatencyMicros());
+    }
+
+    private static final class Pending {
+        Pending(long nanos, DigitalStateChangeEvent event) {
+            this.nanos = nanos;
+            this.event = event;
+        }
+
+        final long nanos;
+        final DigitalStateChangeEvent event;
+    }
+
+    /** Worker re-checks the run flag at least this often when idle */
+    static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    final McpBase chip;
+    final int capacity;
+    final DropPolicy policy;
+    FfdcUtil ffdc;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong highWater = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    // bumped by start and stop, a worker runs only while it matches its own
+    private volatile int generation;
+    private volatile Thread worker;
+    private Thread stopped;
+    private Thread shutdownHook;
+
+}
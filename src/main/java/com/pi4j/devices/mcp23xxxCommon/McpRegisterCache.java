@@ -0,0 +1,171 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  McpRegisterCache.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+
+package com.pi4j.devices.mcp23xxxCommon;
+
+
+import com.pi4j.devices.base_util.ffdc.FfdcUtil;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * McpRegisterCache
+ * <p>
+ *     Write-through shadow copy of the MCP23008/MCP23017 registers, indexed by register
+ *     address.  Only registers the chip changes solely in response to a bus write are held,
+ *     the configuration registers and OLAT.  GPIO, INTF and INTCAP follow the pins and
+ *     are never cached, a write to GPIO also changes OLAT so such writes must not go
+ *     through the cache.
+ * </p>
+ * <p>
+ *     The owner invalidates the cache on chip reset, reinit and explicit refresh.  An
+ *     interrupt capture only reads INTF/INTCAP, which are never cached, so it leaves the
+ *     shadow copy alone.  Callers on the McpInterruptDispatcher worker and the application
+ *     thread share the cache, so all methods synchronize on it and a read/modify/write of
+ *     a register must hold the cache lock across both steps.  read and write hold the lock across the chip
+ *     access, an invalidate cannot slip between the bus transfer and the shadow update.
+ * </p>
+ */
+public class McpRegisterCache {
+
+    /**
+     * CTOR
+     * @param ffdc          logging
+     * @param span          number of chip registers
+     * @param volatileRegs  register addresses that must always be read from the chip
+     */
+    public McpRegisterCache(FfdcUtil ffdc, int span, int[] volatileRegs) {
+        this.ffdc = ffdc;
+        this.shadow = new byte[span];
+        this.valid = new boolean[span];
+        this.cacheable = new boolean[span];
+        for (int i = 0; i < span; i++) {
+            this.cacheable[i] = true;
+        }
+        for (int reg : volatileRegs) {
+            this.cacheable[reg] = false;
+        }
+    }
+
+    /**
+     *
+     * @param reg  register address
+     * @return  true if a shadow value is held for reg
+     */
+    public synchronized boolean isValid(int reg) {
+        return (this.valid[reg]);
+    }
+
+    /**
+     *
+     * @param reg register address
+     * @return  true if reg may be held in the cache
+     */
+    public boolean isCacheable(int reg) {
+        return (this.cacheable[reg]);
+    }
+
+    /**
+     *
+     * @param reg  register address, isValid(reg) must be true
+     * @return  shadow value 0 - 0xff
+     */
+    public synchronized int get(int reg) {
+        return (this.shadow[reg] & 0xff);
+    }
+
+    /**
+     * Record the value read from or written to the chip.  Volatile registers are ignored.
+     * @param reg    register address
+     * @param value  register contents
+     */
+    public synchronized void put(int reg, int value) {
+        if (this.cacheable[reg]) {
+            this.shadow[reg] = (byte) value;
+            this.valid[reg] = true;
+        }
+    }
+
+    /**
+     * Drop all shadow values, the next access of each register goes to the chip.
+     */
+    public synchronized void invalidate() {
+        this.ffdc.ffdcDebugEntry("McpRegisterCache invalidate");
+        for (int i = 0; i < this.valid.length; i++) {
+            this.valid[i] = false;
+        }
+    }
+
+    /**
+     * Read through the cache.
+     * @param reg       register address
+     * @param chipRead  reads reg from the chip, negative on failure
+     * @return  register contents, from the shadow copy if held, else read from the chip
+     */
+    public synchronized int read(int reg, IntUnaryOperator chipRead) {
+        if (this.valid[reg]) {
+            return (this.shadow[reg] & 0xff);
+        }
+        int val = chipRead.applyAsInt(reg);
+        if (val >= 0) {
+            this.put(reg, val);
+        }
+        return (val);
+    }
+
+    /**
+     * Write-through, the chip is always written and the shadow copy updated on success.
+     * A failed write drops all shadow values.
+     * @param reg        register address
+     * @param data       new contents
+     * @param chipWrite  writes (reg, data) to the chip, negative on failure
+     * @return   0 or positive if successful, else negative
+     */
+    public synchronized int write(int reg, byte data, IntBinaryOperator chipWrite) {
+        int rval = chipWrite.applyAsInt(reg, data);
+        if (rval >= 0) {
+            this.put(reg, data);
+        } else {
+            this.invalidate();
+        }
+        return (rval);
+    }
+
+    FfdcUtil ffdc;
+    byte[] shadow;
+    boolean[] valid;
+    boolean[] cacheable;
+
+}
@@ -1,6 +1,7 @@
 package com.pi4j.devices.mcp3008;
 
 import com.pi4j.context.Context;
+import com.pi4j.devices.base_util.sample.SampleSink;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.spi.Spi;
 import com.pi4j.io.spi.SpiBus;
@@ -95,10 +96,10 @@ public class MCP3008 {
     public void read(boolean doallChannels, short thisChannel) throws IOException, InterruptedException {
         this.logger.trace(">>> Enter read ");
         if (doallChannels) {
+            int[] values = new int[this.pinCount];
+            this.readAll(values);
             for (short channel = 0; channel < this.pinCount; channel++) {
-                int conversion_value = getConversionValue(channel);
-                this.logger.trace("Channel  :" + channel + "  value  :" + String.format(" | %04d", conversion_value)); // print
-                Thread.sleep(500);
+                this.logger.trace("Channel  :" + channel + "  value  :" + String.format(" | %04d", values[channel])); // print
                 // 4
                 // digits
                 // with
@@ -123,40 +124,113 @@ public class MCP3008 {
      * @return conversion value for specified analog input channel
      * @throws IOException
      */
-    public int getConversionValue(short channel) throws IOException {
-        this.logger.trace(">>> Enter getConversionValue  channel : " + channel);
-
-        // create a data buffer and initialize a conversion request payload
-        byte data[] = new byte[]{(byte) 0b00000001, // first byte, start bit
-                (byte) (0b10000000 | (((channel & 7) << 4))), // second byte
-                // transmitted
-                // -> (SGL/DIF =
-                // 1,
-                // D2=D1=D0=0)
-                (byte) 0b00000000 // third byte transmitted....don't care
-        };
-
-        // send conversion request to ADC chip via SPI channel
-        //int bytesWritten = this.spi.write(data);
-        byte value[] = new byte[3];
-        int bytesRead = this.spi.transfer(data, 0, value, 0, 3);
-
-
-        // calculate and return conversion value from result bytes
-        int result = (value[1] << 8) & 0b1100000000; // merge value[1] & value[2]
-        // to get 10-bit result
-        result |= (value[2] & 0xff);
-        this.logger.info("Channel : " + channel + "   Bytes read : " + bytesRead + "  Value : " + result);
-        if(this.vref > 0){this.logger.info("A/D read input voltage : "+  ((result * this.vref )/1024 + " \n"));
+    public synchronized int getConversionValue(short channel) throws IOException {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(">>> Enter getConversionValue  channel : " + channel);
+        }
+
+        // send conversion request to ADC chip via SPI channel, the request bytes for
+        // each channel are prebuilt in txBuf
+        int offset = (channel & 7) * 3;
+        int bytesRead = this.spi.transfer(this.txBuf, offset, this.rxBuf, offset, 3);
+        int result = decode(this.rxBuf, offset);
+
+        SampleSink sink = this.sampleSink;
+        if (sink != null) {
+            sink.accept(System.nanoTime(), channel, result);
+        } else if (this.logger.isInfoEnabled()) {
+            this.logger.info("Channel : " + channel + "   Bytes read : " + bytesRead + "  Value : " + result);
+            if (this.vref > 0) {
+                this.logger.info("A/D read input voltage : " + ((result * this.vref) / 1024 + " \n"));
+            }
         }
         this.logger.trace("<<< Exit getConversionValue ");
 
         return result;
     }
 
+    /**
+     * Convert channels 0 .. pinCount-1 back to back into values.
+     * <p>
+     * Intended for high rate acquisition : the SPI request and result buffers are
+     * reused, nothing is allocated or logged and there is no delay between
+     * channels.  Each conversion needs its own chip select cycle so the channels
+     * are separate transfers.  Results also go to the sample sink when one is set.
+     *
+     * @param values  receives the 10 bit results, index is the channel number,
+     *                length at least pinCount
+     * @return  number of channels read
+     * @throws IOException
+     */
+    public synchronized int readAll(int[] values) throws IOException {
+        int count = Math.min(this.pinCount, MAX_CHANNELS);
+        if (values.length < count) {
+            throw new IllegalArgumentException("values length " + values.length + " less than pinCount " + count);
+        }
+        SampleSink sink = this.sampleSink;
+        for (int channel = 0; channel < count; channel++) {
+            int offset = channel * 3;
+            this.spi.transfer(this.txBuf, offset, this.rxBuf, offset, 3);
+            values[channel] = decode(this.rxBuf, offset);
+            if (sink != null) {
+                sink.accept(System.nanoTime(), channel, values[channel]);
+            }
+        }
+        return (count);
+    }
+
+    /**
+     * Build the three byte single-ended conversion request for each channel
+     * @return  request bytes, channel n at offset n*3
+     */
+    private static byte[] buildRequests() {
+        byte[] rval = new byte[MAX_CHANNELS * 3];
+        for (int channel = 0; channel < MAX_CHANNELS; channel++) {
+            rval[channel * 3] = (byte) 0b00000001;                          // start bit
+            rval[channel * 3 + 1] = (byte) (0b10000000 | (channel << 4));   // SGL/DIF = 1, D2 D1 D0
+            rval[channel * 3 + 2] = (byte) 0b00000000;                      // don't care
+        }
+        return (rval);
+    }
+
+    /**
+     * @param value   result bytes
+     * @param offset  first byte of this conversion
+     * @return  10 bit conversion value from the last two bytes
+     */
+    private static int decode(byte[] value, int offset) {
+        int result = (value[offset + 1] << 8) & 0b1100000000; // merge value[1] & value[2]
+        // to get 10-bit result
+        result |= (value[offset + 2] & 0xff);
+        return (result);
+    }
+
+    /**
+     * Send every conversion result to sink instead of logging it.  The channel
+     * passed to the sink is the input number 0-7.
+     * @param sink  null restores the INFO log of each result
+     */
+    public void setSampleSink(SampleSink sink) {
+        this.sampleSink = sink;
+    }
+
+    /**
+     * @return  current sample sink, may be null
+     */
+    public SampleSink getSampleSink() {
+        return (this.sampleSink);
+    }
+
     // SPI device
     //  public SpiDevice spi;
 
+    // largest chip, MCP3008
+    private static final int MAX_CHANNELS = 8;
+
+    // per channel conversion requests and their results, reused for every transfer
+    private final byte[] txBuf = buildRequests();
+    private final byte[] rxBuf = new byte[MAX_CHANNELS * 3];
+
     // ADC channel count
     public short pinCount; // MCP3004=4, MCP3008=8 move to chip config
     // file
@@ -168,6 +242,7 @@ public class MCP3008 {
     private final Logger logger;
 
     private final double vref;
+    private volatile SampleSink sampleSink;
     private final SpiChipSelect chipSelect;
     private final SpiBus spiBus;
 
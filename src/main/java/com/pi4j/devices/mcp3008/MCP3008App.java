@@ -2,6 +2,11 @@ package com.pi4j.devices.mcp3008;
 
 import com.pi4j.Pi4J;
 import com.pi4j.context.Context;
+import com.pi4j.devices.base_util.sample.CicDecimator;
+import com.pi4j.devices.base_util.sample.FilterChain;
+import com.pi4j.devices.base_util.sample.FilteredSampleSink;
+import com.pi4j.devices.base_util.sample.MappedSampleSink;
+import com.pi4j.devices.base_util.sample.MedianFilter;
 import com.pi4j.io.exception.IOException;
 import com.pi4j.io.spi.Spi;
 import com.pi4j.io.spi.SpiBus;
@@ -9,18 +14,23 @@ import com.pi4j.io.spi.SpiChipSelect;
 import com.pi4j.io.spi.SpiMode;
 import com.pi4j.util.Console;
 
+import java.nio.file.Paths;
+
 public class MCP3008App {
     public MCP3008App() {
         super();
     }
 
-    public static void main(String[] args) throws InterruptedException, IOException {
+    public static void main(String[] args) throws InterruptedException, IOException, java.io.IOException {
         var console = new Console();
         Context pi4j = Pi4J.newAutoContext();
         boolean doAll = true;
         short pinNumber = 0;
 
         double vref = 0;
+        String outFile = null;
+        int decimate = 0;
+        long scanCount = 0;
         
         SpiChipSelect chipSelect = SpiChipSelect.CS_0;
         SpiBus spiBus = SpiBus.BUS_0;
@@ -29,7 +39,10 @@ public class MCP3008App {
         String helpString = " parms: -p HEX value pinToRead  <if not supplied all pins read  " +
                 "  -c HEX value chip select   -vref decimal reference voltage " +
                 "-s HEX value SPI #  -t  trace values : \"trace\", \"debug\", \"info\", \"warn\", \"error\" \n " +
-                " or \"off\"  Default \"info\"";
+                " or \"off\"  Default \"info\" \n" +
+                "  -out file  write binary samples to file instead of logging them \n" +
+                "  -scan count  read all channels count times as fast as possible, display the rate \n" +
+                "  -decimate R  -out receives median-of-3 then 2nd order CIC decimated by R";
 
         String traceLevel = "info";
         for (int i = 0; i < args.length; i++) {
@@ -44,6 +57,18 @@ public class MCP3008App {
                     console.println(helpString);
                     System.exit(40);
                 }
+            } else if (o.contentEquals("-scan")) { // high rate all channel read
+                String a = args[i + 1];
+                i++;
+                scanCount = Long.parseLong(a);
+            } else if (o.contentEquals("-decimate")) { // filter -out samples
+                String a = args[i + 1];
+                i++;
+                decimate = Integer.parseInt(a);
+            } else if (o.contentEquals("-out")) { // binary sample file
+                String a = args[i + 1];
+                i++;
+                outFile = a;
             }else if (o.contentEquals("-vref")) { // reference voltage
                 String a = args[i + 1];
                 i++;
@@ -86,8 +111,38 @@ public class MCP3008App {
 
         MCP3008 spiCls = new MCP3008(pi4j, spiBus, chipSelect,  pinCount, console, traceLevel, vref);
 
+        MappedSampleSink sink = null;
+        if (outFile != null) {
+            sink = new MappedSampleSink(Paths.get(outFile));
+            if (decimate > 1) {
+                int ratio = decimate;
+                spiCls.setSampleSink(new FilteredSampleSink(sink,
+                        () -> new FilterChain(new MedianFilter(3), new CicDecimator(2, ratio, 0))));
+            } else {
+                spiCls.setSampleSink(sink);
+            }
+        }
+
         spiCls.displayProgramID();
-        spiCls.displayMCP3008State(doAll, pinNumber);
+        if (scanCount > 0) {
+            int[] values = new int[pinCount];
+            long start = System.nanoTime();
+            for (long n = 0; n < scanCount; n++) {
+                spiCls.readAll(values);
+            }
+            double secs = (System.nanoTime() - start) / 1e9;
+            console.println("Read " + scanCount + " scans of " + pinCount + " channels  samples/sec : "
+                    + (secs > 0 ? (scanCount * pinCount) / secs : 0));
+            for (int c = 0; c < pinCount; c++) {
+                console.println("  Channel " + c + "  value  :" + values[c]);
+            }
+        } else {
+            spiCls.displayMCP3008State(doAll, pinNumber);
+        }
+        if (sink != null) {
+            sink.close();
+            console.println("Wrote " + sink.getWritten() + " samples to " + outFile);
+        }
 
     }
 
@@ -45,13 +45,22 @@ import com.pi4j.util.Console;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
 
 /**
  *    Implementation for the MPL3115A2 sensor. Chip is altitude, pressure and
  *    temperature capable.
  *
- *    Code uses the basic sampling procedures using GPIO to indicate drdy, data ready.
- *    The code does not support setting limits  that signal interrupts when surpassed.
+ *    Conversions are signalled on INT2, data ready.  The MonitorInterrupt1 listener
+ *    reads each result in one burst and completes the future returned by nextSample(),
+ *    no thread spins waiting for the chip.  startContinuous() runs the chip in active
+ *    mode at its configured rate, otherwise each read is a one shot conversion.
  *
  *    Java docs are sparse as the method names describe the intended
  *    function to be performed.
@@ -102,6 +111,30 @@ public class MPL3115A2 {
     protected int int2_gpio = 0;
     DigitalInput int2 = null;
 
+    // STATUS .. OUT_T_LSB, written by readData only
+    private final byte[] dataBuf = new byte[MPL3115A2_Declares.DATA_LENGTH];
+
+    // completed by readData with the next conversion, then replaced
+    private final AtomicReference<CompletableFuture<MPL3115A2Sample>> nextSample = new AtomicReference<>(new CompletableFuture<>());
+
+    private volatile MPL3115A2Sample latest = null;
+
+    // CTRL_REG1 state last written
+    private volatile boolean altimeter = false;
+    private volatile boolean continuous = false;
+    private int oversample = 7;
+    private volatile long periodNanos = 0;
+
+    // datasheet maximum conversion time in ms for OS 0 .. 7
+    private static final long[] CONVERSION_MS = {6, 10, 18, 34, 66, 130, 258, 512};
+
+    // added to the expected conversion time before INT_SOURCE is checked directly
+    static final long WAIT_MARGIN_NANOS = 100000000L;
+
+    // software reset, interval between CTRL_REG1 reads and the limit
+    static final long RESET_POLL_NANOS = 5000000L;
+    static final long RESET_TIMEOUT_NANOS = 1000000000L;
+
 
     /**
      * @param pi4j Context instance used acccross application
@@ -198,12 +231,14 @@ private void init(){
             .provider("gpiod-digital-input");
     try {
         this.int2 = pi4j.create(ledConfigIntr2);
+        this.int2.addListener(new MonitorInterrupt1(this));
     } catch (Exception e) {
         e.printStackTrace();
         console.println("create Digital 2 failed");
         System.exit(201);
     }
     this.validateWhoAmI();
+    this.configureDrdy();
     this.logger.trace("<<< Exit: init");
 }
 
@@ -237,197 +272,235 @@ private void init(){
 
 
     /**
-     * Transition from standby to active
+     * Software reset, the chip returns to its POR register values in standby.
      * Note: The reset operation disables the I2C interface so the associated I2C write
-     * give the appearance of failing.
+     * give the appearance of failing.  The RST bit is polled until the chip answers
+     * with it cleared, then the DRDY interrupt routing is restored.
      */
-    public void reset(){
+    public synchronized void reset(){
         this.logger.trace(">>> Enter: reset");
+        this.continuous = false;
+        this.altimeter = false;
         byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
         this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1,  reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK);
-        this.busyWaitMS(10);  // ensure chip quiet
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1,  reg | MPL3115A2_Declares.CTL1_SBYB_SFT_RESET);
-        this.busyWaitMS(10000);  // allow time fir the reboot/POR
+        try {
+            this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, (reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK) | MPL3115A2_Declares.CTL1_SBYB_SFT_RESET);
+        } catch (RuntimeException e) {
+            this.logger.trace("reset write not acknowledged, expected");
+        }
+        long deadline = System.nanoTime() + RESET_TIMEOUT_NANOS;
+        boolean done = false;
+        while (!done && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(RESET_POLL_NANOS);
+            try {
+                done = (this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1) & MPL3115A2_Declares.CTL1_SBYB_SFT_RESET) == 0;
+            } catch (RuntimeException e) {
+                this.logger.trace("reset in progress, chip not answering");
+            }
+        }
+        if (!done) {
+            this.logger.error("reset did not complete");
+        }
+        this.configureDrdy();
         this.logger.trace("<<< Exit : reset");
     }
 
 
+    /**
+     * Enable the data ready interrupt and route it to INT2, data ready is flagged
+     * for new pressure/altitude and temperature data
+     */
+    private void configureDrdy(){
+        this.logger.trace(">>> Enter: configureDrdy");
+        byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_PT_DATA_CFG);
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_PT_DATA_CFG, reg | MPL3115A2_Declares.PT_DATA_CFG_EVNT_ENBL | MPL3115A2_Declares.PT_DATA_CFG_EVNT_PA | MPL3115A2_Declares.PT_DATA_CFG_EVNT_T);
+        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL4);
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL4, reg | MPL3115A2_Declares.CTL4_INT_EN_DRDY);
+        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL5);
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL5, reg & ~MPL3115A2_Declares.CTL5_INT_CFG_DRDY);
+        // a stale conversion would hold INT2 low and no edge would follow
+        this.readData();
+        this.logger.trace("<<< Exit: configureDrdy");
+    }
 
 
     /**
-     *  Configure chip to calculate Altimeter
-     *  Configure interrupt pins to match the Pi GPIO pin configurations
-     *  Enter standby and then active to initiate calculation
+     * Datasheet maximum conversion time for an oversample setting
+     * @param oversample  OS bits, ratio 2^oversample
+     * @return  nanoseconds
      */
-    private boolean forceAltCalc(){
-        this.logger.trace(">>> Enter: forceAltCalc : ");
-        boolean rval = false;
-        this.busyWaitMS(1000);  // ensure chip quiet
-        byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK | MPL3115A2_Declares.CTL1_ALT_ALTIM | MPL3115A2_Declares.CTL1_OVR_SAMPL_MAX);
-        this.busyWaitMS(10);  // ensure chip quiet
-
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_PT_DATA_CFG);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_PT_DATA_CFG, reg | MPL3115A2_Declares.PT_DATA_CFG_EVNT_ENBL | MPL3115A2_Declares.PT_DATA_CFG_EVNT_PA);
+    static long conversionNanos(int oversample) {
+        return (CONVERSION_MS[oversample & 0x7] * 1000000L);
+    }
 
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL4);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL4, reg | MPL3115A2_Declares.CTL4_INT_EN_DRDY);
 
+    /**
+     * Enter active mode, the chip converts every 2^timeStep seconds (or the
+     * conversion time if longer) and signals each result on INT2.  The
+     * MonitorInterrupt1 listener reads the result and completes nextSample().
+     *
+     * @param altimeter   true for altitude, false for pressure
+     * @param oversample  OS bits 0 .. 7, ratio 2^oversample, 6 ms .. 512 ms per conversion
+     * @param timeStep    ST bits 0 .. 15, 2^timeStep seconds between conversions
+     */
+    public synchronized void startContinuous(boolean altimeter, int oversample, int timeStep){
+        this.logger.trace(">>> Enter: startContinuous altimeter " + altimeter + " OS " + oversample + " ST " + timeStep);
+        this.standby(altimeter, oversample);
+        byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL2);
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL2, (reg & ~MPL3115A2_Declares.CTL2_ST_MASK) | (timeStep & MPL3115A2_Declares.CTL2_ST_MASK));
+        this.periodNanos = Math.max((1L << (timeStep & MPL3115A2_Declares.CTL2_ST_MASK)) * 1000000000L, conversionNanos(oversample));
+        this.continuous = true;
         reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, MPL3115A2_Declares.CTL1_ALT_ALTIM | MPL3115A2_Declares.CTL1_OVR_SAMPL_MAX | MPL3115A2_Declares.CTL1_SBYB_ACT);
-
-        // wait INT2
-        int i = 0;
-        for(i=0;i<400;i++){
-            if(this.int2.state()  == DigitalState.LOW) {
-                break;
-            }else{
-                this.logger.trace("Not desired State counter "  + i);
-                this.busyWaitMS(40); // depending upon 'sample rate' possible delay 512MS
-            }
-        }
-        if(i >= 400){
-            this.logger.trace("int2 Time Out ...\r\n");
-        }
-
-        byte source = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_INT_SOURCE);
-        if((source & MPL3115A2_Declares.REG_INT_SOURCE_DRDY) > 0){
-            rval = true;
-        }
-        this.busyWaitMS(500);  // ensure chip quiet
-        this.logger.trace("<<< Exit: forceAltCalc rval : " + rval);
-        return (rval);
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg | MPL3115A2_Declares.CTL1_SBYB_ACT);
+        this.logger.trace("<<< Exit: startContinuous period ns " + this.periodNanos);
     }
 
+    /**
+     * Pressure, maximum oversampling, one conversion per second
+     */
+    public void startContinuous(){
+        this.startContinuous(false, 7, 0);
+    }
 
     /**
-     *  Configure chip to calculate Pressure
-     *  Configure interrupt pins to match the Pi GPIO pin configurations
-     *  Enter standby and then active to initiate calculation
+     * Return to standby, conversions stop
      */
-    private boolean forcePressCalc(){
-        this.logger.trace(">>> Enter: forcePressCalc : ");
-        boolean rval = false;
-        this.busyWaitMS(1000);  // ensure chip quiet
+    public synchronized void stopContinuous(){
+        this.logger.trace(">>> Enter: stopContinuous");
         byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-        this.busyWaitMS(1000);  // ensure chip quiet
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK & MPL3115A2_Declares.CTL1_ALT_PRESS_MASK | MPL3115A2_Declares.CTL1_OVR_SAMPL_MAX);
-        this.busyWaitMS(10);  // ensure chip quiet
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK);
+        this.continuous = false;
+        this.logger.trace("<<< Exit: stopContinuous");
+    }
 
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_PT_DATA_CFG);
-        this.busyWaitMS(1000);  // ensure chip quiet
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_PT_DATA_CFG, reg | MPL3115A2_Declares.PT_DATA_CFG_EVNT_ENBL | MPL3115A2_Declares.PT_DATA_CFG_EVNT_PA);
+    /**
+     * @return true while in active mode
+     */
+    public boolean isContinuous(){
+        return (this.continuous);
+    }
 
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL4);
-        this.busyWaitMS(1000);  // ensure chip quiet
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL4, reg | MPL3115A2_Declares.CTL4_INT_EN_DRDY);
+    /**
+     * @return nanoseconds between conversions in active mode
+     */
+    public long getPeriodNanos(){
+        return (this.periodNanos);
+    }
 
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-        this.busyWaitMS(1000);  // ensure chip quiet
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg & MPL3115A2_Declares.CTL1_ALT_PRESS_MASK | MPL3115A2_Declares.CTL1_OVR_SAMPL_MAX | MPL3115A2_Declares.CTL1_SBYB_ACT);
-
-        // wait INT2
-        int i = 0;
-        for(i=0;i<400;i++){
-            if(this.int2.state()  == DigitalState.LOW) {
-                break;
-            }else{
-                this.logger.trace("Not desired State counter "  + i);
-                this.busyWaitMS(40); // depending upon 'sample rate' possible delay 512MS
-            }
-        }
-        if(i >= 400){
-            this.logger.trace("int2 Time Out ...\r\n");
-        }
+    /**
+     * @return completes with the next conversion read by the DRDY listener
+     */
+    public CompletableFuture<MPL3115A2Sample> nextSample(){
+        return (this.nextSample.get());
+    }
 
-        byte source = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_INT_SOURCE);
-        if((source & MPL3115A2_Declares.REG_INT_SOURCE_DRDY) > 0){
-            rval = true;
-        }
-        this.busyWaitMS(500);  // ensure chip quiet
-        this.logger.trace("<<< Exit: forcePressCalc rval : " + rval);
-        return (rval);
+    /**
+     * @return most recent conversion, null before the first one
+     */
+    public MPL3115A2Sample latest(){
+        return (this.latest);
     }
 
 
-//
     /**
-     *  Configure chip to calculate temperature
-     *  Configure interrupt pins to match the Pi GPIO pin configurations
-     *  Enter standby and then active to initiate calculation
+     * Standby with the requested mode and oversampling, OST cleared
      */
-    private boolean forceTempCalc(){
-        this.logger.trace(">>> Enter: forceTempCalc : ");
-        boolean rval = false;
-        this.busyWaitMS(1000);  // ensure chip quiet
+    private void standby(boolean altimeter, int oversample){
         byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK & MPL3115A2_Declares.CTL1_ALT_PRESS_MASK | MPL3115A2_Declares.CTL1_OVR_SAMPL_MAX);
-        this.busyWaitMS(10);  // ensure chip quiet
-
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_PT_DATA_CFG);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_PT_DATA_CFG, reg | MPL3115A2_Declares.PT_DATA_CFG_EVNT_ENBL | MPL3115A2_Declares.PT_DATA_CFG_EVNT_T);
+        int ctl = reg & MPL3115A2_Declares.CTL1_SBYB_STBY_MASK & MPL3115A2_Declares.CTL1_ALT_PRESS_MASK & ~MPL3115A2_Declares.CTL1_OVR_SAMPL_MASK & ~MPL3115A2_Declares.CTL1_OST;
+        ctl |= (oversample << 3) & MPL3115A2_Declares.CTL1_OVR_SAMPL_MASK;
+        if (altimeter) {
+            ctl |= MPL3115A2_Declares.CTL1_ALT_ALTIM;
+        }
+        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, ctl);
+        this.altimeter = altimeter;
+        this.oversample = oversample;
+    }
 
-          reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL4);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL4, reg | MPL3115A2_Declares.CTL4_INT_EN_DRDY);
 
-        reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-        this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg & MPL3115A2_Declares.CTL1_ALT_PRESS_MASK | MPL3115A2_Declares.CTL1_OVR_SAMPL_MAX | MPL3115A2_Declares.CTL1_SBYB_ACT);
-
-        // wait INT2
-        int i = 0;
-        for(i=0;i<400;i++){
-            if(this.int2.state()  == DigitalState.LOW) {
-                break;
-            }else{
-                this.logger.trace("Not desired State counter "  + i);
-                this.busyWaitMS(20); // depending upon 'sample rate' possible delay 512MS
+    /**
+     * One conversion in the requested mode.  In active mode the next conversion
+     * is awaited, switching mode first if needed.  In standby a one shot (OST)
+     * conversion is started.  Either way the caller parks on the future the DRDY
+     * listener completes.
+     *
+     * @param altimeter  true for altitude, false for pressure
+     * @return sample, null if no conversion completed in time
+     */
+    public MPL3115A2Sample readSample(boolean altimeter){
+        this.logger.trace(">>> Enter: readSample altimeter " + altimeter);
+        CompletableFuture<MPL3115A2Sample> next;
+        long timeoutNanos;
+        synchronized (this) {
+            if (this.continuous) {
+                if (this.altimeter != altimeter) {
+                    byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL2);
+                    this.startContinuous(altimeter, this.oversample, reg & MPL3115A2_Declares.CTL2_ST_MASK);
+                }
+                next = this.nextSample.get();
+                timeoutNanos = this.periodNanos;
+            } else {
+                this.standby(altimeter, this.oversample);
+                next = this.nextSample.get();
+                byte reg = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
+                this.i2c.writeRegister(MPL3115A2_Declares.REG_CTRL1, reg | MPL3115A2_Declares.CTL1_OST);
+                timeoutNanos = conversionNanos(this.oversample);
             }
         }
-        if(i >= 400){
-            this.logger.trace("int2 Time Out ...\r\n");
-        }
-
-        byte source = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_INT_SOURCE);
-        if((source & MPL3115A2_Declares.REG_INT_SOURCE_DRDY) > 0){
-            rval = true;
-        }
-        this.busyWaitMS(500);  // ensure chip quiet
-        this.logger.trace("<<< Exit: forceTempCalc rval : " + rval);
+        MPL3115A2Sample rval = this.awaitSample(next, timeoutNanos * 2 + WAIT_MARGIN_NANOS);
+        this.logger.trace("<<< Exit: readSample  " + rval);
         return (rval);
     }
 
 
+    /**
+     * Wait for the DRDY listener.  On timeout the interrupt source is checked
+     * directly, so a missed edge costs one timeout instead of a stalled INT2.
+     */
+    private MPL3115A2Sample awaitSample(CompletableFuture<MPL3115A2Sample> next, long timeoutNanos){
+        try {
+            return (next.get(timeoutNanos, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            this.logger.trace("DRDY wait timed out, checking INT_SOURCE");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return (null);
+        } catch (ExecutionException e) {
+            this.logger.error("DRDY read failed " + e.getCause());
+            return (null);
+        }
+        if ((this.i2c.readRegisterByte(MPL3115A2_Declares.REG_INT_SOURCE) & MPL3115A2_Declares.REG_INT_SOURCE_DRDY) != 0) {
+            return (this.readData());
+        }
+        this.logger.error("no conversion completed");
+        return (null);
+    }
 
 
+    /**
+     * Read STATUS .. OUT_T_LSB in one burst, which also clears DRDY and releases
+     * INT2, publish the result and complete the pending nextSample() future.
+     * @return decoded sample
+     */
+    synchronized MPL3115A2Sample readData(){
+        byte[] buf = this.dataBuf;
+        this.i2c.readRegister(MPL3115A2_Declares.REG_STATUS, buf);
+        MPL3115A2Sample rval = MPL3115A2Sample.decode(this.altimeter, buf, System.nanoTime());
+        this.latest = rval;
+        this.nextSample.getAndSet(new CompletableFuture<>()).complete(rval);
+        return (rval);
+    }
+
 
     private double readAltimeter(){
         this.logger.trace(">>> Enter: readAltimeter");
         double rval = 0;
-        if(this.forceAltCalc()) {
-
-            byte[] compVal = new byte[2];
-
-            byte dig_a1 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_P_MSB);
-
-            byte dig_a2 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_P_CSB);
-
-            byte dig_a3 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_P_LSB);
-
-            // fill in rval double
-            // 16 bits are integer value  4 bits frac
-            Double alt = Double.valueOf((dig_a1  << 8) | (dig_a2 & 0xff) );
-             // mask the bits, shift right for proper LSB as first bit.
-            // The shift right 4 to make the fraction
-            // see
-            // https://indepth.dev/posts/1019/the-simple-math-behind-decimal-binary-conversion-algorithms
-            Double lsbFrac = ((dig_a3 >> 4) & 0xF)/16.0;
-
-            rval = alt + lsbFrac;
-
-        }else{
-            this.logger.error("forceAltCalc failure");
+        MPL3115A2Sample sample = this.readSample(true);
+        if (sample != null) {
+            rval = sample.altitudeM();
+        } else {
+            this.logger.error("readAltimeter failure");
         }
-
         this.logger.trace("<<< Exit : readAltimeter  :" + rval);
         return(rval);
     }
@@ -435,30 +508,12 @@ private void init(){
     private double readPressure(){
         this.logger.trace(">>> Enter: readPressure");
         double rval = 0;
-        if(this.forcePressCalc()) {
-
-            byte[] compVal = new byte[2];
-
-            byte dig_p1 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_P_MSB);
-
-            byte dig_p2 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_P_CSB);
-
-            byte dig_p3 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_P_LSB);
-
-
-            // fill in rval double
-            // 18 bits are integer value  2 bits frac
-            // see
-            // https://indepth.dev/posts/1019/the-simple-math-behind-decimal-binary-conversion-algorithms
-            Double lsbFrac = ((dig_p3 >> 4) & 0x3)/4.0;
-            Double prs = Double.valueOf(((dig_p1 & 0xff) << 10) | ((dig_p2 & 0xff)<<2)  | ((dig_p3 &0xC0) >>6) );
-
-             rval = prs + lsbFrac;
-
-        }else{
-            this.logger.error("forcePressCalc failure");
+        MPL3115A2Sample sample = this.readSample(false);
+        if (sample != null) {
+            rval = sample.pressurePa();
+        } else {
+            this.logger.error("readPressure failure");
         }
-
         this.logger.trace("<<< Exit : readPressure  :" + rval);
         return(rval);
     }
@@ -466,26 +521,13 @@ private void init(){
     private double readTemperature(){
         this.logger.trace(">>> Enter: readTemperature");
         double rval = 0;
-        if(this.forceTempCalc()) {
-
-            byte[] compVal = new byte[2];
-
-            int dig_t1 =  this.i2c.readRegisterByte(MPL3115A2_Declares.REG_T_MSB);
-
-            int dig_t2 = this.i2c.readRegisterByte(MPL3115A2_Declares.REG_T_LSB);
-
-            // fill in rval double
-            // 18 bits are integer value  2 bits frac
-            // see
-            // https://indepth.dev/posts/1019/the-simple-math-behind-decimal-binary-conversion-algorithms
-
-            Double temp = Double.valueOf(dig_t1);   // sign bit still attached
-            Double tempFrac = (((dig_t2 & 0xF0) >> 4)/16.0);
-            rval = temp + tempFrac;
-        }else{
-            this.logger.error("forceTempCalc failure");
+        // every conversion includes temperature, keep the present mode
+        MPL3115A2Sample sample = this.readSample(this.altimeter);
+        if (sample != null) {
+            rval = sample.temperatureC();
+        } else {
+            this.logger.error("readTemperature failure");
         }
-
         this.logger.trace("<<< Exit : readTemperature  :" + rval);
         return(rval);
     }
@@ -535,13 +577,6 @@ private void init(){
         return(rval);
     }
 
-    private void busyWaitMS(long ms) {
-        long waitUntil = System.nanoTime() + (ms * 1000000);
-        while (waitUntil > System.nanoTime()) {
-            ;
-        }
-    }
-
     // SRC_PTH  alt/press limit. When exceeded
     // interrupt thru int2
     public void set_P_PGT(long target){
@@ -630,9 +665,10 @@ private void init(){
 
 
     /**
-     * The code at present just prints the present value for what
-     * caused the interrupt.  You could change the code to take some action
-     * based on what occurred.
+     * Handles both interrupt pins.  The output registers are read once per event,
+     * completing the pending nextSample() future.  For a limit or window source
+     * the code at present just prints the values of that same sample.  You could change
+     * the code to take some action based on what occurred.
       */
     public static class MonitorInterrupt1 implements DigitalStateChangeListener {
         MPL3115A2 mplObj;
@@ -643,30 +679,33 @@ private void init(){
 
         @Override
         public void onDigitalStateChange(DigitalStateChangeEvent event) {
-            // display pin state on console
-            // system.out.println(" Matrix -->Utility : GPIO PIN STATE CHANGE: "
-            // + event.getPin() + " = " + event.getState());
             if (event.state() == DigitalState.LOW) {
                 // determine which condition occured
-                this.mplObj.logger.trace("onDigitalStateChange Pin " + event.toString() + " went low, see who caused it" + "\n");
+                if (this.mplObj.logger.isTraceEnabled()) {
+                    this.mplObj.logger.trace("onDigitalStateChange Pin " + event.toString() + " went low, see who caused it" + "\n");
+                }
+                // a limit or window event is raised by a finished conversion, so DRDY is
+                // normally set as well; each source bit is tested on its own
                 byte source = this.mplObj.i2c.readRegisterByte(MPL3115A2_Declares.REG_INT_SOURCE);
-                if ((source & MPL3115A2_Declares.REG_INT_SOURCE_PW) > 0) {
-                    byte reg = this.mplObj.i2c.readRegisterByte(MPL3115A2_Declares.REG_CTRL1);
-                    if((reg & MPL3115A2_Declares.CTL1_ALT_PRESS_MASK ) > 0){
-                        double rval = this.mplObj.readPresureMb();
+                int handled = MPL3115A2_Declares.REG_INT_SOURCE_DRDY | MPL3115A2_Declares.REG_INT_SOURCE_PW | MPL3115A2_Declares.REG_INT_SOURCE_TW;
+                if ((source & handled) == 0) {
+                    this.mplObj.logger.trace("onDigitalStateChange " + event.toString() + " unexpected source" + "\n");
+                    return;
+                }
+                // one read serves all sources and completes the pending nextSample()
+                MPL3115A2Sample sample = this.mplObj.readData();
+                if ((source & MPL3115A2_Declares.REG_INT_SOURCE_PW) != 0) {
+                    if (sample.isAltimeter()) {
                         // User add meaningful code here
-                        System.out.println("Pressure limit exceeded  " + rval + "\n");
-                    }else{
-                        double rval = this.mplObj.readAltimeterM();
+                        System.out.println("Altitude limit exceeded  " + sample.altitudeM() + "\n");
+                    } else {
                         // User add meaningful code here
-                        System.out.println("Altitude limit exceeded  " + rval + "\n");
+                        System.out.println("Pressure limit exceeded  " + sample.pressureMb() + "\n");
                     }
-                } else if ((source & MPL3115A2_Declares.REG_INT_SOURCE_TW) > 0) {
-                    double rval = this.mplObj.readTemperatureF();
+                }
+                if ((source & MPL3115A2_Declares.REG_INT_SOURCE_TW) != 0) {
                     // User add meaningful code here
-                    System.out.println("Temperature limit exceeded " + rval   + "\n");
-                } else {
-                    this.mplObj.logger.trace("onDigitalStateChange " + event.toString() + " unexpected source" + "\n");
+                    System.out.println("Temperature limit exceeded " + sample.temperatureF()   + "\n");
                 }
             } else if (event.state() == DigitalState.HIGH) {
                 this.mplObj.logger.trace("onDigitalStateChange " + event.toString() + " Pin went high  NOP"  + "\n");
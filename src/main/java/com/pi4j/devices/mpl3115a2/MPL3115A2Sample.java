@@ -0,0 +1,146 @@
+/*
+ *
+ *
+ *     *
+ *     * -
+ *     * #%L
+ *     * **********************************************************************
+ *     * ORGANIZATION  :  Pi4J
+ *     * PROJECT       :  Pi4J :: EXTENSION
+ *     * FILENAME      :  MPL3115A2Sample.java
+ *     *
+ *     * This file is part of the Pi4J project. More information about
+ *     * this project can be found here:  https://pi4j.com/
+ *     * **********************************************************************
+ *     * %%
+ *     *   * Copyright (C) 2012 - 2022 Pi4J
+ *      * %%
+ *     *
+ *     * Licensed under the Apache License, Version 2.0 (the "License");
+ *     * you may not use this file except in compliance with the License.
+ *     * You may obtain a copy of the License at
+ *     *
+ *     *      http://www.apache.org/licenses/LICENSE-2.0
+ *     *
+ *     * Unless required by applicable law or agreed to in writing, software
+ *     * distributed under the License is distributed on an "AS IS" BASIS,
+ *     * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *     * See the License for the specific language governing permissions and
+ *     * limitations under the License.
+ *     * #L%
+ *     *
+ *
+ *
+ *
+ */
+
+package com.pi4j.devices.mpl3115a2;
+
+
+/**
+ * One MPL3115A2 conversion.  The chip reports either pressure (barometer mode)
+ * or altitude (altimeter mode) together with the temperature, the mode in
+ * effect when the conversion ran decides which.
+ */
+public final class MPL3115A2Sample {
+
+    /**
+     * @param altimeter     true if value is altitude in meters, false if pressure in Pa
+     * @param value         altitude in meters or pressure in Pa
+     * @param temperatureC  temperature centigrade
+     * @param nanos         System.nanoTime() when the measurement was read
+     */
+    public MPL3115A2Sample(boolean altimeter, double value, double temperatureC, long nanos) {
+        this.altimeter = altimeter;
+        this.value = value;
+        this.temperatureC = temperatureC;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Decode the STATUS .. OUT_T_LSB registers, 0x00 .. 0x05
+     * @param altimeter  CTRL_REG1 ALT bit when the conversion ran
+     * @param buf        6 bytes read from register 0x00
+     * @param nanos      System.nanoTime() of the register read
+     * @return decoded sample
+     */
+    static MPL3115A2Sample decode(boolean altimeter, byte[] buf, long nanos) {
+        double value;
+        if (altimeter) {
+            // signed Q16.4 meters
+            value = ((buf[1] << 24) | ((buf[2] & 0xff) << 16) | ((buf[3] & 0xf0) << 8)) / 65536.0;
+        } else {
+            // unsigned Q18.2 Pa
+            value = (((buf[1] & 0xff) << 12) | ((buf[2] & 0xff) << 4) | ((buf[3] & 0xff) >> 4)) / 4.0;
+        }
+        // signed Q8.4 centigrade
+        double temperature = ((buf[4] << 24) | ((buf[5] & 0xf0) << 16)) / 16777216.0;
+        return (new MPL3115A2Sample(altimeter, value, temperature, nanos));
+    }
+
+    /**
+     * @return true if this is an altimeter sample, false for pressure
+     */
+    public boolean isAltimeter() {
+        return (this.altimeter);
+    }
+
+    /**
+     * @return System.nanoTime() when the measurement was read
+     */
+    public long nanos() {
+        return (this.nanos);
+    }
+
+    /**
+     * @return Pressure in Pa units, NaN for an altimeter sample
+     */
+    public double pressurePa() {
+        return (this.altimeter ? Double.NaN : this.value);
+    }
+
+    /**
+     * @return Pressure in millBar, NaN for an altimeter sample
+     */
+    public double pressureMb() {
+        return (this.pressurePa() / 100);
+    }
+
+    /**
+     * @return Altitude in meters, NaN for a pressure sample
+     */
+    public double altitudeM() {
+        return (this.altimeter ? this.value : Double.NaN);
+    }
+
+    /**
+     * @return Altitude in feet, NaN for a pressure sample
+     */
+    public double altitudeF() {
+        return ((this.altitudeM() * 39.37) / 12);
+    }
+
+    /**
+     * @return Temperature centigrade
+     */
+    public double temperatureC() {
+        return (this.temperatureC);
+    }
+
+    /**
+     * @return Temperature fahrenheit
+     */
+    public double temperatureF() {
+        return (this.temperatureC * 1.8 + 32);
+    }
+
+    @Override
+    public String toString() {
+        return ((this.altimeter ? "A " + this.value + " m" : "P " + this.value + " Pa") + "  T " + this.temperatureC + " C");
+    }
+
+    private final boolean altimeter;
+    private final double value;
+    private final double temperatureC;
+    private final long nanos;
+}
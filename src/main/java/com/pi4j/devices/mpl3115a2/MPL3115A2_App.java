@@ -43,6 +43,8 @@ import com.pi4j.util.Console;
 import sun.misc.Signal;
 import sun.misc.SignalHandler;
 
+import java.util.concurrent.TimeUnit;
+
 public class MPL3115A2_App {
 
 
@@ -75,6 +77,8 @@ public class MPL3115A2_App {
         float tg = 0;
         float pg = 0;
         float pa = 0 ;
+        int continuousCount = 0;
+        int timeStep = 0;
 
         // ------------------------------------------------------------
         // Initialize the Pi4J Runtime Context
@@ -123,6 +127,7 @@ public class MPL3115A2_App {
         String helpString = " parms: -b hex value bus    -a hex value address -int1 interrupt1 gpio," +
                 " -int2 interrrupt2 gpio, -x do reset,  -t trace -Pa local_Pa\n" +
                 "  -PW pressure/alt window -PG pressure/alt limit   -TW temp window -TG temp limit  \n" +
+                "  -c count  continuous pressure samples   -st time step, 2^st seconds between samples \n" +
                 " \n trace values : \"trace\", \"debug\", \"info\", \"warn\", \"error\" or \"off\"  Default \"info\"";
         String traceLevel = "info";
         for (int i = 0; i < args.length; i++) {
@@ -163,6 +168,14 @@ public class MPL3115A2_App {
                 String a = args[i + 1];
                 i++;
                 address = Integer.parseInt(a.substring(2), 16);
+            }else if (o.contentEquals("-c")) { // continuous samples
+                String a = args[i + 1];
+                i++;
+                continuousCount = Integer.parseInt(a);
+            }else if (o.contentEquals("-st")) { // continuous time step
+                String a = args[i + 1];
+                i++;
+                timeStep = Integer.parseInt(a);
             }else if (o.contentEquals("-x")) {
                 doReset = true;
             } else if (o.contentEquals("-t")) {
@@ -195,6 +208,16 @@ public class MPL3115A2_App {
             mplDev.reset();
         }
 
+        if (continuousCount > 0) {
+            // active mode, each DRDY completes the future for the next sample
+            mplDev.startContinuous(false, 7, timeStep);
+            for (int c = 0; c < continuousCount; c++) {
+                MPL3115A2Sample sample = mplDev.nextSample().get(2 * mplDev.getPeriodNanos() + 1000000000L, TimeUnit.NANOSECONDS);
+                console.println(" Continuous " + (c + 1) + " : " + sample.pressurePa() + " Pa  " + sample.temperatureC() + " C");
+            }
+            mplDev.stopContinuous();
+        }
+
         double pressure = mplDev.readPresurePa();
         console.println(" Pressure Pa = " + pressure);
 
@@ -57,6 +57,10 @@ public class MPL3115A2_Declares {
     protected final static int CTL1_SBYB_STBY_MASK      = 0b11111110;  // & Clear, set to standby
     protected final static int CTL1_SBYB_SFT_RESET      = 0b00000100;  // Sofware reset
     protected final static int CTL1_OVR_SAMPL_MAX       = 0b00111000;  // ration 128
+    protected final static int CTL1_OVR_SAMPL_MASK      = 0b00111000;  // OS bits 5:3, ratio 2^OS
+    protected final static int CTL1_OST                 = 0b00000010;  // one shot, self clearing
+
+    protected final static int CTL2_ST_MASK             = 0b00001111;  // auto acquisition step 2^ST seconds
 
     protected final static int CTL3_PP_OD1_DRAIN        = 0b00010000;  // open drain
     protected final static int CTL3_PP_OD2_DRAIN        = 0b00000001;  // open drain
@@ -68,6 +72,7 @@ public class MPL3115A2_Declares {
     protected final static int CTL4_INT_EN_PTH          = 0b00001000;  // interrupt enabled press limit
     protected final static int CTL4_INT_EN_TTH          = 0b00000100;  // interrupt enabled temp limit
 
+    protected final static int CTL5_INT_CFG_DRDY        = 0b10000000;  // interrupt DRDY thru int1
     protected final static int CTL5_INT_CFG_PW          = 0b00100000;  // interrupt PW thru int1
     protected final static int CTL5_INT_CFG_TW          = 0b00010000;  // interrupt TW thru int1
     protected final static int CTL5_INT_CFG_PTH         = 0b00001000;  // interrupt PTH thru int1
@@ -85,6 +90,9 @@ public class MPL3115A2_Declares {
 
     protected final static int  WHO_AM_I                = 0xC4; // expected chip ID
 
+    // STATUS, OUT_P_MSB .. OUT_T_LSB read in one burst from REG_STATUS
+    protected final static int  DATA_LENGTH             = 6;
+
 
 
 
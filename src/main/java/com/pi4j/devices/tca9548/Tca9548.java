@@ -52,6 +52,13 @@ import com.pi4j.devices.base_util.gpio.GpioBasics;
  * The code is written with use of the datasheet available on the WEB.
  * TCA9548A Low-Voltage 8-Channel I2C Switch with Reset datasheet (Rev. G)
  *
+ * <p>
+ * The bus enable methods are synchronized on the instance and take a Tca9548Arbiter lease
+ * on the bus they change, so they never switch the mux under another thread's lease.
+ * Threads that must keep a channel selected across several transactions to a device
+ * use getArbiter().withChannel.
+ * </p>
+ *
  * @see <a href="https://www.ti.com/lit/ds/symlink/tca9548a.pdf">https://www.ti.com/lit/ds/symlink/tca9548a.pdf</a>
  */
 
@@ -60,6 +67,14 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
 
     Tca9548ConfigData cfgData = null;
 
+    /**
+     * Shadow of the control register, -1 when unknown.  enableBus/disableBus skip
+     * the bus transaction when the requested bus is already in the wanted state.
+     */
+    private int selectedMask = -1;
+
+    private Tca9548Arbiter arbiter;
+
     /**
      * CTOR.
      *
@@ -108,26 +123,38 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
      *                        </p>
      */
     public boolean disableBus(int disableBusNum) {
-        // TODO Auto-generated method stub
+        return (this.getArbiter().leased(disableBusNum, () -> this.disableBusLocked(disableBusNum)));
+    }
+
+    private synchronized boolean disableBusLocked(int disableBusNum) {
         boolean rval = true;
         byte reg;
         reg = 0;
-        this.ffdc.ffdcMethodEntry(this.getMethodName() + "  bus number: " + disableBusNum);
+        this.ffdc.ffdcMethodEntry("disableBus  bus number: %d", disableBusNum);
 
-        try {
-            reg =  this.readByte();
-        } catch (java.io.IOException e) {
-            this.ffdc.ffdcErrorEntry("disableBus readByte failed");
-            rval = false;
+        int busBits = this.cfgData.getByteMask(disableBusNum);
+        if (busBits != -1 && this.selectedMask != -1 && (this.selectedMask & busBits) == 0) {
+            this.ffdc.ffdcDebugEntry("disableBus  bus %d already disabled", disableBusNum);
+            this.ffdc.ffdcMethodExit("disableBus rval : true");
+            return (true);
+        }
+        if (this.selectedMask != -1) {
+            reg = (byte) this.selectedMask;
+        } else {
+            try {
+                reg = this.readByte();
+            } catch (java.io.IOException e) {
+                this.ffdc.ffdcErrorEntry("disableBus readByte failed");
+                rval = false;
+            }
         }
 
-        int busBits = this.cfgData.getByteMask(disableBusNum);
         if (busBits == -1) {
             this.ffdc.ffdcConfigWarningEntry("bus number not mapped to a byte mask");
             rval = false;
         }
 
-        if (rval) {
+        if (rval && this.ffdc.ffdcDebugEnabled()) {
           String regAstr = "";
             int val = busBits;
             regAstr = regAstr.concat("busBits \n");
@@ -142,11 +169,17 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
                     + ((val & 0x20) >> 5) + "      " + ((val & 0x10) >> 4) + "      " + ((val & 0x08) >> 3) + "      "
                     + ((val & 0x04) >> 2) + "      " + ((val & 0x02) >> 1) + "      " + ((val & 0x01)) + "\n");
             this.ffdc.ffdcDebugEntry(regAstr);
+        }
+
+        if (rval) {
             reg = (byte) (reg & (~busBits));
-            reg = (byte) this.write(reg);
-            rval = this.examineReturnWrite(reg);
+            int rcode = this.write(reg);
+            rval = this.examineReturnWrite(rcode);
+            this.selectedMask = rval ? (reg & 0xff) : -1;
+        }
+        if (this.ffdc.ffdcMethodTraceEnabled()) {
+            this.ffdc.ffdcMethodExit("disableBus rval :" + rval);
         }
-        this.ffdc.ffdcMethodExit((this.getMethodName() + " rval :" + rval));
         return (rval);
     }
 
@@ -166,29 +199,47 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
      *                       </p>
      */
     public boolean enableBus(int enableBusNum) {
+        return (this.getArbiter().leased(enableBusNum, () -> this.enableBusLocked(enableBusNum)));
+    }
+
+    private synchronized boolean enableBusLocked(int enableBusNum) {
         byte reg = 0;
         int rcode = 0;
         boolean rval = true;
-        this.ffdc.ffdcMethodEntry(this.getMethodName() + "  bus number: " + enableBusNum);
-
-        try {
-            reg = this.readByte();
-        } catch (java.io.IOException e) {
-            rval = false;
-        }
+        this.ffdc.ffdcMethodEntry("enableBus  bus number: %d", enableBusNum);
 
         int busBits = this.cfgData.getByteMask(enableBusNum);
         if (busBits == -1) {
             this.ffdc.ffdcConfigWarningEntry("bus number not mapped to a byte mask");
             rval = false;
+        } else if (this.selectedMask != -1 && (this.selectedMask & busBits) == busBits) {
+            // already selected, no switch traffic
+            this.ffdc.ffdcDebugEntry("enableBus  bus %d already enabled", enableBusNum);
+            this.ffdc.ffdcMethodExit("enableBus rval : true");
+            return (true);
+        }
+
+        if (rval) {
+            if (this.selectedMask != -1) {
+                reg = (byte) this.selectedMask;
+            } else {
+                try {
+                    reg = this.readByte();
+                } catch (java.io.IOException e) {
+                    rval = false;
+                }
+            }
         }
 
         if(rval){
             reg = (byte) (reg | busBits);
             rcode = this.write(reg);
             rval = this.examineReturnWrite(rcode);
+            this.selectedMask = rval ? (reg & 0xff) : -1;
          }
-        this.ffdc.ffdcMethodExit((this.getMethodName() + " rval :" + rval));
+        if (this.ffdc.ffdcMethodTraceEnabled()) {
+            this.ffdc.ffdcMethodExit("enableBus rval :" + rval);
+        }
         return (rval);
     }
 
@@ -200,17 +251,18 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
      * <p>
      * PostCond:  Register contents displayed
      */
-    public void displayBusEnable() {
+    public synchronized void displayBusEnable() {
 
         byte reg = (byte) 0xff;
         byte val;
         boolean worked = true;
 
-        this.ffdc.ffdcMethodEntry(this.getMethodName());
+        this.ffdc.ffdcMethodEntry("displayBusEnable");
         String pinName = "      Bus7   Bus6  Bus5   Bus4   Bus3   Bus2   Bus1   Bus0";
 
         try {
             reg = this.readByte();
+            this.selectedMask = reg & 0xff;
         } catch (java.io.IOException e) {
             worked = false;
         }
@@ -227,8 +279,78 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
             this.ffdc.ffdcDebugEntry(regAstr);
             System.out.println(regAstr);
         }
-        this.ffdc.ffdcMethodExit(this.getMethodName());
+        this.ffdc.ffdcMethodExit("displayBusEnable");
+
+    }
+
+    /**
+     * getChannelMask.Control register bit for a bus number.
+     *
+     * @param busNum  bus 0 - 7
+     * @return  mask, or -1 if busNum is not valid
+     */
+    public int getChannelMask(int busNum) {
+        return (this.cfgData.getByteMask(busNum));
+    }
+
+    /**
+     * getSelectedMask.Last value written to or read from the control register.
+     *
+     * @return  enabled bus bits, or -1 if not known
+     */
+    public synchronized int getSelectedMask() {
+        return (this.selectedMask);
+    }
+
+    /**
+     * invalidateSelection.Forget the tracked control register value, the next enableBus
+     * or disableBus reads the chip.  Use when the switch may have been changed by
+     * a reset or by another program.
+     */
+    public synchronized void invalidateSelection() {
+        this.selectedMask = -1;
+        if (this.arbiter != null) {
+            this.arbiter.reset();
+        }
+    }
+
+    /**
+     * selectChannel.Enable bus 'channel' and disable all others.  No bus traffic if
+     * that is already the switch state.
+     * <p>
+     * PreCond: Tca9548 instance initialized.  See CTOR
+     *
+     * @param channel  bus 0 - 7
+     * @return  true if successful
+     */
+    public synchronized boolean selectChannel(int channel) {
+        this.ffdc.ffdcMethodEntry("selectChannel  bus number: %d", channel);
+        boolean rval = true;
+        int busBits = this.cfgData.getByteMask(channel);
+        if (busBits == -1) {
+            this.ffdc.ffdcConfigWarningEntry("bus number not mapped to a byte mask");
+            rval = false;
+        } else if (this.selectedMask != busBits) {
+            int rcode = this.write((byte) busBits);
+            rval = this.examineReturnWrite(rcode);
+            this.selectedMask = rval ? busBits : -1;
+        }
+        if (this.ffdc.ffdcMethodTraceEnabled()) {
+            this.ffdc.ffdcMethodExit("selectChannel rval :" + rval);
+        }
+        return (rval);
+    }
 
+    /**
+     * getArbiter.Lease arbiter shared by all threads using this switch.
+     *
+     * @return  Tca9548Arbiter for this instance
+     */
+    public synchronized Tca9548Arbiter getArbiter() {
+        if (this.arbiter == null) {
+            this.arbiter = new Tca9548Arbiter(this, this.ffdc);
+        }
+        return (this.arbiter);
     }
 
     /**
@@ -244,7 +366,7 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
      *                  PostCond:  Chip reset.
     */
     public void resetChip(int resetGpio) {
-        this.ffdc.ffdcMethodEntry(this.getMethodName() + "  GPIO" + resetGpio);
+        this.ffdc.ffdcMethodEntry("resetChip  GPIO%d", resetGpio);
         var ledConfig = DigitalOutput.newConfigBuilder(pi4j)
                 .id("restPin")
                 .name("tca95448 reset")
@@ -262,6 +384,7 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
         }
         try {
             resetPin.low();
+            this.invalidateSelection();
             this.sleepMS(1500, this.ffdc);
             resetPin.high();
         } catch (IOException e) {
@@ -269,7 +392,7 @@ public class Tca9548 extends BasicI2cDevice implements GpioBasics {
             this.ffdc.ffdcErrorEntry("drive DigOut failed");
             this.ffdc.ffdcErrorExit("drive DigOut failed", 201);
         }
-        this.ffdc.ffdcMethodExit(this.getMethodName());
+        this.ffdc.ffdcMethodExit("resetChip");
     }
 
 
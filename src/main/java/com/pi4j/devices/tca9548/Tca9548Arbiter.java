@@ -0,0 +1,240 @@
+/*
+ *
+ *  *
+ *  * -
+ *  *   * #%L
+ *  *   * **********************************************************************
+ *  *   * ORGANIZATION  :  Pi4J
+ *  *   * PROJECT       :  Pi4J :: EXTENSION
+ *  *   * FILENAME      :  Tca9548Arbiter.java
+ *  *   *
+ *  *   * This file is part of the Pi4J project. More information about
+ *  *   * this project can be found here:  https://pi4j.com/
+ *  *   * **********************************************************************
+ *    * %%
+ *  *   * Copyright (C) 2012 - 2021 Pi4J
+ *     * %%
+ *    * Licensed under the Apache License, Version 2.0 (the "License");
+ *    * you may not use this file except in compliance with the License.
+ *    * You may obtain a copy of the License at
+ *    *
+ *    *      http://www.apache.org/licenses/LICENSE-2.0
+ *    *
+ *    * Unless required by applicable law or agreed to in writing, software
+ *    * distributed under the License is distributed on an "AS IS" BASIS,
+ *    * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    * See the License for the specific language governing permissions and
+ *    * limitations under the License.
+ *    * #L%
+ *  *
+ *  *
+ *
+ *
+ */
+package com.pi4j.devices.tca9548;
+
+
+import com.pi4j.devices.base_util.ffdc.FfdcUtil;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+
+/**
+ * <h1>Tca9548Arbiter</h1> Serializes use of one TCA9548 between threads.
+ * <p>
+ * A caller obtains a lease on a single channel with withChannel.  While the lease is
+ * held no other thread can switch the mux, so the I2C transactions made inside the
+ * Callable reach the device behind that channel.  The lease selects only the leased
+ * channel.
+ * </p>
+ * <p>
+ * Waiters are granted in arrival order (fair lock) with one exception: while requests
+ * for the currently selected channel are waiting they are granted ahead of requests
+ * for other channels, up to MAX_BATCH consecutive grants.  Same-channel requests so
+ * run back to back with no switch traffic, and other channels are not starved.
+ * </p>
+ * <p>
+ * A lease is reentrant for the owning thread.  Nested leases must use the same channel.
+ * Tca9548.enableBus and disableBus take a lease on the bus they change, so they wait
+ * for another thread's lease and may be called from inside the caller's own lease on
+ * that channel.
+ * </p>
+ */
+public class Tca9548Arbiter {
+
+    /**
+     * CTOR
+     * @param mux   switch being arbitrated
+     * @param ffdc  logging
+     */
+    public Tca9548Arbiter(Tca9548 mux, FfdcUtil ffdc) {
+        this.mux = mux;
+        this.ffdc = ffdc;
+    }
+
+    /**
+     * withChannel.Run work with channel ch selected and the mux held.
+     *
+     * @param ch    channel 0 - 7
+     * @param work  I2C transactions for the device behind ch
+     * @param <T>   work result type
+     * @return  result of work
+     * @throws IOException   if the channel could not be selected
+     * @throws Exception     thrown by work, or InterruptedException while waiting
+     */
+    public <T> T withChannel(int ch, Callable<T> work) throws Exception {
+        if (ch < 0 || ch >= this.waiting.length) {
+            throw new IllegalArgumentException("TCA9548 channel out of range : " + ch);
+        }
+        this.acquire(ch);
+        try {
+            if (this.mux.selectChannel(ch) == false) {
+                throw new IOException("TCA9548 select channel failed : " + ch);
+            }
+            return (work.call());
+        } finally {
+            this.release();
+        }
+    }
+
+    /**
+     * Run a Tca9548 bus update under a lease on ch, used by enableBus/disableBus so
+     * they cannot change the switch inside another thread's lease.
+     *
+     * @param ch  channel the update touches
+     * @param op  update, run without the lease if ch is out of range
+     * @return  op result, false if interrupted while waiting
+     */
+    boolean leased(int ch, BooleanSupplier op) {
+        if (ch < 0 || ch >= this.waiting.length) {
+            return (op.getAsBoolean());
+        }
+        try {
+            this.acquire(ch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.ffdc.ffdcErrorEntry("Tca9548Arbiter interrupted waiting for channel " + ch);
+            return (false);
+        }
+        try {
+            return (op.getAsBoolean());
+        } finally {
+            this.release();
+        }
+    }
+
+    private void acquire(int ch) throws InterruptedException {
+        Thread me = Thread.currentThread();
+        this.lock.lock();
+        try {
+            if (this.owner == me) {
+                if (ch != this.currentChannel) {
+                    throw new IllegalStateException("nested TCA9548 lease for channel " + ch
+                            + " inside lease for channel " + this.currentChannel);
+                }
+                this.holdCount++;
+                return;
+            }
+            this.waiting[ch]++;
+            try {
+                while (this.owner != null || this.deferTo(ch)) {
+                    this.released.await();
+                }
+            } finally {
+                this.waiting[ch]--;
+            }
+            this.owner = me;
+            this.holdCount = 1;
+            if (ch == this.currentChannel) {
+                this.batchRun++;
+            } else {
+                this.switches++;
+                this.ffdc.ffdcDebugEntry("Tca9548Arbiter switch to channel %d", ch);
+                this.currentChannel = ch;
+                this.batchRun = 1;
+            }
+            this.grants++;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @param ch  channel wanted by the caller
+     * @return  true if a waiter for the current channel should go first
+     */
+    private boolean deferTo(int ch) {
+        return (ch != this.currentChannel && this.currentChannel >= 0
+                && this.waiting[this.currentChannel] > 0 && this.batchRun < MAX_BATCH);
+    }
+
+    private void release() {
+        this.lock.lock();
+        try {
+            this.holdCount--;
+            if (this.holdCount == 0) {
+                this.owner = null;
+                this.released.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Forget the last granted channel, used when the mux selection is invalidated.
+     */
+    void reset() {
+        this.lock.lock();
+        try {
+            this.currentChannel = -1;
+            this.batchRun = 0;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return  leases granted
+     */
+    public long getGrants() {
+        this.lock.lock();
+        try {
+            return (this.grants);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return  leases that needed a different channel than the previous lease
+     */
+    public long getSwitches() {
+        this.lock.lock();
+        try {
+            return (this.switches);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /** Maximum consecutive same-channel grants while other channels wait */
+    public static final int MAX_BATCH = 8;
+
+    final Tca9548 mux;
+    FfdcUtil ffdc;
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = this.lock.newCondition();
+    private final int[] waiting = new int[8];
+    private Thread owner;
+    private int holdCount;
+    private int currentChannel = -1;
+    private int batchRun;
+    private long grants;
+    private long switches;
+
+}